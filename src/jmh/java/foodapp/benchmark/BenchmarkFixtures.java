@@ -0,0 +1,57 @@
+package foodapp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import foodapp.dto.OrderItemRequest;
+import foodapp.entity.Food;
+import foodapp.entity.Restaurant;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+	static final int MENU_SIZE = 200;
+
+	private BenchmarkFixtures() {
+	}
+
+	static Restaurant restaurant(int id, int menuSize) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(id);
+		restaurant.setName("Restaurant " + id);
+		restaurant.setAddress(id + " MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail("restaurant" + id + "@foodapp.in");
+		List<Food> foods = new ArrayList<>(menuSize);
+		for (int i = 1; i <= menuSize; i++) {
+			foods.add(food(i));
+		}
+		restaurant.setFoods(foods);
+		return restaurant;
+	}
+
+	static Food food(int id) {
+		Food food = new Food();
+		food.setId(id);
+		food.setName("Dish " + id);
+		food.setDescription("House special number " + id);
+		food.setPrice(50f + id % 400);
+		return food;
+	}
+
+	/**
+	 * A cart of distinct menu items spread over the whole menu.
+	 */
+	static List<OrderItemRequest> cart(int size) {
+		List<OrderItemRequest> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			OrderItemRequest item = new OrderItemRequest();
+			item.setFoodId(1 + (i * 7) % MENU_SIZE);
+			item.setQuantity(1 + i % 3);
+			items.add(item);
+		}
+		return items;
+	}
+}
@@ -0,0 +1,71 @@
+package foodapp.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.BillResponse;
+import foodapp.dto.OrderRequest;
+import foodapp.events.OrderEventBus;
+import foodapp.index.MenuIndex;
+import foodapp.index.OrderReadModel;
+import foodapp.pipeline.OrderWriter;
+import foodapp.repository.OrderRepository;
+import foodapp.repository.RestaurantRepository;
+import foodapp.repository.UserRepository;
+import foodapp.service.FoodService;
+import foodapp.service.impl.OrderServiceImpl;
+import foodapp.stats.SalesStats;
+
+/**
+ * Bill computation from a warm menu snapshot, called on the service directly so
+ * the bills cache is not involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillBenchmark {
+
+	@Param({ "1", "5", "25", "100" })
+	public int cartSize;
+
+	private OrderServiceImpl orderService;
+	private OrderRequest orderRequest;
+
+	@Setup
+	public void setup() {
+		MenuIndex menuIndex = new MenuIndex(mock(RestaurantRepository.class), mock(CacheInvalidationBus.class));
+		menuIndex.publish(BenchmarkFixtures.restaurant(1, BenchmarkFixtures.MENU_SIZE));
+		orderService = new OrderServiceImpl(mock(FoodService.class), mock(UserRepository.class),
+				mock(OrderRepository.class), menuIndex, mock(OrderReadModel.class), mock(OrderWriter.class),
+				mock(OrderEventBus.class), mock(SalesStats.class), new ObjectMapper(), Duration.ofSeconds(5));
+
+		orderRequest = new OrderRequest();
+		orderRequest.setRestaurantId(1);
+		orderRequest.setOrderItems(BenchmarkFixtures.cart(cartSize));
+	}
+
+	@Benchmark
+	public BillResponse generateBill() {
+		return orderService.generateBill(orderRequest);
+	}
+}
@@ -0,0 +1,77 @@
+package foodapp.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.config.BillKeyGenerator;
+import foodapp.dto.OrderItemRequest;
+import foodapp.dto.OrderRequest;
+import foodapp.index.MenuIndex;
+import foodapp.repository.RestaurantRepository;
+import foodapp.service.impl.OrderServiceImpl;
+
+/**
+ * Cost of the bills cache key and of the check that every food is on the menu,
+ * both computed on every generateBill call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillCacheKeyBenchmark {
+
+	@Param({ "1", "5", "25", "100" })
+	public int cartSize;
+
+	private BillKeyGenerator keyGenerator;
+	private MenuIndex menuIndex;
+	private Method generateBill;
+	private OrderRequest orderRequest;
+	private List<Integer> foodIds;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		generateBill = OrderServiceImpl.class.getMethod("generateBill", OrderRequest.class);
+		menuIndex = new MenuIndex(mock(RestaurantRepository.class), mock(CacheInvalidationBus.class));
+		menuIndex.publish(BenchmarkFixtures.restaurant(1, BenchmarkFixtures.MENU_SIZE));
+		keyGenerator = new BillKeyGenerator(menuIndex);
+
+		orderRequest = new OrderRequest();
+		orderRequest.setRestaurantId(1);
+		orderRequest.setOrderItems(BenchmarkFixtures.cart(cartSize));
+		foodIds = orderRequest.getOrderItems().stream().map(OrderItemRequest::getFoodId).toList();
+	}
+
+	@Benchmark
+	public Object key() {
+		return keyGenerator.generate(null, generateBill, orderRequest);
+	}
+
+	@Benchmark
+	public boolean servesAll() {
+		return menuIndex.servesAll(1, foodIds);
+	}
+
+	@Benchmark
+	public int orderItemsHashCode() {
+		return orderRequest.getOrderItems().hashCode();
+	}
+}
@@ -0,0 +1,84 @@
+package foodapp.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.index.RestaurantGeoIndex;
+import foodapp.index.RestaurantLocation;
+import foodapp.repository.RestaurantRepository;
+
+/**
+ * Nearby searches over restaurants spread across a city-sized area around
+ * Bengaluru, from random points inside it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearbyRestaurantsBenchmark {
+
+	private static final double CENTER_LATITUDE = 12.97;
+	private static final double CENTER_LONGITUDE = 77.59;
+	private static final double SPREAD_DEGREES = 0.5;
+
+	@Param({ "10000", "100000" })
+	public int restaurants;
+
+	private RestaurantGeoIndex geoIndex;
+	private double[][] points;
+	private int next;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<RestaurantLocation> locations = new ArrayList<>(restaurants);
+		for (int id = 1; id <= restaurants; id++) {
+			locations.add(new RestaurantLocation(id, "Restaurant " + id, "Address " + id,
+					CENTER_LATITUDE + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES),
+					CENTER_LONGITUDE + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES)));
+		}
+		RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+		when(restaurantRepository.findAllLocations()).thenReturn(locations);
+		geoIndex = new RestaurantGeoIndex(restaurantRepository, mock(CacheInvalidationBus.class));
+		geoIndex.loadAll();
+
+		points = new double[1024][];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new double[] { CENTER_LATITUDE + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES),
+					CENTER_LONGITUDE + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES) };
+		}
+	}
+
+	@Benchmark
+	public List<NearbyRestaurantResponse> nearest20() {
+		double[] point = points[next++ & (points.length - 1)];
+		return geoIndex.nearest(point[0], point[1], 20, 10);
+	}
+
+	@Benchmark
+	public List<NearbyRestaurantResponse> within2Km() {
+		double[] point = points[next++ & (points.length - 1)];
+		return geoIndex.within(point[0], point[1], 2, 100);
+	}
+}
@@ -0,0 +1,109 @@
+package foodapp.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.PaymentDto;
+import foodapp.entity.Food;
+import foodapp.entity.Order;
+import foodapp.entity.Restaurant;
+import foodapp.entity.User;
+import foodapp.events.OrderEventBus;
+import foodapp.index.MenuIndex;
+import foodapp.index.OrderReadModel;
+import foodapp.pipeline.OrderWriter;
+import foodapp.repository.OrderRepository;
+import foodapp.repository.RestaurantRepository;
+import foodapp.repository.SalesRollupRepository;
+import foodapp.repository.UserRepository;
+import foodapp.service.FoodService;
+import foodapp.service.impl.OrderServiceImpl;
+import foodapp.stats.SalesStats;
+
+/**
+ * Order and OrderItem graph construction in payAndPlaceOrder, up to the hand-off
+ * to the order writer. Collaborators are
+ * Mockito stubs, so absolute numbers include a constant stub overhead; compare
+ * runs against each other, not against production latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+	@Param({ "1", "5", "25" })
+	public int cartSize;
+
+	private OrderServiceImpl orderService;
+	private PaymentDto payment;
+
+	@Setup
+	public void setup() {
+		Restaurant restaurant = BenchmarkFixtures.restaurant(1, BenchmarkFixtures.MENU_SIZE);
+		Map<Integer, Food> foods = restaurant.getFoods().stream()
+				.collect(Collectors.toMap(Food::getId, Function.identity()));
+		MenuIndex menuIndex = new MenuIndex(mock(RestaurantRepository.class), mock(CacheInvalidationBus.class));
+		menuIndex.publish(restaurant);
+		FoodService foodService = mock(FoodService.class);
+		when(foodService.getFoodsByIds(anyCollection())).thenReturn(foods);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findUsernameById(anyInt())).thenReturn(Optional.of("benchmark"));
+		User user = new User();
+		user.setId(1);
+		OrderWriter orderWriter = mock(OrderWriter.class);
+		when(orderWriter.submit(any(Order.class), anyInt(), anyInt())).then(invocation -> {
+			Order order = invocation.getArgument(0);
+			order.setRestaurant(restaurant);
+			order.setUser(user);
+			return CompletableFuture.completedFuture(order);
+		});
+
+		orderService = new OrderServiceImpl(foodService, userRepository, mock(OrderRepository.class), menuIndex,
+				mock(OrderReadModel.class), orderWriter, mock(OrderEventBus.class),
+				new SalesStats(mock(SalesRollupRepository.class), mock(JdbcTemplate.class),
+						mock(PlatformTransactionManager.class), menuIndex),
+				new ObjectMapper(), Duration.ofSeconds(5));
+
+		payment = new PaymentDto();
+		payment.setPaymentSuccessful(true);
+		payment.setRestaurantId(1);
+		payment.setUserId(1);
+		payment.setOrderItems(BenchmarkFixtures.cart(cartSize));
+	}
+
+	@Benchmark
+	public String payAndPlaceOrder() {
+		return orderService.payAndPlaceOrder(payment).join();
+	}
+}
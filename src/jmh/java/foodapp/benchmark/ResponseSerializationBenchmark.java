@@ -0,0 +1,67 @@
+package foodapp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import foodapp.dto.ResponseStructure;
+import foodapp.entity.Restaurant;
+
+/**
+ * JSON serialization of a restaurant page as returned by GET /api/restaurants,
+ * using an ObjectMapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+	@Param({ "5", "50" })
+	public int pageSize;
+
+	@Param({ "0", "20" })
+	public int menuSize;
+
+	private ObjectWriter writer;
+	private ResponseStructure<Page<Restaurant>> response;
+
+	@Setup
+	public void setup() {
+		writer = Jackson2ObjectMapperBuilder.json().build().writer();
+		List<Restaurant> restaurants = new ArrayList<>(pageSize);
+		for (int i = 1; i <= pageSize; i++) {
+			Restaurant restaurant = BenchmarkFixtures.restaurant(i, menuSize);
+			restaurant.setOrders(List.of());
+			restaurants.add(restaurant);
+		}
+		Page<Restaurant> page = new PageImpl<>(restaurants, PageRequest.of(0, pageSize), 10_000);
+		response = new ResponseStructure<>(200, "Restaurants fetched Successfully!!", page);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return writer.writeValueAsBytes(response);
+	}
+}
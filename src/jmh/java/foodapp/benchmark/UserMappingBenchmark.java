@@ -0,0 +1,59 @@
+package foodapp.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import foodapp.dto.UserResponse;
+import foodapp.entity.User;
+import foodapp.repository.UserRepository;
+import foodapp.security.CredentialCache;
+import foodapp.security.TokenRevocationList;
+import foodapp.service.impl.UserServiceImpl;
+import foodapp.storage.ImageStore;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+	private UserServiceImpl userService;
+	private User user;
+
+	@Setup
+	public void setup() {
+		TokenRevocationList revocationList = mock(TokenRevocationList.class);
+		userService = new UserServiceImpl(mock(UserRepository.class), mock(PasswordEncoder.class),
+				mock(ImageStore.class), new CredentialCache(new CaffeineCacheManager(), revocationList), revocationList);
+
+		user = new User();
+		user.setId(42);
+		user.setUsername("benchmark");
+		user.setEmail("benchmark@foodapp.in");
+		user.setContactNumber("9876543210");
+		user.setAddress("12 MG Road, Bengaluru");
+		user.setRole("ROLE_USER");
+		user.setImageKey("0".repeat(64));
+	}
+
+	@Benchmark
+	public UserResponse toResponse() {
+		return userService.toResponse(user);
+	}
+}
@@ -0,0 +1,103 @@
+package foodapp.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Local cache whose evictions are also sent to the other nodes. Puts stay
+ * local unless {@code broadcastPuts} is set: a value loaded on a miss is just
+ * as fresh on the peers, while a value written by {@code @CachePut} means their
+ * copies are now stale.
+ */
+public class BroadcastingCache implements Cache {
+
+	private final Cache target;
+	private final CacheInvalidationBus bus;
+	private final boolean broadcastPuts;
+
+	BroadcastingCache(Cache target, CacheInvalidationBus bus, boolean broadcastPuts) {
+		this.target = target;
+		this.bus = bus;
+		this.broadcastPuts = broadcastPuts;
+	}
+
+	@Override
+	public String getName() {
+		return target.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return target.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return target.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return target.get(key, type);
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return target.get(key, valueLoader);
+	}
+
+	@Override
+	public CompletableFuture<?> retrieve(Object key) {
+		return target.retrieve(key);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return target.retrieve(key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		target.put(key, value);
+		if (broadcastPuts)
+			bus.publish(getName(), key);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		return target.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		target.evict(key);
+		bus.publish(getName(), key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = target.evictIfPresent(key);
+		bus.publish(getName(), key);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		target.clear();
+		bus.publish(getName(), null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean present = target.invalidate();
+		bus.publish(getName(), null);
+		return present;
+	}
+
+	Cache withBroadcastPuts() {
+		return new BroadcastingCache(target, bus, true);
+	}
+}
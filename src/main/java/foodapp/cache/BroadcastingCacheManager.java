@@ -0,0 +1,49 @@
+package foodapp.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps the node-local cache manager so every eviction also reaches the other
+ * nodes, and applies their evictions to the local caches without sending them
+ * on again.
+ */
+public class BroadcastingCacheManager implements CacheManager {
+
+	private final CacheManager target;
+	private final CacheInvalidationBus bus;
+	private final Map<String, BroadcastingCache> caches = new ConcurrentHashMap<>();
+
+	public BroadcastingCacheManager(CacheManager target, CacheInvalidationBus bus) {
+		this.target = target;
+		this.bus = bus;
+		bus.fallback(this::evictLocally);
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		Cache cache = target.getCache(name);
+		if (cache == null)
+			return null;
+		return caches.computeIfAbsent(name, key -> new BroadcastingCache(cache, bus, false));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return target.getCacheNames();
+	}
+
+	private void evictLocally(String cacheName, Object key) {
+		Cache cache = target.getCache(cacheName);
+		if (cache == null)
+			return;
+		if (key == null)
+			cache.clear();
+		else
+			cache.evict(key);
+	}
+}
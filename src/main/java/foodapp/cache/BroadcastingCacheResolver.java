@@ -0,0 +1,31 @@
+package foodapp.cache;
+
+import java.util.Collection;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CachePutOperation;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+
+/**
+ * Resolves caches for the caching annotations. {@code @CachePut} gets a cache
+ * whose puts invalidate the key on the other nodes; every other operation
+ * gets the plain broadcasting cache.
+ */
+public class BroadcastingCacheResolver extends SimpleCacheResolver {
+
+	public BroadcastingCacheResolver(CacheManager cacheManager) {
+		super(cacheManager);
+	}
+
+	@Override
+	public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+		Collection<? extends Cache> caches = super.resolveCaches(context);
+		if (!(context.getOperation() instanceof CachePutOperation))
+			return caches;
+		return caches.stream()
+				.map(cache -> cache instanceof BroadcastingCache broadcasting ? broadcasting.withBroadcastPuts() : cache)
+				.toList();
+	}
+}
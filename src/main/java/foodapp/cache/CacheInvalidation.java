@@ -0,0 +1,13 @@
+package foodapp.cache;
+
+/**
+ * One invalidation sent between nodes. Only keys travel, never values.
+ *
+ * @param origin    node that made the change; it ignores its own messages
+ * @param cacheName cache or channel the key belongs to
+ * @param key       the stale key, or null if the whole cache is stale
+ * @param version   version the receiver must at least load again, 0 if the
+ *                  channel is not versioned
+ */
+public record CacheInvalidation(String origin, String cacheName, Object key, long version) {
+}
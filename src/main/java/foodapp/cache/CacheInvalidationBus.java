@@ -0,0 +1,65 @@
+package foodapp.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes local invalidations to the other nodes and applies theirs here.
+ * Received keys go to the handler registered for their cache name, or else to
+ * the fallback handler, which evicts from the local Spring caches.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+	private final String nodeId = UUID.randomUUID().toString();
+	private final InvalidationTransport transport;
+	private final Map<String, InvalidationHandler> handlers = new ConcurrentHashMap<>();
+	private volatile CacheInvalidationFallback fallback = (cacheName, key) -> {
+	};
+
+	public CacheInvalidationBus(InvalidationTransport transport) {
+		this.transport = transport;
+		transport.receive(this::apply);
+	}
+
+	public void publish(String cacheName, Object key) {
+		publish(cacheName, key, 0);
+	}
+
+	public void publish(String cacheName, Object key, long version) {
+		transport.send(new CacheInvalidation(nodeId, cacheName, key, version));
+	}
+
+	public void register(String cacheName, InvalidationHandler handler) {
+		handlers.put(cacheName, handler);
+	}
+
+	void fallback(CacheInvalidationFallback fallback) {
+		this.fallback = fallback;
+	}
+
+	private void apply(CacheInvalidation invalidation) {
+		if (nodeId.equals(invalidation.origin()))
+			return;
+		try {
+			InvalidationHandler handler = handlers.get(invalidation.cacheName());
+			if (handler != null)
+				handler.invalidate(invalidation.key(), invalidation.version());
+			else
+				fallback.evict(invalidation.cacheName(), invalidation.key());
+		} catch (RuntimeException e) {
+			log.warn("Could not apply invalidation of {} in {}", invalidation.key(), invalidation.cacheName(), e);
+		}
+	}
+
+	@FunctionalInterface
+	interface CacheInvalidationFallback {
+		void evict(String cacheName, Object key);
+	}
+}
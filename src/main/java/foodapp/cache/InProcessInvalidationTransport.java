@@ -0,0 +1,38 @@
+package foodapp.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers invalidations to every application context in the same JVM. This is
+ * the single-node default and lets tests run several "nodes" side by side.
+ */
+@Component
+@ConditionalOnProperty(name = "foodapp.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class InProcessInvalidationTransport implements InvalidationTransport, DisposableBean {
+
+	private static final List<Consumer<CacheInvalidation>> RECEIVERS = new CopyOnWriteArrayList<>();
+
+	private final List<Consumer<CacheInvalidation>> own = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void send(CacheInvalidation invalidation) {
+		RECEIVERS.forEach(receiver -> receiver.accept(invalidation));
+	}
+
+	@Override
+	public void receive(Consumer<CacheInvalidation> receiver) {
+		own.add(receiver);
+		RECEIVERS.add(receiver);
+	}
+
+	@Override
+	public void destroy() {
+		RECEIVERS.removeAll(own);
+	}
+}
@@ -0,0 +1,15 @@
+package foodapp.cache;
+
+/**
+ * Applies an invalidation received from another node to a local structure that
+ * is not a Spring cache, such as the menu index.
+ */
+@FunctionalInterface
+public interface InvalidationHandler {
+
+	/**
+	 * @param key     the stale key, or null if everything is stale
+	 * @param version see {@link CacheInvalidation#version()}
+	 */
+	void invalidate(Object key, long version);
+}
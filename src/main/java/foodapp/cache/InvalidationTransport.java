@@ -0,0 +1,18 @@
+package foodapp.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidations to the other nodes. Delivery is best effort: cache
+ * expiry bounds how long a lost message can leave an entry stale.
+ */
+public interface InvalidationTransport {
+
+	void send(CacheInvalidation invalidation);
+
+	/**
+	 * Registers the receiver of messages from other nodes. Messages sent by this
+	 * node may be delivered back to it.
+	 */
+	void receive(Consumer<CacheInvalidation> receiver);
+}
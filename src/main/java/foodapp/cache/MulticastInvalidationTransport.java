@@ -0,0 +1,159 @@
+package foodapp.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends invalidations as UDP multicast datagrams on the local network, so nodes
+ * find each other without a registry or broker. A datagram is one line of
+ * tab-separated fields: origin, cache, version, key type and key. Keys of other
+ * types than Integer, Long and String are sent as "clear the whole cache".
+ * <p>
+ * The group is joined on {@code foodapp.cache.invalidation.interface} if set,
+ * otherwise on the interface of the host's own address, otherwise on the first
+ * non-loopback interface that is up and supports multicast.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "foodapp.cache.invalidation.transport", havingValue = "multicast")
+public class MulticastInvalidationTransport implements InvalidationTransport, SmartLifecycle {
+
+	private static final int MAX_DATAGRAM = 8192;
+
+	private final InetSocketAddress group;
+
+	private volatile Consumer<CacheInvalidation> receiver = invalidation -> {
+	};
+	private final MulticastSocket socket;
+	private final NetworkInterface networkInterface;
+	private volatile boolean running;
+
+	public MulticastInvalidationTransport(@Value("${foodapp.cache.invalidation.group}") String group,
+			@Value("${foodapp.cache.invalidation.port}") int port,
+			@Value("${foodapp.cache.invalidation.interface:}") String interfaceName,
+			@Value("${foodapp.cache.invalidation.ttl}") int timeToLive) throws IOException {
+		this.group = new InetSocketAddress(group, port);
+		this.networkInterface = networkInterface(interfaceName);
+		this.socket = new MulticastSocket(port);
+		log.info("Cache invalidations use multicast group {} on interface {}", this.group,
+				networkInterface.getName());
+		socket.setNetworkInterface(networkInterface);
+		socket.setTimeToLive(timeToLive);
+		socket.joinGroup(this.group, networkInterface);
+	}
+
+	private static NetworkInterface networkInterface(String name) throws IOException {
+		if (!name.isBlank()) {
+			NetworkInterface named = NetworkInterface.getByName(name.trim());
+			if (named == null)
+				throw new IllegalStateException("foodapp.cache.invalidation.interface: no network interface " + name);
+			return named;
+		}
+		NetworkInterface local = NetworkInterface.getByInetAddress(InetAddress.getLocalHost());
+		if (local != null && usable(local))
+			return local;
+		return NetworkInterface.networkInterfaces().filter(MulticastInvalidationTransport::usable).findFirst()
+				.orElseThrow(() -> new IllegalStateException(
+						"No network interface for cache invalidations; set foodapp.cache.invalidation.interface"));
+	}
+
+	private static boolean usable(NetworkInterface networkInterface) {
+		try {
+			return networkInterface.isUp() && !networkInterface.isLoopback() && networkInterface.supportsMulticast();
+		} catch (SocketException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void send(CacheInvalidation invalidation) {
+		byte[] data = encode(invalidation).getBytes(StandardCharsets.UTF_8);
+		if (data.length > MAX_DATAGRAM) {
+			data = encode(new CacheInvalidation(invalidation.origin(), invalidation.cacheName(), null,
+					invalidation.version())).getBytes(StandardCharsets.UTF_8);
+		}
+		try {
+			socket.send(new DatagramPacket(data, data.length, group));
+		} catch (IOException e) {
+			log.warn("Could not send cache invalidation for {}", invalidation.cacheName(), e);
+		}
+	}
+
+	@Override
+	public void receive(Consumer<CacheInvalidation> receiver) {
+		this.receiver = receiver;
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		Thread.ofPlatform().name("cache-invalidation").daemon(true).start(this::listen);
+	}
+
+	@Override
+	public void stop() {
+		try {
+			socket.leaveGroup(group, networkInterface);
+		} catch (IOException e) {
+			log.debug("Could not leave cache invalidation group", e);
+		}
+		running = false;
+		socket.close();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private void listen() {
+		byte[] buffer = new byte[MAX_DATAGRAM];
+		while (running) {
+			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+			try {
+				socket.receive(packet);
+				receiver.accept(decode(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8)));
+			} catch (SocketException e) {
+				// socket closed on shutdown
+			} catch (IOException | RuntimeException e) {
+				log.warn("Dropping malformed cache invalidation", e);
+			}
+		}
+	}
+
+	static String encode(CacheInvalidation invalidation) {
+		Object key = invalidation.key();
+		String type = key instanceof Integer ? "I" : key instanceof Long ? "L" : key instanceof String ? "S" : "*";
+		String value = type.equals("*") ? "" : key.toString();
+		return String.join("\t", invalidation.origin(), invalidation.cacheName(),
+				Long.toString(invalidation.version()), type, value);
+	}
+
+	static CacheInvalidation decode(String line) {
+		String[] fields = line.split("\t", 5);
+		if (fields.length != 5)
+			throw new IllegalArgumentException("Expected 5 fields but got " + fields.length);
+		Object key = switch (fields[3]) {
+		case "I" -> Integer.valueOf(fields[4]);
+		case "L" -> Long.valueOf(fields[4]);
+		case "S" -> fields[4];
+		case "*" -> null;
+		default -> throw new IllegalArgumentException("Unknown key type " + fields[3]);
+		};
+		return new CacheInvalidation(fields[0], fields[1], key, Long.parseLong(fields[2]));
+	}
+}
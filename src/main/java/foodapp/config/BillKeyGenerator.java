@@ -0,0 +1,37 @@
+package foodapp.config;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import foodapp.dto.OrderItemRequest;
+import foodapp.dto.OrderRequest;
+import foodapp.index.MenuIndex;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache key of a bill: restaurant, its current menu version and the ordered
+ * lines as {@code foodId:quantity} pairs sorted by food. The pairs are spelled
+ * out rather than hashed, so two different orders can never share a bill.
+ */
+@Component
+@RequiredArgsConstructor
+public class BillKeyGenerator implements KeyGenerator {
+
+	private static final Comparator<OrderItemRequest> BY_FOOD = Comparator
+			.comparing(OrderItemRequest::getFoodId).thenComparing(OrderItemRequest::getQuantity);
+
+	private final MenuIndex menuIndex;
+
+	@Override
+	public Object generate(Object target, Method method, Object... params) {
+		OrderRequest orderRequest = (OrderRequest) params[0];
+		Integer restaurantId = orderRequest.getRestaurantId();
+		return orderRequest.getOrderItems().stream().sorted(BY_FOOD)
+				.map(item -> item.getFoodId() + ":" + item.getQuantity())
+				.collect(Collectors.joining(",", restaurantId + "-" + menuIndex.version(restaurantId) + "-", ""));
+	}
+}
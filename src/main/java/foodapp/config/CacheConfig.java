@@ -0,0 +1,48 @@
+package foodapp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+
+import foodapp.cache.BroadcastingCacheManager;
+import foodapp.cache.BroadcastingCacheResolver;
+import foodapp.cache.CacheInvalidationBus;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded Caffeine caches (W-TinyLFU eviction) with per-cache size and expiry
+ * taken from {@code foodapp.cache.*}. Expiry replaces the old scheduled mass
+ * evictions. The caches are per node; evictions and {@code @CachePut} writes
+ * are broadcast to the other nodes through the {@link CacheInvalidationBus}.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheSpecs.class)
+@RequiredArgsConstructor
+public class CacheConfig implements CachingConfigurer {
+
+	private final CacheSpecs cacheSpecs;
+	private final CacheInvalidationBus cacheInvalidationBus;
+
+	@Bean
+	@Override
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		if (cacheSpecs.defaultSpec() != null) {
+			cacheManager.setCaffeineSpec(CaffeineSpec.parse(cacheSpecs.defaultSpec()));
+		}
+		cacheSpecs.specs().forEach((name, spec) -> cacheManager.registerCustomCache(name, Caffeine.from(spec).build()));
+		return new BroadcastingCacheManager(cacheManager, cacheInvalidationBus);
+	}
+
+	@Override
+	public CacheResolver cacheResolver() {
+		return new BroadcastingCacheResolver(cacheManager());
+	}
+}
@@ -0,0 +1,17 @@
+package foodapp.config;
+
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Caffeine specs for the application caches. {@code defaultSpec} applies to any
+ * cache without its own entry in {@code specs}.
+ */
+@ConfigurationProperties(prefix = "foodapp.cache")
+public record CacheSpecs(String defaultSpec, Map<String, String> specs) {
+
+	public CacheSpecs {
+		specs = specs != null ? specs : Map.of();
+	}
+}
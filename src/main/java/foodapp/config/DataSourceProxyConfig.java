@@ -0,0 +1,36 @@
+package foodapp.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import foodapp.jdbc.QueryInspector;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Routes every statement through a datasource-proxy wrapper reporting to the
+ * {@link QueryInspector}. The pool itself is untouched; Boot still finds it
+ * behind the proxy for health and pool metrics.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+	@Bean
+	static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryInspector> queryInspector) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource)
+					return bean;
+				return ProxyDataSourceBuilder.create(dataSource)
+						.name(beanName)
+						.listener(queryInspector.getObject())
+						.build();
+			}
+		};
+	}
+}
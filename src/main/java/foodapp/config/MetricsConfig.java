@@ -0,0 +1,51 @@
+package foodapp.config;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import foodapp.cache.BroadcastingCache;
+import foodapp.events.OrderEventBus;
+import foodapp.index.MenuIndex;
+import foodapp.pipeline.OrderWriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Meters beyond what Spring Boot instruments itself ({@code http.server.requests},
+ * {@code spring.data.repository.invocations}, JVM, pool and executor metrics).
+ * Scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * Boot only binds caches it recognises, and every cache here is a
+	 * {@link BroadcastingCache}; bind the Caffeine cache behind it, so each named
+	 * cache reports size, hits, misses and evictions under {@code cache.*}.
+	 */
+	@Bean
+	public CacheMeterBinderProvider<BroadcastingCache> broadcastingCacheMeterBinderProvider() {
+		return (cache, tags) -> cache.getNativeCache() instanceof Cache<?, ?> caffeine
+				? new CaffeineCacheMetrics<>(caffeine, cache.getName(), tags)
+				: null;
+	}
+
+	@Bean
+	public MeterBinder pipelineGauges(OrderWriter orderWriter, OrderEventBus orderEventBus, MenuIndex menuIndex) {
+		return registry -> {
+			Gauge.builder("foodapp.orders.queued", orderWriter, OrderWriter::queued)
+					.description("Orders waiting for the next group commit")
+					.register(registry);
+			Gauge.builder("foodapp.events.subscribers", orderEventBus, OrderEventBus::subscriberCount)
+					.description("Open order status streams")
+					.register(registry);
+			Gauge.builder("foodapp.menus.cached", menuIndex, MenuIndex::size)
+					.description("Restaurant menus held in memory")
+					.register(registry);
+		};
+	}
+}
@@ -10,11 +10,17 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import foodapp.security.CachingAuthenticationProvider;
+import foodapp.security.CredentialCache;
+import foodapp.security.TokenAuthenticationFilter;
+import foodapp.security.TokenService;
 import foodapp.service.impl.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 
@@ -24,14 +30,21 @@ import lombok.RequiredArgsConstructor;
 public class SecurityConfig {
 
 	@Bean
-	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+			TokenService tokenService) throws Exception {
+		http.authenticationManager(authenticationManager);
 		http.csrf(csrf -> csrf.disable()).authorizeHttpRequests(auth -> auth
 				// Public endpoints
 				.requestMatchers(HttpMethod.POST, "/api/users").permitAll()
-				.requestMatchers(HttpMethod.GET, "/api/restaurants/*/foods").permitAll()
+				.requestMatchers(HttpMethod.GET, "/api/restaurants/*/foods", "/api/restaurants/*/menu").permitAll()
+				.requestMatchers(HttpMethod.POST, "/api/auth/login", "/api/auth/refresh").permitAll()
+				.requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
 
 				// Everything else requires auth
-				.anyRequest().authenticated()).httpBasic(withDefaults());
+				.anyRequest().authenticated()).httpBasic(withDefaults())
+				// Bearer tokens are verified locally; no server-side session either way
+				.addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
 		return http.build();
 	}
@@ -49,10 +62,10 @@ public class SecurityConfig {
 	@SuppressWarnings("deprecation")
 	@Bean
 	public AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
-			PasswordEncoder passwordEncoder) {
+			PasswordEncoder passwordEncoder, CredentialCache credentialCache) {
 		DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userDetailsService);
 		authProvider.setPasswordEncoder(passwordEncoder);
-		return new ProviderManager(authProvider);
+		return new ProviderManager(new CachingAuthenticationProvider(authProvider, credentialCache));
 	}
 }
@@ -0,0 +1,64 @@
+package foodapp.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every public method of the beans in {@code foodapp.service.impl} as the
+ * {@code foodapp.service} timer, tagged with class, method and the exception
+ * thrown ("none" on success). It wraps the cache and transaction advice, so
+ * cache hits and commits are included and the timer shows what callers wait
+ * for. Timers of successful calls are looked up once per method.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+	static final String METRIC = "foodapp.service";
+
+	private final MeterRegistry meterRegistry;
+	private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+	public ServiceTimingAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Around("execution(public * foodapp.service.impl..*(..))")
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			timers.computeIfAbsent(method, key -> timer(key, "none")).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+			return result;
+		} catch (Throwable e) {
+			timer(method, e.getClass().getSimpleName()).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+			throw e;
+		}
+	}
+
+	private Timer timer(Method method, String exception) {
+		return Timer.builder(METRIC)
+				.description("Time spent in service methods")
+				.tag("class", method.getDeclaringClass().getSimpleName())
+				.tag("method", method.getName())
+				.tag("exception", exception)
+				.register(meterRegistry);
+	}
+}
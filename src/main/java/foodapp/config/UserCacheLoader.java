@@ -4,8 +4,10 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import foodapp.service.UserService;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class UserCacheLoader {
@@ -19,9 +21,9 @@ public class UserCacheLoader {
 		var cache = cacheManager.getCache("user_cache");
 		if (cache != null) {
 			cache.put("ALL", users);
-			System.out.println("User cache preloaded with " + users.size() + " users");
+			log.info("User cache preloaded with {} users", users.size());
 		} else {
-			System.err.println("user_cache not configured!");
+			log.warn("user_cache not configured!");
 		}
 	}
 }
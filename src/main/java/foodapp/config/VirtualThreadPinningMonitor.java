@@ -0,0 +1,83 @@
+package foodapp.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event in-process and exposes
+ * it as the {@code jvm.threads.virtual.pinned} timer. A pinned virtual thread
+ * holds its carrier while blocking (e.g. I/O inside a synchronized block), which
+ * silently caps request concurrency at the number of carriers. The stack of
+ * each new pinning site is logged once.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final int MAX_REPORTED_SITES = 100;
+
+	private final Timer pinned;
+	private final Duration threshold;
+	private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+			@Value("${foodapp.threads.pinned-threshold}") Duration threshold) {
+		this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+				.description("Time virtual threads spent blocked while pinned to their carrier")
+				.register(meterRegistry);
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void start() {
+		stream = new RecordingStream();
+		stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(EVENT, this::record);
+		stream.startAsync();
+	}
+
+	@Override
+	public void stop() {
+		stream.close();
+		stream = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	private void record(RecordedEvent event) {
+		pinned.record(event.getDuration());
+		if (event.getStackTrace() == null || reportedSites.size() >= MAX_REPORTED_SITES)
+			return;
+
+		StringBuilder stack = new StringBuilder();
+		for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+			stack.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+					.append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+		}
+		String site = stack.toString();
+		if (reportedSites.add(site)) {
+			log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), site);
+		}
+	}
+}
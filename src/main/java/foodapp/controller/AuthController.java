@@ -0,0 +1,58 @@
+package foodapp.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import foodapp.dto.LoginRequest;
+import foodapp.dto.RefreshRequest;
+import foodapp.dto.ResponseStructure;
+import foodapp.dto.TokenResponse;
+import foodapp.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "APIs for issuing, refreshing and revoking bearer tokens")
+public class AuthController {
+
+	private final AuthService authService;
+
+	@PostMapping("/login")
+	@Operation(summary = "Log in", description = "Verifies username and password once and returns a short-lived access token and a refresh token")
+	@ApiResponse(responseCode = "401", description = "Bad credentials")
+	public ResponseEntity<ResponseStructure<TokenResponse>> login(@Valid @RequestBody LoginRequest request) {
+		return ResponseEntity
+				.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Logged in", authService.login(request)));
+	}
+
+	@PostMapping("/refresh")
+	@Operation(summary = "Refresh tokens", description = "Exchanges a refresh token for a new token pair; the old refresh token is revoked")
+	public ResponseEntity<ResponseStructure<TokenResponse>> refresh(@Valid @RequestBody RefreshRequest request) {
+		return ResponseEntity.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Tokens refreshed",
+				authService.refresh(request.getRefreshToken())));
+	}
+
+	@PostMapping("/logout")
+	@Operation(summary = "Log out", description = "Revokes the bearer access token and, if given, the refresh token")
+	public ResponseEntity<Void> logout(
+			@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+			@RequestBody(required = false) RefreshRequest request) {
+		String accessToken = authorization != null && authorization.startsWith("Bearer ")
+				? authorization.substring("Bearer ".length()).trim()
+				: null;
+		authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+	}
+}
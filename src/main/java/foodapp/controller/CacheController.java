@@ -0,0 +1,46 @@
+package foodapp.controller;
+
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import foodapp.dto.CacheStatsResponse;
+import foodapp.dto.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/caches")
+@RequiredArgsConstructor
+@Tag(name = "Cache Monitoring", description = "APIs for inspecting application cache statistics")
+public class CacheController {
+
+	private final CacheManager cacheManager;
+
+	@GetMapping
+	@Operation(summary = "Get cache statistics", description = "Returns size, hit, miss and eviction counters of every cache")
+	public ResponseEntity<ResponseStructure<List<CacheStatsResponse>>> getCacheStats() {
+		List<CacheStatsResponse> stats = cacheManager.getCacheNames().stream().sorted()
+				.map(cacheManager::getCache)
+				.filter(cache -> cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)
+				.map(this::toResponse)
+				.toList();
+		return ResponseEntity.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Cache stats fetched", stats));
+	}
+
+	private CacheStatsResponse toResponse(Cache cache) {
+		var nativeCache = (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+		CacheStats stats = nativeCache.stats();
+		return new CacheStatsResponse(cache.getName(), nativeCache.estimatedSize(), stats.hitCount(),
+				stats.missCount(), stats.hitRate(), stats.evictionCount());
+	}
+}
@@ -1,7 +1,11 @@
 package foodapp.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,16 +16,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import foodapp.dto.FoodImportReport;
 import foodapp.dto.ResponseStructure;
 import foodapp.entity.Food;
+import foodapp.pipeline.BulkFormat;
 import foodapp.service.FoodService;
+import foodapp.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -31,6 +40,7 @@ import lombok.RequiredArgsConstructor;
 public class FoodController {
 
 	private final FoodService foodService;
+	private final RestaurantService restaurantService;
 
 	@PostMapping
 	@Operation(summary = "Create a new food item", description = "Adds a new food item to the database")
@@ -75,4 +85,45 @@ public class FoodController {
 		foodService.deleteFood(id);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
+
+	@PostMapping(value = "/import", consumes = "text/csv")
+	@Operation(summary = "Import food items from CSV", description = "Creates or updates food items from a CSV upload with the header id,name,description,price; rows with an id update that food. Optionally adds them to a restaurant's menu. Invalid rows are skipped and reported")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<FoodImportReport>> importFoodsCsv(
+			@Parameter(description = "Restaurant whose menu the imported foods are added to") @RequestParam(required = false) @Positive(message = "Restaurant ID must be positive") Integer restaurantId,
+			InputStream body) throws IOException {
+		return importFoods(body, BulkFormat.CSV, restaurantId);
+	}
+
+	@PostMapping(value = "/import", consumes = "application/x-ndjson")
+	@Operation(summary = "Import food items from NDJSON", description = "Creates or updates food items from one JSON object per line with the fields id, name, description and price; objects with an id update that food. Optionally adds them to a restaurant's menu. Invalid rows are skipped and reported")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<FoodImportReport>> importFoodsNdjson(
+			@Parameter(description = "Restaurant whose menu the imported foods are added to") @RequestParam(required = false) @Positive(message = "Restaurant ID must be positive") Integer restaurantId,
+			InputStream body) throws IOException {
+		return importFoods(body, BulkFormat.NDJSON, restaurantId);
+	}
+
+	@GetMapping("/export")
+	@Operation(summary = "Export food items", description = "Streams all food items, or one restaurant's menu, as CSV or NDJSON in the import format")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Export streamed"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<StreamingResponseBody> exportFoods(
+			@Parameter(description = "Output format") @RequestParam(defaultValue = "CSV") BulkFormat format,
+			@Parameter(description = "Only export this restaurant's menu") @RequestParam(required = false) @Positive(message = "Restaurant ID must be positive") Integer restaurantId) {
+		if (restaurantId != null)
+			restaurantService.getById(restaurantId); // 404 before the response is committed
+		StreamingResponseBody body = out -> foodService.exportFoods(format, restaurantId, out);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(format.contentType())).body(body);
+	}
+
+	private ResponseEntity<ResponseStructure<FoodImportReport>> importFoods(InputStream body, BulkFormat format,
+			Integer restaurantId) throws IOException {
+		FoodImportReport report = foodService.importFoods(body, format, restaurantId);
+		return ResponseEntity.ok(new ResponseStructure<>(HttpStatus.OK.value(),
+				"Foods imported: " + (report.getInserted() + report.getUpdated()) + ", rejected: " + report.getFailed(),
+				report));
+	}
 }
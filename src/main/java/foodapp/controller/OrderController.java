@@ -1,9 +1,10 @@
 package foodapp.controller;
 
-import java.util.List;
-
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -11,22 +12,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import foodapp.dto.BillResponse;
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.dto.OrderFilter;
+import foodapp.dto.OrderPageResponse;
+import foodapp.dto.OrderPlacement;
 import foodapp.dto.OrderRequest;
+import foodapp.dto.OrderStatusResponse;
 import foodapp.dto.PaymentDto;
 import foodapp.dto.ResponseStructure;
 import foodapp.entity.Order;
 import foodapp.entity.OrderStatus;
+import foodapp.pipeline.IdempotentOrders;
 import foodapp.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -36,6 +49,7 @@ import lombok.RequiredArgsConstructor;
 public class OrderController {
 
 	private final OrderService orderService;
+	private final IdempotentOrders idempotentOrders;
 
 	@PostMapping("/bill")
 	@Operation(summary = "Generate bill", description = "Generates a bill based on the order request before placing an order")
@@ -49,14 +63,23 @@ public class OrderController {
 	}
 
 	@PostMapping("/pay")
-	@Operation(summary = "Pay and place order", description = "Processes payment and places the order")
-	public ResponseEntity<ResponseStructure<String>> payAndPlaceOrder(@Valid @RequestBody PaymentDto payment) {
-		String data = orderService.payAndPlaceOrder(payment);
+	@Operation(summary = "Pay and place order", description = "Processes payment and places the order. Requests repeated with the same Idempotency-Key return the original result instead of placing a second order")
+	@ApiResponse(responseCode = "201", description = "Order placed and committed")
+	@ApiResponse(responseCode = "202", description = "Order accepted but not confirmed yet; it will still be placed, so retry only with the same Idempotency-Key")
+	public ResponseEntity<ResponseStructure<String>> payAndPlaceOrder(
+			@Parameter(description = "Client generated key identifying this order attempt, e.g. a UUID")
+			@RequestHeader(name = "Idempotency-Key", required = false) @Size(max = 64) String idempotencyKey,
+			@Valid @RequestBody PaymentDto payment, Authentication authentication) {
+		OrderPlacement placement = orderService.awaitPlacement(idempotencyKey == null
+				? orderService.payAndPlaceOrder(payment)
+				: idempotentOrders.placeOnce(idempotencyKey, authentication.getName(), payment,
+						() -> orderService.payAndPlaceOrder(payment)));
+		HttpStatus status = placement.confirmed() ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
 		ResponseStructure<String> apiResponse = new ResponseStructure<>();
-		apiResponse.setData(data);
-		apiResponse.setMessage("Order placed");
-		apiResponse.setStatusCode(HttpStatus.CREATED.value());
-		return new ResponseEntity<>(apiResponse, HttpStatus.CREATED);
+		apiResponse.setData(placement.message());
+		apiResponse.setMessage(placement.confirmed() ? "Order placed" : "Order accepted");
+		apiResponse.setStatusCode(status.value());
+		return new ResponseEntity<>(apiResponse, status);
 	}
 
 	@DeleteMapping("/{orderId}")
@@ -77,11 +100,11 @@ public class OrderController {
 	}
 
 	@PatchMapping("/{id}/status")
-	@Operation(summary = "Update order status", description = "Updates the status of an existing order (Admin action)")
-	public ResponseEntity<ResponseStructure<Order>> updateOrderStatus(
+	@Operation(summary = "Update order status", description = "Moves an existing order to the next status (Admin action). Only forward lifecycle moves are allowed; delivered and cancelled orders are final")
+	public ResponseEntity<ResponseStructure<OrderStatusResponse>> updateOrderStatus(
 			@Parameter(description = "ID of the order") @PathVariable Integer id,
 			@Parameter(description = "New status for the order") @RequestParam OrderStatus status) {
-		Order updatedOrder = orderService.updateOrderStatusByAdmin(id, status);
+		OrderStatusResponse updatedOrder = orderService.updateOrderStatusByAdmin(id, status);
 		return ResponseEntity
 				.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Order status updated successfully", updatedOrder));
 	}
@@ -95,11 +118,50 @@ public class OrderController {
 				.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Order status updated successfully", cancelOrder));
 	}
 
+	@GetMapping("/{id}")
+	@Operation(summary = "Get an order", description = "Fetches an order with its items")
+	public ResponseEntity<ResponseStructure<OrderDetailsResponse>> getOrder(
+			@Parameter(description = "ID of the order") @PathVariable Integer id) {
+		OrderDetailsResponse order = orderService.getOrder(id);
+		return ResponseEntity.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Order fetched successfully", order));
+	}
+
+	@GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(summary = "Stream order status", description = "Server-sent events with the current status of the order followed by every change. Reconnect with Last-Event-ID to receive missed changes")
+	public SseEmitter streamOrderEvents(@Parameter(description = "ID of the order") @PathVariable Integer id,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		return orderService.streamOrderEvents(id, lastEventId);
+	}
+
+	@GetMapping(path = "/events/users/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(summary = "Stream a user's order status changes", description = "Server-sent events for status changes of every order of the user")
+	public SseEmitter streamUserOrderEvents(@Parameter(description = "ID of the user") @PathVariable Integer userId,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		return orderService.streamUserOrderEvents(userId, lastEventId);
+	}
+
+	@GetMapping(path = "/events/restaurants/{restaurantId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(summary = "Stream a restaurant's order board", description = "Server-sent events for new orders and status changes of the restaurant")
+	public SseEmitter streamRestaurantOrderEvents(
+			@Parameter(description = "ID of the restaurant") @PathVariable Integer restaurantId,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		return orderService.streamRestaurantOrderEvents(restaurantId, lastEventId);
+	}
+
 	@GetMapping
-	@Operation(summary = "Get all orders", description = "Fetches a list of all orders in the system")
-	public ResponseEntity<ResponseStructure<List<Order>>> getAllOrders() {
-		List<Order> allOrders = orderService.getAllOrders();
+	@Operation(summary = "Get orders (cursor paginated)", description = "Fetches orders newest first, filtered by status, restaurant, user and creation time. Pass the returned nextCursor to get the next page")
+	public ResponseEntity<ResponseStructure<OrderPageResponse>> getOrders(@ParameterObject OrderFilter filter,
+			@Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(required = false) Integer cursor,
+			@Parameter(description = "Number of orders per page, at most 100") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+		OrderPageResponse orders = orderService.getOrders(filter, cursor, size);
 		return ResponseEntity
-				.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Orders fetched successfully", allOrders));
+				.ok(new ResponseStructure<>(HttpStatus.OK.value(), "Orders fetched successfully", orders));
+	}
+
+	@GetMapping(value = "/export", produces = "application/x-ndjson")
+	@Operation(summary = "Export orders", description = "Streams all matching orders as newline-delimited JSON")
+	public ResponseEntity<StreamingResponseBody> exportOrders(@ParameterObject OrderFilter filter) {
+		StreamingResponseBody body = out -> orderService.exportOrders(filter, out);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
 	}
 }
@@ -3,11 +3,15 @@ package foodapp.controller;
 import java.util.List;
 import java.util.Set;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,10 +20,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import foodapp.dto.MenuChangeResponse;
+import foodapp.dto.MenuFilter;
+import foodapp.dto.MenuItemResponse;
+import foodapp.dto.MenuPatchRequest;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.dto.OrderLineResponse;
+import foodapp.dto.PopularDishResponse;
 import foodapp.dto.ResponseStructure;
+import foodapp.dto.RestaurantSearchResponse;
+import foodapp.dto.RestaurantStatsResponse;
 import foodapp.entity.Food;
 import foodapp.entity.Order;
 import foodapp.entity.Restaurant;
+import foodapp.entity.RollupGranularity;
 import foodapp.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -29,7 +43,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 
@@ -97,6 +117,21 @@ public class RestaurantController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	@PatchMapping("/{restoId}/foods")
+	@Operation(summary = "Add or remove menu items", description = "Adds and removes single food items without replacing the rest of the menu; removals are applied first")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Menu updated successfully"),
+			@ApiResponse(responseCode = "400", description = "Invalid food IDs or nothing to change"),
+			@ApiResponse(responseCode = "404", description = "Restaurant or food item not found") })
+	public ResponseEntity<ResponseStructure<MenuChangeResponse>> changeMenu(
+			@Parameter(description = "Restaurant ID whose menu changes") @PathVariable @Positive(message = "Restaurant ID must be positive") Integer restoId,
+			@RequestBody @Valid MenuPatchRequest request) {
+		ResponseStructure<MenuChangeResponse> response = new ResponseStructure<>();
+		response.setData(restaurantService.changeMenu(restoId, request));
+		response.setMessage("Menu updated Successfully!!");
+		response.setStatusCode(HttpStatus.OK.value());
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
 	@DeleteMapping("/{id}")
 	@Operation(summary = "Delete a restaurant", description = "Deletes a restaurant by its ID")
 	@ApiResponses({ @ApiResponse(responseCode = "204", description = "Restaurant deleted successfully"),
@@ -135,6 +170,25 @@ public class RestaurantController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	@GetMapping("/{restaurantId}/menu")
+	@Operation(summary = "Query a restaurant's menu", description = "Returns one page of the restaurant's food items, filtered by name and price range and sorted by price or name")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Menu fetched successfully"),
+			@ApiResponse(responseCode = "400", description = "Invalid filter, sort or page"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<Page<MenuItemResponse>>> findMenu(
+			@Parameter(description = "Restaurant ID") @PathVariable @Positive(message = "Restaurant ID must be positive") Integer restaurantId,
+			@Valid @ParameterObject MenuFilter filter,
+			@Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Page number cannot be negative") int pageNum,
+			@Parameter(description = "Number of items per page, at most 100") @RequestParam(defaultValue = "20") @Positive(message = "Page size must be positive") @Max(value = 100, message = "Page size cannot exceed 100") int pageSize,
+			@Parameter(description = "Field to sort by: price, name or id") @RequestParam(defaultValue = "price") @Pattern(regexp = "price|name|id", message = "Menu can only be sorted by price, name or id") String sortBy,
+			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+		ResponseStructure<Page<MenuItemResponse>> response = new ResponseStructure<>();
+		response.setData(restaurantService.findMenu(restaurantId, filter, pageNum, pageSize, sortBy, direction));
+		response.setMessage("Menu fetched Successfully!!");
+		response.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(response);
+	}
+
 	@GetMapping("/{restaurantId}/orders")
 	@Operation(summary = "Get orders by restaurant ID", description = "Retrieves all orders for a given restaurant")
 	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Orders fetched successfully"),
@@ -147,4 +201,79 @@ public class RestaurantController {
 		apiResponse.setStatusCode(HttpStatus.OK.value());
 		return ResponseEntity.ok(apiResponse);
 	}
+
+	@GetMapping("/{restaurantId}/orders/lines")
+	@Operation(summary = "Get order lines by restaurant ID", description = "Retrieves the restaurant's orders flattened to one row per ordered item, for order boards")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Order lines fetched successfully"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<List<OrderLineResponse>>> findOrderLinesByRestaurantId(
+			@Parameter(description = "Restaurant ID") @PathVariable @Positive(message = "Restaurant ID must be positive") Integer restaurantId) {
+		ResponseStructure<List<OrderLineResponse>> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(restaurantService.findOrderLinesByRestaurantId(restaurantId));
+		apiResponse.setMessage("Order lines fetched successfully!!");
+		apiResponse.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(apiResponse);
+	}
+
+	@GetMapping("/{restaurantId}/stats")
+	@Operation(summary = "Get sales figures of a restaurant", description = "Returns all-time order count, revenue, quantity and cancellation rate, plus the same figures for each of the last hours or days")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Sales figures fetched successfully"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<RestaurantStatsResponse>> getSalesStats(
+			@Parameter(description = "Restaurant ID") @PathVariable @Positive(message = "Restaurant ID must be positive") Integer restaurantId,
+			@Parameter(description = "Bucket size: HOUR (last 48 kept) or DAY (last 90 kept)") @RequestParam(defaultValue = "HOUR") @Pattern(regexp = "HOUR|DAY", message = "Granularity must be HOUR or DAY") String granularity,
+			@Parameter(description = "Number of buckets, ending with the current one") @RequestParam(defaultValue = "24") @Positive(message = "Buckets must be positive") @Max(value = 90, message = "Buckets cannot exceed 90") int buckets) {
+		ResponseStructure<RestaurantStatsResponse> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(
+				restaurantService.getSalesStats(restaurantId, RollupGranularity.valueOf(granularity), buckets));
+		apiResponse.setMessage("Sales figures fetched successfully!!");
+		apiResponse.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(apiResponse);
+	}
+
+	@GetMapping("/{restaurantId}/popular-dishes")
+	@Operation(summary = "Get popular dishes of a restaurant", description = "Returns the restaurant's best-selling foods by quantity, all-time or over the last days")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Popular dishes fetched successfully"),
+			@ApiResponse(responseCode = "404", description = "Restaurant not found") })
+	public ResponseEntity<ResponseStructure<List<PopularDishResponse>>> getPopularDishes(
+			@Parameter(description = "Restaurant ID") @PathVariable @Positive(message = "Restaurant ID must be positive") Integer restaurantId,
+			@Parameter(description = "Only count the last this many days, at most 90; omit for all-time") @RequestParam(required = false) @Positive(message = "Days must be positive") @Max(value = 90, message = "Days cannot exceed 90") Integer days,
+			@Parameter(description = "Maximum number of dishes") @RequestParam(defaultValue = "10") @Positive(message = "Limit must be positive") @Max(value = 50, message = "Limit cannot exceed 50") int limit) {
+		ResponseStructure<List<PopularDishResponse>> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(restaurantService.getPopularDishes(restaurantId, days, limit));
+		apiResponse.setMessage("Popular dishes fetched successfully!!");
+		apiResponse.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(apiResponse);
+	}
+
+	@GetMapping("/search")
+	@Operation(summary = "Search restaurants", description = "Finds restaurants by name, address or the foods they serve, tolerating prefixes and small typos; best matches first")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Restaurants searched successfully"),
+			@ApiResponse(responseCode = "400", description = "Missing query or invalid limit") })
+	public ResponseEntity<ResponseStructure<List<RestaurantSearchResponse>>> searchRestaurants(
+			@Parameter(description = "Search text") @RequestParam @NotBlank(message = "Search query cannot be blank") String q,
+			@Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "10") @Positive(message = "Limit must be positive") @Max(value = 50, message = "Limit cannot exceed 50") int limit) {
+		ResponseStructure<List<RestaurantSearchResponse>> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(restaurantService.searchRestaurants(q, limit));
+		apiResponse.setMessage("Restaurants searched successfully!!");
+		apiResponse.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(apiResponse);
+	}
+
+	@GetMapping("/nearby")
+	@Operation(summary = "Find nearby restaurants", description = "Returns the restaurants closest to a point, or to the caller's own saved location, within the given radius; nearest first")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Nearby restaurants fetched successfully"),
+			@ApiResponse(responseCode = "400", description = "No location given or invalid coordinates") })
+	public ResponseEntity<ResponseStructure<List<NearbyRestaurantResponse>>> findNearbyRestaurants(
+			@Parameter(description = "Latitude of the delivery point") @RequestParam(required = false) @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90") @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90") Double lat,
+			@Parameter(description = "Longitude of the delivery point") @RequestParam(required = false) @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180") @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180") Double lng,
+			@Parameter(description = "Search radius in kilometres") @RequestParam(defaultValue = "10") @Positive(message = "Radius must be positive") @Max(value = 100, message = "Radius cannot exceed 100 km") double radiusKm,
+			@Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") @Positive(message = "Limit must be positive") @Max(value = 100, message = "Limit cannot exceed 100") int limit,
+			Authentication authentication) {
+		ResponseStructure<List<NearbyRestaurantResponse>> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(restaurantService.findNearbyRestaurants(lat, lng, authentication.getName(), radiusKm, limit));
+		apiResponse.setMessage("Nearby restaurants fetched successfully!!");
+		apiResponse.setStatusCode(HttpStatus.OK.value());
+		return ResponseEntity.ok(apiResponse);
+	}
 }
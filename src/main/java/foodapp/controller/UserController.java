@@ -1,8 +1,11 @@
 package foodapp.controller;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +25,8 @@ import foodapp.dto.ResponseStructure;
 import foodapp.dto.UserRequest;
 import foodapp.dto.UserResponse;
 import foodapp.service.UserService;
+import foodapp.storage.ImageType;
+import foodapp.storage.StoredImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -81,7 +86,7 @@ public class UserController {
 	}
 
 	@PatchMapping("/{userId}/profile-image")
-	@Operation(summary = "Upload user profile image", description = "Uploads an image file for the user")
+	@Operation(summary = "Upload user profile image", description = "Uploads a JPEG, PNG, GIF or WebP image for the user; the format is detected from the content and anything else is rejected with 400")
 	public ResponseEntity<ResponseStructure<String>> uploadImage(
 			@Parameter(description = "Profile image file") @RequestParam MultipartFile file,
 			@Parameter(description = "ID of the user to upload image for") @PathVariable Integer userId)
@@ -94,9 +99,22 @@ public class UserController {
 	}
 
 	@GetMapping("/{userId}/profile-image")
-	@Operation(summary = "Get user profile image", description = "Retrieves the profile image of a user in JPEG format")
-	public ResponseEntity<byte[]> getImage(
+	@Operation(summary = "Get user profile image", description = "Streams the profile image of a user. Supports ETag/Last-Modified revalidation (304) and Range requests")
+	public ResponseEntity<Resource> getImage(
 			@Parameter(description = "ID of the user whose image to retrieve") @PathVariable Integer userId) {
-		return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(userService.getImage(userId));
+		StoredImage image = userService.getImage(userId);
+		// Only whitelisted types are served as such; anything stored before uploads
+		// were sniffed is sent as an opaque download
+		String contentType = ImageType.ofContentType(image.contentType()).map(ImageType::contentType)
+				.orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(contentType))
+				.header("X-Content-Type-Options", "nosniff")
+				.eTag(image.key())
+				.cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate());
+		if (image.lastModified() != null) {
+			response.lastModified(image.lastModified());
+		}
+		return response.body(image.resource());
 	}
 }
@@ -0,0 +1,30 @@
+package foodapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FoodImportReport {
+	private int rows;
+	private int inserted;
+	private int updated;
+	/** New links between the imported foods and the restaurant. */
+	private int linked;
+	private int failed;
+	/** The first rejected rows; {@code failed} has the full count. */
+	private List<RowError> errors;
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class RowError {
+		/** 1-based position of the record in the upload, header excluded. */
+		private int row;
+		private String message;
+	}
+}
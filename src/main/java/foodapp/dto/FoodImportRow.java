@@ -0,0 +1,30 @@
+package foodapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * One food of a bulk import. Rows with an ID update that food, rows without
+ * one create a new food.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FoodImportRow {
+	private Integer id;
+
+	@NotBlank(message = "Food name cannot be blank")
+	@Size(max = 255, message = "Food name cannot exceed 255 characters")
+	private String name;
+
+	@Size(max = 255, message = "Description cannot exceed 255 characters")
+	private String description;
+
+	@NotNull(message = "Price is required")
+	@Min(value = 1, message = "Price must be at least 1")
+	private Float price;
+}
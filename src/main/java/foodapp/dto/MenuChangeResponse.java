@@ -0,0 +1,16 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuChangeResponse {
+	private Integer restaurantId;
+	/** Foods actually added, excluding ones already on the menu. */
+	private int added;
+	/** Links actually removed. */
+	private int removed;
+}
@@ -0,0 +1,22 @@
+package foodapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class MenuFilter {
+
+	@Schema(description = "Only foods whose name contains this text, ignoring case", example = "paneer")
+	@Size(max = 100, message = "Name filter cannot exceed 100 characters")
+	private String name;
+
+	@Schema(description = "Only foods costing at least this much", example = "100")
+	@PositiveOrZero(message = "Minimum price cannot be negative")
+	private Float minPrice;
+
+	@Schema(description = "Only foods costing at most this much", example = "300")
+	@PositiveOrZero(message = "Maximum price cannot be negative")
+	private Float maxPrice;
+}
@@ -0,0 +1,18 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One food on a restaurant's menu, without its restaurant links.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuItemResponse {
+	private Integer id;
+	private String name;
+	private String description;
+	private Float price;
+}
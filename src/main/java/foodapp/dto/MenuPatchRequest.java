@@ -0,0 +1,24 @@
+package foodapp.dto;
+
+import java.util.Set;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class MenuPatchRequest {
+
+	@Schema(description = "Food IDs to add to the menu; ones already on it are ignored", example = "[4, 7]")
+	private Set<@Positive(message = "Food ID must be positive") Integer> add = Set.of();
+
+	@Schema(description = "Food IDs to take off the menu; ones not on it are ignored", example = "[2]")
+	private Set<@Positive(message = "Food ID must be positive") Integer> remove = Set.of();
+
+	@Schema(hidden = true)
+	@AssertTrue(message = "Nothing to add or remove")
+	public boolean isNotEmpty() {
+		return (add != null && !add.isEmpty()) || (remove != null && !remove.isEmpty());
+	}
+}
@@ -0,0 +1,15 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class NearbyRestaurantResponse {
+	private Integer id;
+	private String name;
+	private String address;
+	private double latitude;
+	private double longitude;
+	private double distanceKm;
+}
@@ -0,0 +1,31 @@
+package foodapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import foodapp.entity.Order;
+import foodapp.entity.OrderStatus;
+
+/**
+ * Immutable snapshot of an order as served from the orders read model.
+ */
+public record OrderDetailsResponse(Integer id, OrderStatus status, long version, Double totalPrice,
+		Integer restaurantId, Integer userId, LocalDateTime createdAt, List<OrderItemResponse> items) {
+
+	public OrderDetailsResponse {
+		items = List.copyOf(items);
+	}
+
+	public static OrderDetailsResponse of(Order order) {
+		List<OrderItemResponse> items = order.getOrderItems().stream()
+				.map(item -> new OrderItemResponse(item.getFood().getId(), item.getFood().getName(),
+						item.getQuantity(), item.chargedUnitPrice()))
+				.toList();
+		return new OrderDetailsResponse(order.getId(), order.getStatus(), order.getVersion(), order.getTotalPrice(),
+				order.getRestaurant().getId(), order.getUser().getId(), order.getCreatedAt(), items);
+	}
+
+	public OrderDetailsResponse withStatus(OrderStatus newStatus, long newVersion) {
+		return new OrderDetailsResponse(id, newStatus, newVersion, totalPrice, restaurantId, userId, createdAt, items);
+	}
+}
@@ -0,0 +1,30 @@
+package foodapp.dto;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import foodapp.entity.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class OrderFilter {
+
+	@Schema(description = "Only orders in this status")
+	private OrderStatus status;
+
+	@Schema(description = "Only orders of this restaurant", example = "1")
+	private Integer restaurantId;
+
+	@Schema(description = "Only orders of this user", example = "1")
+	private Integer userId;
+
+	@Schema(description = "Only orders created at or after this time", example = "2025-01-01T00:00:00")
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+	private LocalDateTime from;
+
+	@Schema(description = "Only orders created before this time", example = "2025-02-01T00:00:00")
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+	private LocalDateTime to;
+}
@@ -0,0 +1,4 @@
+package foodapp.dto;
+
+public record OrderItemResponse(Integer foodId, String foodName, Integer quantity, float unitPrice) {
+}
@@ -0,0 +1,21 @@
+package foodapp.dto;
+
+import foodapp.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per ordered item, flattened with its order for dashboard views.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLineResponse {
+	private Integer orderId;
+	private OrderStatus status;
+	private Double totalPrice;
+	private String foodName;
+	private Integer quantity;
+	private Float price;
+}
@@ -0,0 +1,15 @@
+package foodapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderPageResponse {
+	private List<OrderSummaryResponse> orders;
+
+	/** Pass as {@code cursor} to fetch the next page; null on the last page. */
+	private Integer nextCursor;
+}
@@ -0,0 +1,8 @@
+package foodapp.dto;
+
+/**
+ * Outcome of waiting for a placed order. An unconfirmed placement is still
+ * queued or being committed and will be applied; it is not a failure.
+ */
+public record OrderPlacement(boolean confirmed, String message) {
+}
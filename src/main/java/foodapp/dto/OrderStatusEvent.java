@@ -0,0 +1,21 @@
+package foodapp.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import foodapp.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderStatusEvent {
+	@JsonIgnore
+	private long eventId;
+	private Integer orderId;
+	private Integer restaurantId;
+	private Integer userId;
+	private OrderStatus status;
+	private Instant changedAt;
+}
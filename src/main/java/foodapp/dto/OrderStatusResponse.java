@@ -0,0 +1,17 @@
+package foodapp.dto;
+
+import foodapp.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusResponse {
+	private Integer id;
+	private OrderStatus status;
+	private long version;
+	private Integer restaurantId;
+	private Integer userId;
+}
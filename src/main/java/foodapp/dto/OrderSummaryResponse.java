@@ -0,0 +1,20 @@
+package foodapp.dto;
+
+import java.time.LocalDateTime;
+
+import foodapp.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummaryResponse {
+	private Integer id;
+	private OrderStatus status;
+	private Double totalPrice;
+	private Integer restaurantId;
+	private Integer userId;
+	private LocalDateTime createdAt;
+}
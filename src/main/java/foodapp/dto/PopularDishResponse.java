@@ -0,0 +1,17 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopularDishResponse {
+	private Integer foodId;
+	/** Null if the food is no longer on the menu. */
+	private String name;
+	private long orders;
+	private long quantity;
+	private double revenue;
+}
@@ -0,0 +1,13 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RestaurantSearchResponse {
+	private Integer id;
+	private String name;
+	private String address;
+	private float score;
+}
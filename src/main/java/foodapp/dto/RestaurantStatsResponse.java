@@ -0,0 +1,19 @@
+package foodapp.dto;
+
+import java.util.List;
+
+import foodapp.entity.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestaurantStatsResponse {
+	private Integer restaurantId;
+	private SalesFiguresResponse totals;
+	private RollupGranularity granularity;
+	/** Oldest first, ending with the current bucket. */
+	private List<SalesFiguresResponse> buckets;
+}
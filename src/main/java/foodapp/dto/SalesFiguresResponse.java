@@ -0,0 +1,20 @@
+package foodapp.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesFiguresResponse {
+	/** Start of the hour or day; null for all-time totals. */
+	private LocalDateTime bucketStart;
+	private long orders;
+	private long quantity;
+	private double revenue;
+	private long cancellations;
+	private double cancellationRate;
+}
@@ -0,0 +1,13 @@
+package foodapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+	private String accessToken;
+	private String refreshToken;
+	private String tokenType;
+	private long expiresIn;
+}
@@ -21,6 +21,10 @@ public class UserResponse {
 
 	private String address;
 
+	private Double latitude;
+
+	private Double longitude;
+
 	private String role;
 
 	private String profileImage;
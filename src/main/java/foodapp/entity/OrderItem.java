@@ -2,29 +2,48 @@ package foodapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 @Entity
 @Data
 public class OrderItem {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+	@SequenceGenerator(name = "order_item_seq", allocationSize = 50)
 	private Integer id;
 
 	@ManyToOne
 	@JoinColumn(name = "food_id")
 	private Food food;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "order_id")
 	@JsonIgnore
 	private Order order;
 
 	private Integer quantity;
+
+	/**
+	 * Price of the food when the order was placed. Null for items ordered before
+	 * it was recorded.
+	 */
+	@Column(name = "unit_price")
+	private Float unitPrice;
+
+	/**
+	 * @return the price charged per unit, or the current food price for items
+	 *         that predate {@link #unitPrice}
+	 */
+	public float chargedUnitPrice() {
+		return unitPrice != null ? unitPrice : food.getPrice();
+	}
 }
@@ -1,5 +1,18 @@
 package foodapp.entity;
 
 public enum OrderStatus {
-	PLACED, PREPARING, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
+	PLACED, PREPARING, OUT_FOR_DELIVERY, DELIVERED, CANCELLED;
+
+	/**
+	 * Allowed lifecycle moves. Delivered and cancelled orders are final; an order
+	 * can only be cancelled before it leaves the kitchen.
+	 */
+	public boolean canTransitionTo(OrderStatus next) {
+		return switch (this) {
+		case PLACED -> next == PREPARING || next == CANCELLED;
+		case PREPARING -> next == OUT_FOR_DELIVERY || next == CANCELLED;
+		case OUT_FOR_DELIVERY -> next == DELIVERED;
+		case DELIVERED, CANCELLED -> false;
+		};
+	}
 }
@@ -12,10 +12,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -36,6 +39,15 @@ public class Restaurant {
 	@NotBlank(message = "Address cannot be blank")
 	private String address;
 
+	/** Optional; restaurants without coordinates are left out of nearby searches. */
+	@DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+	@DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+	private Double latitude;
+
+	@DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+	@DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+	private Double longitude;
+
 	@NotNull(message = "Contact number is required")
 	@Pattern(regexp = "^[6-9]\\d{9}$", message = "Contact number must be a valid 10-digit Indian mobile number")
 	private String contactNumber; 
@@ -52,7 +64,8 @@ public class Restaurant {
 	private LocalDateTime updatedAt;
 
 	@ManyToMany(cascade = { CascadeType.PERSIST, CascadeType.MERGE })
-	@JoinTable(name = "restaurant_food", joinColumns = @JoinColumn(name = "resto_id"), inverseJoinColumns = @JoinColumn(name = "food_id"))
+	@JoinTable(name = "restaurant_food", joinColumns = @JoinColumn(name = "resto_id"), inverseJoinColumns = @JoinColumn(name = "food_id"),
+			indexes = @Index(name = "idx_restaurant_food_resto_food", columnList = "resto_id, food_id"))
 	private List<Food> foods;
 
 	@OneToMany(mappedBy = "restaurant", cascade = CascadeType.REMOVE)
@@ -0,0 +1,34 @@
+package foodapp.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+	HOUR, DAY, ALL;
+
+	/** Bucket start used for all-time totals. */
+	public static final LocalDateTime ALL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	/**
+	 * @return the start of the bucket containing {@code time}
+	 */
+	public LocalDateTime bucketOf(LocalDateTime time) {
+		return switch (this) {
+		case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+		case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+		case ALL -> ALL_TIME;
+		};
+	}
+
+	/**
+	 * @return the start of the bucket {@code count} buckets before
+	 *         {@code bucketStart}
+	 */
+	public LocalDateTime minus(LocalDateTime bucketStart, long count) {
+		return switch (this) {
+		case HOUR -> bucketStart.minusHours(count);
+		case DAY -> bucketStart.minusDays(count);
+		case ALL -> ALL_TIME;
+		};
+	}
+}
@@ -0,0 +1,36 @@
+package foodapp.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Sales figures of one restaurant, or one of its foods, in one time bucket.
+ * Rows are only ever incremented, by the flushes of {@code SalesStats}.
+ */
+@Entity
+@Data
+@Table(name = "sales_rollup", indexes = @Index(name = "idx_sales_rollup_updated_at", columnList = "updated_at"))
+public class SalesRollup {
+
+	@EmbeddedId
+	private SalesRollupId id;
+
+	private long orders;
+
+	private long quantity;
+
+	@Column(name = "revenue_cents")
+	private long revenueCents;
+
+	private long cancellations;
+
+	/** Set by the database on every flush; other nodes sync rows changed since their last look. */
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package foodapp.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@SuppressWarnings("serial")
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesRollupId implements Serializable {
+
+	@Column(name = "restaurant_id")
+	private Integer restaurantId;
+
+	/** 0 for figures of the whole restaurant. */
+	@Column(name = "food_id")
+	private Integer foodId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 8)
+	private RollupGranularity granularity;
+
+	@Column(name = "bucket_start")
+	private LocalDateTime bucketStart;
+}
@@ -1,5 +1,6 @@
 package foodapp.entity;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -13,7 +14,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
@@ -45,14 +45,29 @@ public class User implements UserDetails {
 
 	private String address;
 
+	/** Delivery location, used to find nearby restaurants. */
+	private Double latitude;
+
+	private Double longitude;
+
 	private String role;
 
 	@NotBlank
 	@Column(nullable = false)
 	private String password;
 
-	@Lob
-	private byte[] image;
+	/** Key of the profile image in the {@code ImageStore}; the bytes live outside this table. */
+	private String imageKey;
+
+	private String imageContentType;
+
+	private Instant imageUpdatedAt;
+
+	/**
+	 * Set when the user is created and whenever the password or username
+	 * changes; tokens carry it and are rejected once it moves on.
+	 */
+	private Instant credentialsChangedAt;
 
 	@OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
 	private List<Order> orders;
@@ -66,4 +81,12 @@ public class User implements UserDetails {
 	public String getUsername() {
 		return username;
 	}
+
+	/**
+	 * @return {@link #credentialsChangedAt} as carried in tokens, 0 for users
+	 *         created before it was recorded
+	 */
+	public long credentialsStamp() {
+		return credentialsChangedAt != null ? credentialsChangedAt.toEpochMilli() : 0;
+	}
 }
@@ -0,0 +1,206 @@
+package foodapp.events;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import foodapp.dto.OrderStatusEvent;
+import foodapp.entity.Order;
+import foodapp.entity.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process fan-out of order status changes to SSE subscribers.
+ * <p>
+ * The last events are kept in a ring buffer so a reconnecting client can send
+ * Last-Event-ID and get what it missed. Each subscriber has a bounded queue
+ * drained by its own virtual thread; a subscriber that falls behind by a whole
+ * queue is disconnected and catches up from the ring buffer on reconnect, so a
+ * slow client never holds up publishers. Event IDs start from the startup time
+ * in microseconds, so they keep increasing across restarts.
+ */
+@Slf4j
+@Component
+public class OrderEventBus {
+
+	private static final String STATUS_EVENT = "status";
+	private static final String RESYNC_EVENT = "resync";
+
+	private final OrderStatusEvent[] ring;
+	private final int subscriberBuffer;
+	private final Duration heartbeat;
+	private final Duration emitterTimeout;
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long lastEventId = System.currentTimeMillis() * 1000;
+
+	public OrderEventBus(@Value("${foodapp.events.ring-size}") int ringSize,
+			@Value("${foodapp.events.subscriber-buffer}") int subscriberBuffer,
+			@Value("${foodapp.events.heartbeat}") Duration heartbeat,
+			@Value("${foodapp.events.emitter-timeout}") Duration emitterTimeout) {
+		this.ring = new OrderStatusEvent[ringSize];
+		this.subscriberBuffer = subscriberBuffer;
+		this.heartbeat = heartbeat;
+		this.emitterTimeout = emitterTimeout;
+	}
+
+	/**
+	 * Publishes the current status of the order. Call after the change is
+	 * committed.
+	 */
+	public void publish(Order order) {
+		publish(order.getId(), order.getRestaurant().getId(), order.getUser().getId(), order.getStatus());
+	}
+
+	public void publish(Integer orderId, Integer restaurantId, Integer userId, OrderStatus status) {
+		lock.lock();
+		try {
+			OrderStatusEvent event = new OrderStatusEvent(++lastEventId, orderId, restaurantId, userId, status,
+					Instant.now());
+			ring[(int) (event.getEventId() % ring.length)] = event;
+			for (Subscription subscription : subscriptions) {
+				subscription.offer(event);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int subscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Opens a stream of the events accepted by the filter.
+	 *
+	 * @param lastEventId  the Last-Event-ID sent by a reconnecting client, or null
+	 * @param initialState sent first without an ID, e.g. the current order status;
+	 *                     read after the subscription is registered so no change
+	 *                     falls in between. May be null
+	 */
+	public SseEmitter subscribe(Predicate<OrderStatusEvent> filter, Long lastEventId, Supplier<?> initialState) {
+		SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+		Subscription subscription = new Subscription(emitter, filter);
+		emitter.onCompletion(subscription::close);
+		emitter.onTimeout(subscription::close);
+		emitter.onError(error -> subscription.close());
+
+		lock.lock();
+		try {
+			if (lastEventId != null)
+				subscription.replay = missedSince(lastEventId, filter);
+			subscriptions.add(subscription);
+		} finally {
+			lock.unlock();
+		}
+		subscription.initialState = initialState;
+		subscription.sender = Thread.ofVirtual().name("sse-order-events").start(subscription::send);
+		return emitter;
+	}
+
+	/**
+	 * @return the retained events after the given ID, or null if the client has
+	 *         to resync: some of them were already overwritten, or the ID was not
+	 *         issued by this node, e.g. it comes from another node or is made up
+	 */
+	List<OrderStatusEvent> missedSince(long eventId, Predicate<OrderStatusEvent> filter) {
+		long missed = lastEventId - eventId;
+		if (missed == 0)
+			return List.of();
+		if (missed < 0 || missed >= ring.length)
+			return null;
+		List<OrderStatusEvent> events = new ArrayList<>();
+		for (long id = eventId + 1; id <= lastEventId; id++) {
+			OrderStatusEvent event = ring[(int) (id % ring.length)];
+			if (event == null || event.getEventId() != id)
+				return null;
+			if (filter.test(event))
+				events.add(event);
+		}
+		return events;
+	}
+
+	long lastEventId() {
+		lock.lock();
+		try {
+			return lastEventId;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private final class Subscription {
+
+		private final SseEmitter emitter;
+		private final Predicate<OrderStatusEvent> filter;
+		private final BlockingQueue<OrderStatusEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+		private List<OrderStatusEvent> replay = List.of();
+		private Supplier<?> initialState;
+		private volatile Thread sender;
+		private volatile boolean overflowed;
+
+		Subscription(SseEmitter emitter, Predicate<OrderStatusEvent> filter) {
+			this.emitter = emitter;
+			this.filter = filter;
+		}
+
+		void offer(OrderStatusEvent event) {
+			if (filter.test(event) && !queue.offer(event))
+				overflowed = true;
+		}
+
+		void send() {
+			try {
+				if (initialState != null)
+					emitter.send(SseEmitter.event().name(STATUS_EVENT).data(initialState.get(), MediaType.APPLICATION_JSON));
+				if (replay == null)
+					emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("Missed events are no longer available"));
+				else
+					for (OrderStatusEvent event : replay)
+						send(event);
+
+				while (!overflowed) {
+					OrderStatusEvent event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+					if (event == null)
+						emitter.send(SseEmitter.event().comment("keepalive"));
+					else
+						send(event);
+				}
+				log.debug("Disconnecting slow order event subscriber");
+				emitter.complete();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException | RuntimeException e) {
+				// client went away; the emitter callbacks clean up
+				emitter.completeWithError(e);
+			}
+		}
+
+		private void send(OrderStatusEvent event) throws IOException {
+			emitter.send(SseEmitter.event().id(Long.toString(event.getEventId())).name(STATUS_EVENT).data(event,
+					MediaType.APPLICATION_JSON));
+		}
+
+		void close() {
+			subscriptions.remove(this);
+			Thread thread = sender;
+			if (thread != null)
+				thread.interrupt();
+		}
+	}
+}
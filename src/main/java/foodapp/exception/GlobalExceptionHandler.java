@@ -39,4 +39,59 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return new ResponseEntity<>(apiResponse, HttpStatus.NOT_FOUND);
 	}
 
+	@ExceptionHandler(InvalidTokenException.class)
+	public ResponseEntity<ResponseStructure<String>> invalidTokenException(InvalidTokenException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.UNAUTHORIZED);
+	}
+
+	@ExceptionHandler(OrderNotAcceptedException.class)
+	public ResponseEntity<ResponseStructure<String>> orderNotAcceptedException(OrderNotAcceptedException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	@ExceptionHandler(InvalidOrderStateException.class)
+	public ResponseEntity<ResponseStructure<String>> invalidOrderStateException(InvalidOrderStateException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.CONFLICT.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+	}
+
+	@ExceptionHandler(IdempotencyConflictException.class)
+	public ResponseEntity<ResponseStructure<String>> idempotencyConflictException(
+			IdempotencyConflictException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.UNPROCESSABLE_ENTITY.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+
+	@ExceptionHandler(LocationRequiredException.class)
+	public ResponseEntity<ResponseStructure<String>> locationRequiredException(LocationRequiredException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.BAD_REQUEST.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(UnsupportedImageException.class)
+	public ResponseEntity<ResponseStructure<String>> unsupportedImageException(UnsupportedImageException exception) {
+		ResponseStructure<String> apiResponse = new ResponseStructure<>();
+		apiResponse.setData(exception.getMessage());
+		apiResponse.setMessage("Exception handled");
+		apiResponse.setStatusCode(HttpStatus.BAD_REQUEST.value());
+		return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
+	}
+
 }
\ No newline at end of file
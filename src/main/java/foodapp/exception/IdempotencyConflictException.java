@@ -0,0 +1,10 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class IdempotencyConflictException extends RuntimeException {
+
+	public IdempotencyConflictException(String message) {
+		super(message);
+	}
+
+}
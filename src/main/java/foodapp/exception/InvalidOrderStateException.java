@@ -0,0 +1,10 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class InvalidOrderStateException extends RuntimeException {
+
+	public InvalidOrderStateException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,10 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class InvalidTokenException extends RuntimeException {
+
+	public InvalidTokenException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,8 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class LocationRequiredException extends RuntimeException {
+	public LocationRequiredException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class OrderNotAcceptedException extends RuntimeException {
+
+	public OrderNotAcceptedException(String message) {
+		super(message);
+	}
+
+	public OrderNotAcceptedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,10 @@
+package foodapp.exception;
+
+@SuppressWarnings("serial")
+public class UnsupportedImageException extends RuntimeException {
+
+	public UnsupportedImageException(String message) {
+		super(message);
+	}
+
+}
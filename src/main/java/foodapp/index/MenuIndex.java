@@ -0,0 +1,152 @@
+package foodapp.index;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.entity.Food;
+import foodapp.entity.Restaurant;
+import foodapp.repository.RestaurantRepository;
+
+/**
+ * In-memory menu snapshots per restaurant, used to price bills without touching
+ * the database or the Spring caches. Reads are lock-free; every change builds a
+ * new {@link MenuSnapshot} and swaps it in atomically. Other nodes are told
+ * which restaurants or foods changed and drop the affected snapshots.
+ */
+@Component
+public class MenuIndex {
+
+	static final String RESTAURANTS_CHANNEL = "menu_index";
+	static final String FOODS_CHANNEL = "menu_index_foods";
+
+	private final RestaurantRepository restaurantRepository;
+	private final CacheInvalidationBus invalidationBus;
+
+	private final ConcurrentMap<Integer, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * Bumped before every change is applied, so a snapshot loaded concurrently
+	 * with a change is served once but never stored.
+	 */
+	private final AtomicLong mutations = new AtomicLong();
+
+	public MenuIndex(RestaurantRepository restaurantRepository, CacheInvalidationBus invalidationBus) {
+		this.restaurantRepository = restaurantRepository;
+		this.invalidationBus = invalidationBus;
+		invalidationBus.register(RESTAURANTS_CHANNEL, (key, version) -> dropRestaurant((Integer) key));
+		invalidationBus.register(FOODS_CHANNEL, (key, version) -> dropFood((Integer) key));
+	}
+
+	public MenuSnapshot get(Integer restaurantId) {
+		MenuSnapshot snapshot = snapshots.get(restaurantId);
+		if (snapshot != null)
+			return snapshot;
+
+		long seen = mutations.get();
+		MenuSnapshot loaded = load(restaurantId);
+		MenuSnapshot stored = snapshots.compute(restaurantId,
+				(id, current) -> current != null ? current : mutations.get() == seen ? loaded : null);
+		return stored != null ? stored : loaded;
+	}
+
+	/**
+	 * Current menu version of a restaurant; changes whenever its prices, names or
+	 * food list change.
+	 */
+	public long version(Integer restaurantId) {
+		return get(restaurantId).getVersion();
+	}
+
+	/**
+	 * @return whether every one of the foods is on the current menu of the
+	 *         restaurant
+	 */
+	public boolean servesAll(Integer restaurantId, Collection<Integer> foodIds) {
+		MenuSnapshot menu = get(restaurantId);
+		for (Integer foodId : foodIds) {
+			if (menu.indexOf(foodId) < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces the whole menu of a restaurant, e.g. after new foods are assigned.
+	 */
+	public void publish(Restaurant restaurant) {
+		mutations.incrementAndGet();
+		List<Food> foods = restaurant.getFoods() != null ? restaurant.getFoods() : List.of();
+		snapshots.put(restaurant.getId(), MenuSnapshot.of(restaurant.getId(), restaurant.getName(), foods));
+		invalidationBus.publish(RESTAURANTS_CHANNEL, restaurant.getId());
+	}
+
+	/**
+	 * Applies a changed name or price to every menu serving the food.
+	 */
+	public void updateFood(Food food) {
+		mutations.incrementAndGet();
+		snapshots.replaceAll((id, snapshot) -> snapshot.withFood(food));
+		invalidationBus.publish(FOODS_CHANNEL, food.getId());
+	}
+
+	/**
+	 * Drops every menu serving one of the foods, e.g. after a bulk import; they
+	 * are reloaded on next use.
+	 */
+	public void dropFoods(Set<Integer> foodIds) {
+		if (foodIds.isEmpty())
+			return;
+		mutations.incrementAndGet();
+		snapshots.values().removeIf(snapshot -> snapshot.servesAny(foodIds));
+		foodIds.forEach(foodId -> invalidationBus.publish(FOODS_CHANNEL, foodId));
+	}
+
+	public void removeFood(Integer foodId) {
+		mutations.incrementAndGet();
+		snapshots.replaceAll((id, snapshot) -> snapshot.withoutFood(foodId));
+		invalidationBus.publish(FOODS_CHANNEL, foodId);
+	}
+
+	public void renameRestaurant(Integer restaurantId, String name) {
+		mutations.incrementAndGet();
+		snapshots.computeIfPresent(restaurantId, (id, snapshot) -> snapshot.withRestaurantName(name));
+		invalidationBus.publish(RESTAURANTS_CHANNEL, restaurantId);
+	}
+
+	/**
+	 * @return the number of menus currently held in memory
+	 */
+	public int size() {
+		return snapshots.size();
+	}
+
+	public void evict(Integer restaurantId) {
+		dropRestaurant(restaurantId);
+		invalidationBus.publish(RESTAURANTS_CHANNEL, restaurantId);
+	}
+
+	private void dropRestaurant(Integer restaurantId) {
+		mutations.incrementAndGet();
+		snapshots.remove(restaurantId);
+	}
+
+	private void dropFood(Integer foodId) {
+		mutations.incrementAndGet();
+		snapshots.values().removeIf(snapshot -> snapshot.indexOf(foodId) >= 0);
+	}
+
+	private MenuSnapshot load(Integer restaurantId) {
+		Restaurant restaurant = restaurantRepository.findById(restaurantId)
+				.orElseThrow(() -> new NoSuchElementException("Restaurant with ID:" + restaurantId + " not found"));
+		List<Food> foods = restaurantRepository.findFoodsByRestaurantId(restaurantId);
+		return MenuSnapshot.of(restaurantId, restaurant.getName(), foods);
+	}
+}
@@ -0,0 +1,139 @@
+package foodapp.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import foodapp.entity.Food;
+
+/**
+ * Immutable price list of one restaurant. Food IDs are kept sorted in a
+ * primitive array so a lookup is a binary search with no boxing; prices and
+ * names live in parallel arrays. Every snapshot gets a new, globally increasing
+ * version, so a rebuilt menu never reuses an older version number.
+ */
+public final class MenuSnapshot {
+
+	private static final AtomicLong VERSIONS = new AtomicLong();
+
+	private final int restaurantId;
+	private final String restaurantName;
+	private final int[] foodIds;
+	private final float[] prices;
+	private final String[] names;
+	private final long version;
+
+	private MenuSnapshot(int restaurantId, String restaurantName, int[] foodIds, float[] prices, String[] names) {
+		this.restaurantId = restaurantId;
+		this.restaurantName = restaurantName;
+		this.foodIds = foodIds;
+		this.prices = prices;
+		this.names = names;
+		this.version = VERSIONS.incrementAndGet();
+	}
+
+	public static MenuSnapshot of(int restaurantId, String restaurantName, Collection<Food> foods) {
+		Food[] sorted = foods.stream().sorted(Comparator.comparing(Food::getId)).toArray(Food[]::new);
+		int[] ids = new int[sorted.length];
+		float[] prices = new float[sorted.length];
+		String[] names = new String[sorted.length];
+
+		int size = 0;
+		for (Food food : sorted) {
+			if (size > 0 && ids[size - 1] == food.getId())
+				continue; // duplicate link in restaurant_food
+			ids[size] = food.getId();
+			prices[size] = food.getPrice();
+			names[size] = food.getName();
+			size++;
+		}
+		return new MenuSnapshot(restaurantId, restaurantName, Arrays.copyOf(ids, size), Arrays.copyOf(prices, size),
+				Arrays.copyOf(names, size));
+	}
+
+	/**
+	 * @return the slot of the food in this menu, or a negative value if the
+	 *         restaurant does not serve it
+	 */
+	public int indexOf(int foodId) {
+		return Arrays.binarySearch(foodIds, foodId);
+	}
+
+	public float priceAt(int slot) {
+		return prices[slot];
+	}
+
+	public String nameAt(int slot) {
+		return names[slot];
+	}
+
+	public int size() {
+		return foodIds.length;
+	}
+
+	public int getRestaurantId() {
+		return restaurantId;
+	}
+
+	public String getRestaurantName() {
+		return restaurantName;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	boolean servesAny(Set<Integer> ids) {
+		for (int foodId : foodIds) {
+			if (ids.contains(foodId))
+				return true;
+		}
+		return false;
+	}
+
+	MenuSnapshot withFood(Food food) {
+		int slot = indexOf(food.getId());
+		if (slot < 0)
+			return this;
+		float[] newPrices = prices.clone();
+		String[] newNames = names.clone();
+		newPrices[slot] = food.getPrice();
+		newNames[slot] = food.getName();
+		return new MenuSnapshot(restaurantId, restaurantName, foodIds, newPrices, newNames);
+	}
+
+	MenuSnapshot withoutFood(int foodId) {
+		int slot = indexOf(foodId);
+		if (slot < 0)
+			return this;
+		return new MenuSnapshot(restaurantId, restaurantName, remove(foodIds, slot), remove(prices, slot),
+				remove(names, slot));
+	}
+
+	MenuSnapshot withRestaurantName(String name) {
+		return new MenuSnapshot(restaurantId, name, foodIds, prices, names);
+	}
+
+	private static int[] remove(int[] source, int slot) {
+		int[] target = new int[source.length - 1];
+		System.arraycopy(source, 0, target, 0, slot);
+		System.arraycopy(source, slot + 1, target, slot, source.length - slot - 1);
+		return target;
+	}
+
+	private static float[] remove(float[] source, int slot) {
+		float[] target = new float[source.length - 1];
+		System.arraycopy(source, 0, target, 0, slot);
+		System.arraycopy(source, slot + 1, target, slot, source.length - slot - 1);
+		return target;
+	}
+
+	private static String[] remove(String[] source, int slot) {
+		String[] target = new String[source.length - 1];
+		System.arraycopy(source, 0, target, 0, slot);
+		System.arraycopy(source, slot + 1, target, slot, source.length - slot - 1);
+		return target;
+	}
+}
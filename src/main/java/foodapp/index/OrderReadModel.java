@@ -0,0 +1,125 @@
+package foodapp.index;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.entity.OrderStatus;
+
+/**
+ * Order snapshots kept in the bounded {@code orders} Caffeine cache. Every
+ * write is a version-checked merge, so a snapshot loaded from the database
+ * before a concurrent change can never replace the newer state:
+ * <ul>
+ * <li>a status change either upgrades the cached snapshot or, if none is
+ * cached, leaves a marker with the minimum version a later load must have;</li>
+ * <li>a delete leaves a tombstone that hides the order until it expires.</li>
+ * </ul>
+ * Other nodes receive the new version of every change and drop older copies.
+ */
+@Component
+public class OrderReadModel {
+
+	static final String CACHE_NAME = "orders";
+
+	private static final long DELETED = Long.MAX_VALUE;
+
+	private final ConcurrentMap<Object, Object> entries;
+	private final CacheInvalidationBus invalidationBus;
+
+	@SuppressWarnings("unchecked")
+	public OrderReadModel(CacheManager cacheManager, CacheInvalidationBus invalidationBus) {
+		this.entries = ((Cache<Object, Object>) cacheManager.getCache(CACHE_NAME).getNativeCache()).asMap();
+		this.invalidationBus = invalidationBus;
+		invalidationBus.register(CACHE_NAME, (key, version) -> invalidate((Integer) key, version));
+	}
+
+	/**
+	 * @param loader reads the order from the database on a miss
+	 * @throws NoSuchElementException if the order does not exist or was deleted
+	 */
+	public OrderDetailsResponse get(Integer id, Supplier<Optional<OrderDetailsResponse>> loader) {
+		Object entry = entries.get(id);
+		if (entry instanceof OrderDetailsResponse snapshot)
+			return snapshot;
+		if (entry instanceof Deleted)
+			throw notFound(id);
+
+		OrderDetailsResponse loaded = loader.get().orElseThrow(() -> notFound(id));
+		Object merged = entries.compute(id, (key, current) -> merge(current, loaded));
+		if (merged instanceof Deleted)
+			throw notFound(id);
+		return merged instanceof OrderDetailsResponse snapshot ? snapshot : loaded;
+	}
+
+	/**
+	 * Caches a freshly written order.
+	 */
+	public void put(OrderDetailsResponse order) {
+		entries.compute(order.id(), (key, current) -> merge(current, order));
+	}
+
+	public void statusChanged(Integer id, OrderStatus status, long version) {
+		entries.compute(id, (key, current) -> {
+			if (current instanceof OrderDetailsResponse snapshot)
+				return snapshot.version() < version ? snapshot.withStatus(status, version) : snapshot;
+			return atLeast(current, version);
+		});
+		invalidationBus.publish(CACHE_NAME, id, version);
+	}
+
+	public void deleted(Integer id) {
+		entries.put(id, Deleted.INSTANCE);
+		invalidationBus.publish(CACHE_NAME, id, DELETED);
+	}
+
+	/**
+	 * Applies a change made on another node: anything older than
+	 * {@code version} is dropped and must be loaded again.
+	 */
+	void invalidate(Integer id, long version) {
+		if (version == DELETED) {
+			entries.put(id, Deleted.INSTANCE);
+			return;
+		}
+		entries.compute(id, (key, current) -> current instanceof OrderDetailsResponse snapshot
+				&& snapshot.version() >= version ? snapshot : atLeast(current, version));
+	}
+
+	private static Object atLeast(Object current, long version) {
+		if (current instanceof MinVersion marker)
+			return marker.version() < version ? new MinVersion(version) : marker;
+		if (current instanceof Deleted)
+			return current;
+		return new MinVersion(version);
+	}
+
+	private static Object merge(Object current, OrderDetailsResponse candidate) {
+		if (current instanceof OrderDetailsResponse snapshot)
+			return snapshot.version() >= candidate.version() ? snapshot : candidate;
+		if (current instanceof MinVersion marker)
+			return candidate.version() >= marker.version() ? candidate : marker;
+		if (current instanceof Deleted)
+			return current;
+		return candidate;
+	}
+
+	private static NoSuchElementException notFound(Integer id) {
+		return new NoSuchElementException("Order not found with id: " + id);
+	}
+
+	private record MinVersion(long version) {
+	}
+
+	private enum Deleted {
+		INSTANCE
+	}
+}
@@ -0,0 +1,283 @@
+package foodapp.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.entity.Restaurant;
+import foodapp.repository.RestaurantRepository;
+
+/**
+ * Restaurant locations bucketed into a fixed latitude/longitude grid, so a
+ * nearby search only measures the restaurants in the few cells around the
+ * point instead of every restaurant. Coordinates of a cell are kept in
+ * primitive arrays and compared with the haversine distance.
+ * <p>
+ * Nearest-k searches look within a small radius first and double it until
+ * enough restaurants are found; anything outside the searched radius is
+ * farther than everything inside it, so the result is exact.
+ * <p>
+ * Locations are read from the database before the write lock is taken, so
+ * searches only wait for the swap of the changed restaurant.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+	static final String CHANNEL = "restaurant_geo";
+
+	/** About 5.5 km of latitude; a city-sized search touches a handful of cells. */
+	static final double CELL_DEGREES = 0.05;
+
+	private static final int ROWS = (int) Math.ceil(180 / CELL_DEGREES);
+	private static final int COLUMNS = (int) Math.ceil(360 / CELL_DEGREES);
+	private static final double EARTH_RADIUS_KM = 6371.0088;
+	private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+	private static final double FIRST_NEAREST_RADIUS_KM = 2;
+
+	private final RestaurantRepository restaurantRepository;
+	private final CacheInvalidationBus invalidationBus;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, Cell> cells = new HashMap<>();
+	private final Map<Integer, Long> cellByRestaurant = new HashMap<>();
+
+	/**
+	 * Latest change started per restaurant. A change is only applied if it is
+	 * still the latest for its restaurant, so a slow reload can never replace a
+	 * location that was read or saved after it.
+	 */
+	private final AtomicLong changes = new AtomicLong();
+	private final ConcurrentMap<Integer, Long> latestChanges = new ConcurrentHashMap<>();
+
+	public RestaurantGeoIndex(RestaurantRepository restaurantRepository, CacheInvalidationBus invalidationBus) {
+		this.restaurantRepository = restaurantRepository;
+		this.invalidationBus = invalidationBus;
+		invalidationBus.register(CHANNEL, (key, version) -> reload((Integer) key));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadAll() {
+		List<RestaurantLocation> locations = restaurantRepository.findAllLocations();
+		lock.writeLock().lock();
+		try {
+			for (RestaurantLocation location : locations) {
+				if (!latestChanges.containsKey(location.id()) && !cellByRestaurant.containsKey(location.id()))
+					add(location);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes a saved restaurant at its current coordinates, or drops it if it no
+	 * longer has any.
+	 */
+	public void put(Restaurant restaurant) {
+		RestaurantLocation location = restaurant.getLatitude() == null || restaurant.getLongitude() == null ? null
+				: new RestaurantLocation(restaurant.getId(), restaurant.getName(), restaurant.getAddress(),
+						restaurant.getLatitude(), restaurant.getLongitude());
+		replace(restaurant.getId(), () -> Optional.ofNullable(location));
+		invalidationBus.publish(CHANNEL, restaurant.getId());
+	}
+
+	public void evict(Integer restaurantId) {
+		replace(restaurantId, Optional::empty);
+		invalidationBus.publish(CHANNEL, restaurantId);
+	}
+
+	/**
+	 * @return the {@code limit} restaurants closest to the point and no more than
+	 *         {@code maxRadiusKm} away, nearest first
+	 */
+	public List<NearbyRestaurantResponse> nearest(double latitude, double longitude, int limit, double maxRadiusKm) {
+		double radiusKm = Math.min(FIRST_NEAREST_RADIUS_KM, maxRadiusKm);
+		while (true) {
+			List<NearbyRestaurantResponse> found = within(latitude, longitude, radiusKm, limit);
+			if (found.size() == limit || radiusKm >= maxRadiusKm)
+				return found;
+			radiusKm = Math.min(radiusKm * 2, maxRadiusKm);
+		}
+	}
+
+	/**
+	 * @return up to {@code limit} restaurants within {@code radiusKm} of the
+	 *         point, nearest first
+	 */
+	public List<NearbyRestaurantResponse> within(double latitude, double longitude, double radiusKm, int limit) {
+		double latitudeSpan = radiusKm / KM_PER_DEGREE;
+		int firstRow = row(Math.max(-90, latitude - latitudeSpan));
+		int lastRow = row(Math.min(90, latitude + latitudeSpan));
+
+		// Widest longitude span over the rows searched, which is at the row closest to a pole
+		double poleward = Math.min(90, Math.abs(latitude) + latitudeSpan);
+		double longitudeSpan = poleward >= 90 ? 180 : radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(poleward)));
+		int firstColumn;
+		int columnCount;
+		if (longitudeSpan >= 180) {
+			firstColumn = 0;
+			columnCount = COLUMNS;
+		} else {
+			firstColumn = column(longitude - longitudeSpan);
+			columnCount = Math.min(COLUMNS, Math.floorMod(column(longitude + longitudeSpan) - firstColumn, COLUMNS) + 1);
+		}
+
+		// Max-heap on distance holding the closest matches seen so far
+		PriorityQueue<Match> closest = new PriorityQueue<>(limit + 1,
+				(a, b) -> a.distanceKm() != b.distanceKm() ? Double.compare(b.distanceKm(), a.distanceKm())
+						: Integer.compare(b.location().id(), a.location().id()));
+		double phi = Math.toRadians(latitude);
+		double lambda = Math.toRadians(longitude);
+		double cosPhi = Math.cos(phi);
+
+		lock.readLock().lock();
+		try {
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int offset = 0; offset < columnCount; offset++) {
+					Cell cell = cells.get(key(row, Math.floorMod(firstColumn + offset, COLUMNS)));
+					if (cell == null)
+						continue;
+					for (int i = 0; i < cell.size; i++) {
+						double distanceKm = distanceKm(phi, lambda, cosPhi, cell.phis[i], cell.lambdas[i]);
+						if (distanceKm > radiusKm)
+							continue;
+						closest.offer(new Match(cell.locations[i], distanceKm));
+						if (closest.size() > limit)
+							closest.poll();
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		NearbyRestaurantResponse[] results = new NearbyRestaurantResponse[closest.size()];
+		for (int i = results.length - 1; i >= 0; i--) {
+			Match match = closest.poll();
+			RestaurantLocation location = match.location();
+			results[i] = new NearbyRestaurantResponse(location.id(), location.name(), location.address(),
+					location.latitude(), location.longitude(), match.distanceKm());
+		}
+		return Arrays.asList(results);
+	}
+
+	private void reload(Integer restaurantId) {
+		replace(restaurantId, () -> restaurantRepository.findLocationById(restaurantId));
+	}
+
+	/**
+	 * Reads the new location of the restaurant, if any, and swaps it in unless a
+	 * later change of the same restaurant was started meanwhile.
+	 */
+	private void replace(Integer restaurantId, Supplier<Optional<RestaurantLocation>> reader) {
+		long change = changes.incrementAndGet();
+		latestChanges.merge(restaurantId, change, Math::max);
+		try {
+			Optional<RestaurantLocation> location = reader.get();
+			lock.writeLock().lock();
+			try {
+				if (isLatest(restaurantId, change)) {
+					remove(restaurantId);
+					location.ifPresent(this::add);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} finally {
+			latestChanges.remove(restaurantId, change);
+		}
+	}
+
+	private boolean isLatest(Integer restaurantId, long change) {
+		Long latest = latestChanges.get(restaurantId);
+		return latest != null && latest == change;
+	}
+
+	private void add(RestaurantLocation location) {
+		long key = key(row(location.latitude()), column(location.longitude()));
+		cells.computeIfAbsent(key, k -> new Cell()).add(location);
+		cellByRestaurant.put(location.id(), key);
+	}
+
+	private void remove(Integer restaurantId) {
+		Long key = cellByRestaurant.remove(restaurantId);
+		if (key == null)
+			return;
+		Cell cell = cells.get(key);
+		cell.remove(restaurantId);
+		if (cell.size == 0)
+			cells.remove(key);
+	}
+
+	private static int row(double latitude) {
+		return Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+	}
+
+	private static int column(double longitude) {
+		return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+	}
+
+	private static long key(int row, int column) {
+		return (long) row * COLUMNS + column;
+	}
+
+	private static double distanceKm(double phi1, double lambda1, double cosPhi1, double phi2, double lambda2) {
+		double sinHalfPhi = Math.sin((phi2 - phi1) / 2);
+		double sinHalfLambda = Math.sin((lambda2 - lambda1) / 2);
+		double a = sinHalfPhi * sinHalfPhi + cosPhi1 * Math.cos(phi2) * sinHalfLambda * sinHalfLambda;
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private record Match(RestaurantLocation location, double distanceKm) {
+	}
+
+	/**
+	 * Restaurants in one grid cell, with their coordinates in radians in
+	 * parallel arrays. Removal swaps the last entry into the freed slot.
+	 */
+	private static final class Cell {
+		private RestaurantLocation[] locations = new RestaurantLocation[4];
+		private double[] phis = new double[4];
+		private double[] lambdas = new double[4];
+		private int size;
+
+		void add(RestaurantLocation location) {
+			if (size == locations.length) {
+				locations = Arrays.copyOf(locations, size * 2);
+				phis = Arrays.copyOf(phis, size * 2);
+				lambdas = Arrays.copyOf(lambdas, size * 2);
+			}
+			locations[size] = location;
+			phis[size] = Math.toRadians(location.latitude());
+			lambdas[size] = Math.toRadians(location.longitude());
+			size++;
+		}
+
+		void remove(Integer restaurantId) {
+			for (int i = 0; i < size; i++) {
+				if (locations[i].id().equals(restaurantId)) {
+					size--;
+					locations[i] = locations[size];
+					phis[i] = phis[size];
+					lambdas[i] = lambdas[size];
+					locations[size] = null;
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package foodapp.index;
+
+/**
+ * The part of a restaurant the nearby search needs, loaded without its menu or
+ * orders.
+ */
+public record RestaurantLocation(Integer id, String name, String address, double latitude, double longitude) {
+}
@@ -0,0 +1,321 @@
+package foodapp.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.dto.RestaurantSearchResponse;
+import foodapp.entity.Food;
+import foodapp.entity.Restaurant;
+import foodapp.repository.RestaurantRepository;
+
+/**
+ * In-memory inverted index over restaurant names, addresses and the names and
+ * descriptions of the foods they serve. Loaded once at startup and kept up to
+ * date by the restaurant and food services, so searches never touch the
+ * database.
+ * <p>
+ * Every query term must match, exactly, as a prefix or, for terms of four or
+ * more characters, within one or two typos. Matches are weighted by field and
+ * by how rare the term is; the best {@code limit} restaurants are returned.
+ * <p>
+ * Restaurants are read from the database before the write lock is taken, so
+ * searches only wait for the swap of the changed documents.
+ */
+@Component
+public class RestaurantSearchIndex {
+
+	static final String RESTAURANTS_CHANNEL = "restaurant_search";
+	static final String FOODS_CHANNEL = "restaurant_search_foods";
+
+	private static final float NAME_WEIGHT = 3f;
+	private static final float FOOD_NAME_WEIGHT = 2f;
+	private static final float ADDRESS_WEIGHT = 1f;
+	private static final float FOOD_DESCRIPTION_WEIGHT = 0.5f;
+
+	private static final float EXACT = 1f;
+	private static final float PREFIX = 0.7f;
+	private static final float TYPO = 0.5f;
+
+	private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private final RestaurantRepository restaurantRepository;
+	private final CacheInvalidationBus invalidationBus;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, Document> documents = new HashMap<>();
+	private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+	private final Map<Integer, Set<Integer>> restaurantsByFood = new HashMap<>();
+
+	/**
+	 * Latest reload started per restaurant. A reload only swaps in the
+	 * restaurants it is still the latest for, so a slow load can never replace
+	 * the result of one that read the database after it.
+	 */
+	private final AtomicLong reloads = new AtomicLong();
+	private final ConcurrentMap<Integer, Long> latestReloads = new ConcurrentHashMap<>();
+
+	public RestaurantSearchIndex(RestaurantRepository restaurantRepository, CacheInvalidationBus invalidationBus) {
+		this.restaurantRepository = restaurantRepository;
+		this.invalidationBus = invalidationBus;
+		invalidationBus.register(RESTAURANTS_CHANNEL, (key, version) -> reload(List.of((Integer) key)));
+		invalidationBus.register(FOODS_CHANNEL, (key, version) -> reload(restaurantsServing((Integer) key)));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadAll() {
+		List<Restaurant> restaurants = restaurantRepository.findAllWithFoods();
+		lock.writeLock().lock();
+		try {
+			for (Restaurant restaurant : restaurants) {
+				if (!latestReloads.containsKey(restaurant.getId()) && !documents.containsKey(restaurant.getId()))
+					index(restaurant);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Re-reads a created, changed or deleted restaurant from the database.
+	 */
+	public void restaurantChanged(Integer restaurantId) {
+		reload(List.of(restaurantId));
+		invalidationBus.publish(RESTAURANTS_CHANNEL, restaurantId);
+	}
+
+	/**
+	 * Re-reads every restaurant serving the food.
+	 */
+	public void foodChanged(Integer foodId) {
+		reload(restaurantsServing(foodId));
+		invalidationBus.publish(FOODS_CHANNEL, foodId);
+	}
+
+	/**
+	 * Re-reads every restaurant serving any of the foods, in one query.
+	 */
+	public void foodsChanged(Collection<Integer> foodIds) {
+		Set<Integer> restaurantIds = new HashSet<>();
+		foodIds.forEach(foodId -> restaurantIds.addAll(restaurantsServing(foodId)));
+		reload(restaurantIds);
+		foodIds.forEach(foodId -> invalidationBus.publish(FOODS_CHANNEL, foodId));
+	}
+
+	public List<RestaurantSearchResponse> search(String query, int limit) {
+		List<String> tokens = tokenize(query);
+		if (tokens.isEmpty())
+			return List.of();
+
+		lock.readLock().lock();
+		try {
+			Map<Integer, Float> scores = null;
+			for (String token : tokens) {
+				Map<Integer, Float> tokenScores = match(token);
+				if (scores == null) {
+					scores = tokenScores;
+				} else {
+					scores.keySet().retainAll(tokenScores.keySet());
+					scores.replaceAll((id, score) -> score + tokenScores.get(id));
+				}
+				if (scores.isEmpty())
+					return List.of();
+			}
+			return top(scores, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private Set<Integer> restaurantsServing(Integer foodId) {
+		lock.readLock().lock();
+		try {
+			return Set.copyOf(restaurantsByFood.getOrDefault(foodId, Set.of()));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void reload(Collection<Integer> restaurantIds) {
+		if (restaurantIds.isEmpty())
+			return;
+		long reload = reloads.incrementAndGet();
+		restaurantIds.forEach(id -> latestReloads.merge(id, reload, Math::max));
+		try {
+			List<Restaurant> restaurants = restaurantRepository.findAllWithFoodsByIdIn(restaurantIds);
+			lock.writeLock().lock();
+			try {
+				for (Integer id : restaurantIds) {
+					if (isLatest(id, reload))
+						remove(id);
+				}
+				for (Restaurant restaurant : restaurants) {
+					if (isLatest(restaurant.getId(), reload))
+						index(restaurant);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} finally {
+			restaurantIds.forEach(id -> latestReloads.remove(id, reload));
+		}
+	}
+
+	private boolean isLatest(Integer restaurantId, long reload) {
+		Long latest = latestReloads.get(restaurantId);
+		return latest != null && latest == reload;
+	}
+
+	/**
+	 * Scores every restaurant matching the token, keeping the best match per
+	 * restaurant.
+	 */
+	private Map<Integer, Float> match(String token) {
+		Map<Integer, Float> scores = new HashMap<>();
+		for (Map.Entry<String, Map<Integer, Float>> term : postings
+				.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+			score(term.getValue(), term.getKey().equals(token) ? EXACT : PREFIX, scores);
+		}
+		if (scores.isEmpty() && token.length() >= 4) {
+			int maxTypos = token.length() >= 8 ? 2 : 1;
+			for (Map.Entry<String, Map<Integer, Float>> term : postings.entrySet()) {
+				int typos = editDistance(token, term.getKey(), maxTypos);
+				if (typos <= maxTypos)
+					score(term.getValue(), TYPO / typos, scores);
+			}
+		}
+		return scores;
+	}
+
+	private void score(Map<Integer, Float> posting, float quality, Map<Integer, Float> scores) {
+		float idf = (float) Math.log(1 + (double) documents.size() / posting.size());
+		posting.forEach((id, weight) -> scores.merge(id, weight * quality * idf, Math::max));
+	}
+
+	private List<RestaurantSearchResponse> top(Map<Integer, Float> scores, int limit) {
+		Comparator<Map.Entry<Integer, Float>> byScore = Map.Entry.<Integer, Float>comparingByValue()
+				.thenComparing(Map.Entry.<Integer, Float>comparingByKey().reversed());
+		PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(limit + 1, byScore);
+		for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+			best.offer(entry);
+			if (best.size() > limit)
+				best.poll();
+		}
+		List<RestaurantSearchResponse> results = new ArrayList<>(best.size());
+		while (!best.isEmpty()) {
+			Map.Entry<Integer, Float> entry = best.poll();
+			Document document = documents.get(entry.getKey());
+			results.add(new RestaurantSearchResponse(document.id(), document.name(), document.address(),
+					entry.getValue()));
+		}
+		return results.reversed();
+	}
+
+	private void index(Restaurant restaurant) {
+		Map<String, Float> terms = new HashMap<>();
+		addTerms(terms, restaurant.getName(), NAME_WEIGHT);
+		addTerms(terms, restaurant.getAddress(), ADDRESS_WEIGHT);
+		Set<Integer> foodIds = new HashSet<>();
+		for (Food food : restaurant.getFoods()) {
+			foodIds.add(food.getId());
+			addTerms(terms, food.getName(), FOOD_NAME_WEIGHT);
+			addTerms(terms, food.getDescription(), FOOD_DESCRIPTION_WEIGHT);
+		}
+
+		Document document = new Document(restaurant.getId(), restaurant.getName(), restaurant.getAddress(),
+				Set.copyOf(terms.keySet()), Set.copyOf(foodIds));
+		documents.put(document.id(), document);
+		terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(),
+				weight));
+		foodIds.forEach(foodId -> restaurantsByFood.computeIfAbsent(foodId, key -> new HashSet<>()).add(document.id()));
+	}
+
+	private void remove(Integer restaurantId) {
+		Document document = documents.remove(restaurantId);
+		if (document == null)
+			return;
+		for (String term : document.terms()) {
+			Map<Integer, Float> posting = postings.get(term);
+			posting.remove(restaurantId);
+			if (posting.isEmpty())
+				postings.remove(term);
+		}
+		for (Integer foodId : document.foodIds()) {
+			Set<Integer> restaurants = restaurantsByFood.get(foodId);
+			restaurants.remove(restaurantId);
+			if (restaurants.isEmpty())
+				restaurantsByFood.remove(foodId);
+		}
+	}
+
+	private static void addTerms(Map<String, Float> terms, String text, float weight) {
+		for (String token : tokenize(text))
+			terms.merge(token, weight, Math::max);
+	}
+
+	static List<String> tokenize(String text) {
+		if (text == null || text.isBlank())
+			return List.of();
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+		List<String> tokens = new ArrayList<>();
+		for (String token : NON_WORD.split(folded)) {
+			if (!token.isEmpty())
+				tokens.add(token);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Optimal string alignment distance (Levenshtein plus adjacent swaps),
+	 * giving up as soon as it must exceed {@code max}.
+	 */
+	static int editDistance(String a, String b, int max) {
+		if (Math.abs(a.length() - b.length()) > max)
+			return max + 1;
+		int[] previous2 = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++)
+			previous[j] = j;
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1))
+					current[j] = Math.min(current[j], previous2[j - 2] + 1);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > max)
+				return max + 1;
+			int[] recycled = previous2;
+			previous2 = previous;
+			previous = current;
+			current = recycled;
+		}
+		return previous[b.length()];
+	}
+
+	private record Document(Integer id, String name, String address, Set<String> terms, Set<Integer> foodIds) {
+	}
+}
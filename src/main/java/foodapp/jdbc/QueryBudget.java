@@ -0,0 +1,50 @@
+package foodapp.jdbc;
+
+import java.util.stream.Collectors;
+
+/**
+ * Fails a test when the code under it runs more statements than allowed on
+ * the calling thread:
+ *
+ * <pre>
+ * try (QueryBudget budget = QueryBudget.atMost(2)) {
+ * 	orderService.getOrderDetails(orderId);
+ * }
+ * </pre>
+ *
+ * The message lists the statements that ran repeatedly, which is where an N+1
+ * shows up. Only counts statements going through the proxied data source.
+ */
+public final class QueryBudget implements AutoCloseable {
+
+	private final int maxStatements;
+	private final QueryScope scope;
+
+	private QueryBudget(int maxStatements) {
+		this.maxStatements = maxStatements;
+		this.scope = QueryScope.open();
+	}
+
+	public static QueryBudget atMost(int maxStatements) {
+		return new QueryBudget(maxStatements);
+	}
+
+	public int used() {
+		return scope.statements();
+	}
+
+	/**
+	 * @throws AssertionError if the budget was exceeded
+	 */
+	@Override
+	public void close() {
+		scope.close();
+		if (scope.statements() <= maxStatements)
+			return;
+		String repeated = scope.repeated(2).stream()
+				.map(repeat -> "\n\t" + repeat.count() + "x " + repeat.sql())
+				.collect(Collectors.joining());
+		throw new AssertionError("Expected at most " + maxStatements + " statements but " + scope.statements()
+				+ " ran" + (repeated.isEmpty() ? "" : "; repeated:" + repeated));
+	}
+}
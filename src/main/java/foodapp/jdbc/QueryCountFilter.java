@@ -0,0 +1,39 @@
+package foodapp.jdbc;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opens a {@link QueryScope} around each request, ahead of security so the
+ * statements run for authentication are counted too, and hands it to the
+ * {@link QueryInspector} when the request is done.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+	private final QueryInspector queryInspector;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try (QueryScope scope = QueryScope.open()) {
+			filterChain.doFilter(request, response);
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			queryInspector.requestCompleted(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN",
+					scope);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package foodapp.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Sees every statement sent through the proxied data source. Counts it in the
+ * open {@link QueryScope}s, reports statements slower than
+ * {@code foodapp.jdbc.slow-threshold} with their bind parameters and call
+ * site, and at the end of a request reports statements that ran
+ * {@code foodapp.jdbc.repeat-threshold} times or more, the usual sign of an N+1
+ * (a lazy collection or a repository call inside a loop).
+ */
+@Component
+public class QueryInspector implements QueryExecutionListener {
+
+	private static final int MAX_PARAMETER_LENGTH = 100;
+	private static final int MAX_PARAMETER_SETS = 5;
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+	private final long slowThresholdMillis;
+	private final int repeatThreshold;
+	private final QueryLog queryLog;
+	private final MeterRegistry meterRegistry;
+	private final Counter slowStatements;
+	private final Counter repeatedStatements;
+
+	public QueryInspector(@Value("${foodapp.jdbc.slow-threshold}") Duration slowThreshold,
+			@Value("${foodapp.jdbc.repeat-threshold}") int repeatThreshold, QueryLog queryLog,
+			MeterRegistry meterRegistry) {
+		this.slowThresholdMillis = slowThreshold.toMillis();
+		this.repeatThreshold = repeatThreshold;
+		this.queryLog = queryLog;
+		this.meterRegistry = meterRegistry;
+		this.slowStatements = Counter.builder("foodapp.jdbc.slow")
+				.description("Statements slower than the slow-query threshold")
+				.register(meterRegistry);
+		this.repeatedStatements = Counter.builder("foodapp.jdbc.repeated")
+				.description("Distinct statements repeated within one request at least the repeat threshold")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long elapsedMillis = execInfo.getElapsedTime();
+		QueryScope scope = QueryScope.current();
+		for (QueryInfo query : queryInfoList) {
+			if (scope != null) {
+				QueryScope.Repeat repeat = scope.record(query.getQuery(), elapsedMillis);
+				if (repeat.count() == repeatThreshold)
+					repeat.callSite(callSite());
+			}
+			if (elapsedMillis >= slowThresholdMillis) {
+				slowStatements.increment();
+				if (queryLog.sampled())
+					reportSlow(query, elapsedMillis, execInfo.isBatch() ? execInfo.getBatchSize() : 0);
+			}
+			elapsedMillis = 0; // a multi-statement batch is timed as a whole
+		}
+	}
+
+	/**
+	 * Records the statements of a finished request under its URI pattern and
+	 * reports the repeated ones.
+	 */
+	public void requestCompleted(String method, String uri, QueryScope scope) {
+		DistributionSummary.builder("foodapp.jdbc.statements")
+				.description("Statements run per HTTP request")
+				.tag("uri", uri)
+				.register(meterRegistry)
+				.record(scope.statements());
+
+		List<QueryScope.Repeat> repeated = scope.repeated(repeatThreshold);
+		if (repeated.isEmpty())
+			return;
+		repeatedStatements.increment(repeated.size());
+		if (!queryLog.sampled())
+			return;
+		int statements = scope.statements();
+		long elapsedMillis = scope.elapsedMillis();
+		queryLog.warn(() -> {
+			StringBuilder report = new StringBuilder("Possible N+1 in ").append(method).append(' ').append(uri)
+					.append(": ").append(statements).append(" statements, ").append(elapsedMillis).append(" ms");
+			for (QueryScope.Repeat repeat : repeated) {
+				report.append("\n\t").append(repeat.count()).append("x at ").append(repeat.callSite()).append(": ")
+						.append(repeat.sql());
+			}
+			return report.toString();
+		});
+	}
+
+	private void reportSlow(QueryInfo query, long elapsedMillis, int batchSize) {
+		String callSite = callSite();
+		String sql = query.getQuery();
+		List<String> parameters = parameters(query);
+		queryLog.warn(() -> "Slow statement, " + elapsedMillis + " ms at " + callSite
+				+ (batchSize > 0 ? " (batch of " + batchSize + ")" : "") + ": " + sql
+				+ (parameters.isEmpty() ? "" : " " + String.join(" ", parameters)));
+	}
+
+	/**
+	 * Bind parameters of the first few parameter sets, copied now since the
+	 * report is written later. Long values are cut short.
+	 */
+	private static List<String> parameters(QueryInfo query) {
+		List<String> sets = new ArrayList<>();
+		for (List<ParameterSetOperation> operations : query.getParametersList()) {
+			if (sets.size() == MAX_PARAMETER_SETS) {
+				sets.add("...");
+				break;
+			}
+			List<String> values = new ArrayList<>(operations.size());
+			for (ParameterSetOperation operation : operations) {
+				Object[] args = operation.getArgs();
+				String value = "setNull".equals(operation.getMethod().getName()) || args.length < 2 ? "null"
+						: args[1] instanceof byte[] bytes ? "<" + bytes.length + " bytes>" : String.valueOf(args[1]);
+				values.add(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+			}
+			sets.add(values.toString());
+		}
+		return sets;
+	}
+
+	/**
+	 * The innermost application frame that issued the statement. A statement
+	 * with only filters above it in the stack was triggered after the controller
+	 * returned, typically a lazy collection loaded while the response was
+	 * written.
+	 */
+	private static String callSite() {
+		Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+				.filter(f -> f.getClassName().startsWith("foodapp.") && !f.getClassName().startsWith("foodapp.jdbc.")
+						&& !f.getClassName().contains("$$"))
+				.findFirst());
+		if (frame.isEmpty())
+			return "unknown";
+		if (Filter.class.isAssignableFrom(frame.get().getDeclaringClass()))
+			return "response rendering (lazy load outside application code)";
+		StackWalker.StackFrame site = frame.get();
+		return site.getDeclaringClass().getSimpleName() + "." + site.getMethodName() + ":" + site.getLineNumber();
+	}
+}
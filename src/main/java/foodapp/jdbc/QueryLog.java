@@ -0,0 +1,86 @@
+package foodapp.jdbc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes statement reports off the request path. Only a sample of the reports
+ * is kept, and they are formatted and logged by a background thread; when its
+ * queue is full reports are dropped and counted rather than slowing down the
+ * statement that produced them.
+ */
+@Slf4j
+@Component
+public class QueryLog implements SmartLifecycle {
+
+	private final double sampleRate;
+	private final BlockingQueue<Supplier<String>> queue;
+	private final AtomicLong dropped = new AtomicLong();
+
+	private volatile boolean running;
+	private Thread worker;
+
+	public QueryLog(@Value("${foodapp.jdbc.log-sample-rate}") double sampleRate,
+			@Value("${foodapp.jdbc.log-queue-capacity}") int queueCapacity) {
+		this.sampleRate = sampleRate;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	/**
+	 * @return whether a report should be made for this occurrence; callers check
+	 *         this before collecting anything expensive for the report
+	 */
+	public boolean sampled() {
+		return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+	}
+
+	public void warn(Supplier<String> report) {
+		if (!queue.offer(report))
+			dropped.incrementAndGet();
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		worker = Thread.ofPlatform().name("query-log").daemon(true).start(this::drain);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		worker.interrupt();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private void drain() {
+		while (running) {
+			try {
+				Supplier<String> report = queue.poll(1, TimeUnit.SECONDS);
+				if (report == null)
+					continue;
+				log.warn(report.get());
+				long lost = dropped.getAndSet(0);
+				if (lost > 0)
+					log.warn("{} statement reports dropped, the query log queue was full", lost);
+			} catch (InterruptedException e) {
+				return;
+			} catch (RuntimeException e) {
+				log.error("Statement report failed", e);
+			}
+		}
+	}
+}
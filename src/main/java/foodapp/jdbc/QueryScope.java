@@ -0,0 +1,110 @@
+package foodapp.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tally of the statements run on the current thread while the scope is open.
+ * Scopes nest: a statement is counted in every open scope, e.g. in a
+ * {@link QueryBudget} and in the HTTP request around it. Statements run on
+ * other threads, e.g. by the order writer, are not counted.
+ */
+public final class QueryScope implements AutoCloseable {
+
+	private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+	private final QueryScope parent;
+	private final Map<String, Repeat> repeats = new HashMap<>();
+	private int statements;
+	private long elapsedMillis;
+
+	private QueryScope(QueryScope parent) {
+		this.parent = parent;
+	}
+
+	public static QueryScope open() {
+		QueryScope scope = new QueryScope(CURRENT.get());
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	static QueryScope current() {
+		return CURRENT.get();
+	}
+
+	public int statements() {
+		return statements;
+	}
+
+	public long elapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return the statements that ran at least {@code threshold} times in this
+	 *         scope, most repeated first
+	 */
+	public List<Repeat> repeated(int threshold) {
+		List<Repeat> repeated = new ArrayList<>();
+		for (Repeat repeat : repeats.values()) {
+			if (repeat.count >= threshold)
+				repeated.add(repeat);
+		}
+		repeated.sort((a, b) -> Integer.compare(b.count, a.count));
+		return repeated;
+	}
+
+	@Override
+	public void close() {
+		if (parent == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(parent);
+	}
+
+	/**
+	 * @return the tally of this statement in the outermost scope
+	 */
+	Repeat record(String sql, long elapsedMillis) {
+		Repeat repeat = null;
+		for (QueryScope scope = this; scope != null; scope = scope.parent) {
+			scope.statements++;
+			scope.elapsedMillis += elapsedMillis;
+			repeat = scope.repeats.computeIfAbsent(sql, Repeat::new);
+			repeat.count++;
+		}
+		return repeat;
+	}
+
+	/**
+	 * One distinct statement and how often it ran. The call site is captured when
+	 * it first crosses the repeat threshold.
+	 */
+	public static final class Repeat {
+		private final String sql;
+		private int count;
+		private String callSite;
+
+		private Repeat(String sql) {
+			this.sql = sql;
+		}
+
+		public String sql() {
+			return sql;
+		}
+
+		public int count() {
+			return count;
+		}
+
+		public String callSite() {
+			return callSite;
+		}
+
+		void callSite(String callSite) {
+			this.callSite = callSite;
+		}
+	}
+}
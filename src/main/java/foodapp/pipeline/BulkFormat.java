@@ -0,0 +1,21 @@
+package foodapp.pipeline;
+
+/**
+ * Upload and download formats of the bulk food endpoints.
+ */
+public enum BulkFormat {
+	/** Header {@code id,name,description,price}, then one food per record. */
+	CSV("text/csv"),
+	/** One JSON object per line with the same fields. */
+	NDJSON("application/x-ndjson");
+
+	private final String contentType;
+
+	BulkFormat(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String contentType() {
+		return contentType;
+	}
+}
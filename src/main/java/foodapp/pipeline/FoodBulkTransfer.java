@@ -0,0 +1,297 @@
+package foodapp.pipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import foodapp.dto.FoodImportReport;
+import foodapp.dto.FoodImportRow;
+import foodapp.dto.MenuItemResponse;
+import foodapp.repository.FoodRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streams foods in and out as CSV or NDJSON. Uploads are parsed one record at
+ * a time and written in JDBC batches, each chunk in its own short transaction,
+ * so a large menu sync neither buffers the file nor holds locks for its whole
+ * duration. Bad rows are reported by position and skipped; the rest of the
+ * upload is still applied.
+ */
+@Component
+public class FoodBulkTransfer {
+
+	private static final int MAX_REPORTED_ERRORS = 1000;
+
+	private static final String INSERT = "insert into food (name, description, price) values (?, ?, ?)";
+	private static final String UPDATE = "update food set name = ?, description = ?, price = ? where id = ?";
+	private static final String LINK = "insert into restaurant_food (resto_id, food_id) values (?, ?)";
+
+	private static final CsvMapper CSV_MAPPER = new CsvMapper();
+	private static final CsvSchema CSV_SCHEMA = CsvSchema.builder().addColumn("id").addColumn("name")
+			.addColumn("description").addColumn("price").setUseHeader(true).build();
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final FoodRepository foodRepository;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+
+	public FoodBulkTransfer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			FoodRepository foodRepository, Validator validator, ObjectMapper objectMapper,
+			@Value("${foodapp.imports.batch-size}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.foodRepository = foodRepository;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * What an import changed, for the caller to refresh caches and indexes.
+	 */
+	public record ImportResult(FoodImportReport report, Set<Integer> insertedIds, Set<Integer> updatedIds) {
+	}
+
+	/**
+	 * Creates or updates the uploaded foods and, if {@code restaurantId} is given,
+	 * adds the ones the restaurant does not serve yet to its menu.
+	 */
+	public ImportResult importFoods(InputStream in, BulkFormat format, Integer restaurantId) throws IOException {
+		Import run = new Import(restaurantId);
+		List<NumberedRow> chunk = new ArrayList<>(batchSize);
+		try (MappingIterator<FoodImportRow> rows = reader(format).readValues(in)) {
+			int row = 0;
+			while (true) {
+				try {
+					if (!rows.hasNextValue())
+						break;
+				} catch (JsonProcessingException e) {
+					run.reject(row + 1, "Malformed input, import stopped here: " + e.getOriginalMessage());
+					break;
+				}
+				row++;
+				try {
+					FoodImportRow food = rows.nextValue();
+					String problem = validate(food);
+					if (problem != null)
+						run.reject(row, problem);
+					else
+						chunk.add(new NumberedRow(row, food));
+				} catch (JsonParseException e) {
+					run.reject(row, "Malformed input, import stopped here: " + e.getOriginalMessage());
+					break;
+				} catch (JsonProcessingException e) {
+					run.reject(row, e.getOriginalMessage());
+				}
+				if (chunk.size() == batchSize) {
+					write(chunk, run);
+					chunk.clear();
+				}
+			}
+		}
+		write(chunk, run);
+		return run.result();
+	}
+
+	/**
+	 * Writes all foods, or the menu of one restaurant, ordered by ID, from a
+	 * forward-only result stream.
+	 */
+	@Transactional(readOnly = true)
+	public void exportFoods(BulkFormat format, Integer restaurantId, OutputStream out) throws IOException {
+		try (Stream<MenuItemResponse> foods = restaurantId == null ? foodRepository.streamAll()
+				: foodRepository.streamByRestaurantId(restaurantId);
+				SequenceWriter writer = format == BulkFormat.CSV
+						? CSV_MAPPER.writerFor(MenuItemResponse.class).with(CSV_SCHEMA).writeValues(out)
+						: objectMapper.writerFor(MenuItemResponse.class).withRootValueSeparator("\n")
+								.writeValues(out)) {
+			for (MenuItemResponse food : (Iterable<MenuItemResponse>) foods::iterator)
+				writer.write(food);
+			if (format == BulkFormat.NDJSON)
+				out.write('\n');
+		}
+	}
+
+	private ObjectReader reader(BulkFormat format) {
+		return format == BulkFormat.CSV
+				? CSV_MAPPER.readerFor(FoodImportRow.class).with(CsvSchema.emptySchema().withHeader())
+				: objectMapper.readerFor(FoodImportRow.class);
+	}
+
+	private String validate(FoodImportRow food) {
+		Set<ConstraintViolation<FoodImportRow>> violations = validator.validate(food);
+		if (violations.isEmpty())
+			return null;
+		return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+	}
+
+	/**
+	 * Applies a chunk in one transaction. If that fails, the rows are retried one
+	 * by one so only the offending ones are rejected.
+	 */
+	private void write(List<NumberedRow> chunk, Import run) {
+		if (chunk.isEmpty())
+			return;
+		try {
+			run.apply(transactionTemplate.execute(status -> apply(chunk, run)));
+		} catch (DataAccessException e) {
+			if (chunk.size() == 1) {
+				run.reject(chunk.get(0).row(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+				return;
+			}
+			for (NumberedRow row : chunk)
+				write(List.of(row), run);
+		}
+	}
+
+	private ChunkResult apply(List<NumberedRow> chunk, Import run) {
+		List<NumberedRow> inserts = chunk.stream().filter(row -> row.food().getId() == null).toList();
+		List<NumberedRow> updates = chunk.stream().filter(row -> row.food().getId() != null).toList();
+		ChunkResult result = new ChunkResult();
+
+		if (!inserts.isEmpty()) {
+			GeneratedKeyHolder keys = new GeneratedKeyHolder();
+			jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+					setter(inserts, false), keys);
+			for (Map<String, Object> key : keys.getKeyList())
+				result.inserted.add(((Number) key.values().iterator().next()).intValue());
+		}
+
+		if (!updates.isEmpty()) {
+			int[] counts = jdbcTemplate.batchUpdate(UPDATE, setter(updates, true));
+			for (int i = 0; i < counts.length; i++) {
+				Integer id = updates.get(i).food().getId();
+				if (counts[i] == 0)
+					result.missing.add(updates.get(i));
+				else
+					result.updated.add(id);
+			}
+		}
+
+		if (run.restaurantId != null) {
+			List<Integer> links = Stream.concat(result.inserted.stream(), result.updated.stream())
+					.filter(id -> !run.linked.contains(id)).distinct().toList();
+			if (!links.isEmpty()) {
+				jdbcTemplate.batchUpdate(LINK, links, links.size(), (statement, foodId) -> {
+					statement.setInt(1, run.restaurantId);
+					statement.setInt(2, foodId);
+				});
+				result.linked.addAll(links);
+			}
+		}
+		return result;
+	}
+
+	private static BatchPreparedStatementSetter setter(List<NumberedRow> rows, boolean withId) {
+		return new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement statement, int i) throws SQLException {
+				FoodImportRow food = rows.get(i).food();
+				statement.setString(1, food.getName().strip());
+				if (food.getDescription() == null || food.getDescription().isBlank())
+					statement.setNull(2, Types.VARCHAR);
+				else
+					statement.setString(2, food.getDescription().strip());
+				statement.setFloat(3, food.getPrice());
+				if (withId)
+					statement.setInt(4, food.getId());
+			}
+
+			@Override
+			public int getBatchSize() {
+				return rows.size();
+			}
+		};
+	}
+
+	private record NumberedRow(int row, FoodImportRow food) {
+	}
+
+	private static final class ChunkResult {
+		private final List<Integer> inserted = new ArrayList<>();
+		private final List<Integer> updated = new ArrayList<>();
+		private final List<Integer> linked = new ArrayList<>();
+		private final List<NumberedRow> missing = new ArrayList<>();
+	}
+
+	private final class Import {
+		private final Integer restaurantId;
+		/** Foods already on the restaurant's menu. */
+		private final Set<Integer> linked;
+		private final Set<Integer> inserted = new LinkedHashSet<>();
+		private final Set<Integer> updated = new LinkedHashSet<>();
+		private final List<FoodImportReport.RowError> errors = new ArrayList<>();
+		private int rows;
+		private int insertedRows;
+		private int updatedRows;
+		private int failed;
+		private int newLinks;
+
+		Import(Integer restaurantId) {
+			this.restaurantId = restaurantId;
+			this.linked = new HashSet<>();
+			if (restaurantId != null)
+				linked.addAll(jdbcTemplate.queryForList("select food_id from restaurant_food where resto_id = ?",
+						Integer.class, restaurantId));
+		}
+
+		void apply(ChunkResult chunk) {
+			rows += chunk.inserted.size() + chunk.updated.size();
+			insertedRows += chunk.inserted.size();
+			updatedRows += chunk.updated.size();
+			inserted.addAll(chunk.inserted);
+			updated.addAll(chunk.updated);
+			linked.addAll(chunk.linked);
+			newLinks += chunk.linked.size();
+			for (NumberedRow row : chunk.missing)
+				reject(row.row(), "No food found with ID :" + row.food().getId());
+		}
+
+		void reject(int row, String message) {
+			rows++;
+			failed++;
+			if (errors.size() < MAX_REPORTED_ERRORS)
+				errors.add(new FoodImportReport.RowError(row, message));
+		}
+
+		ImportResult result() {
+			FoodImportReport report = new FoodImportReport(rows, insertedRows, updatedRows, newLinks, failed, errors);
+			return new ImportResult(report, inserted, updated);
+		}
+	}
+}
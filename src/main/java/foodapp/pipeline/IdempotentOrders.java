@@ -0,0 +1,91 @@
+package foodapp.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import foodapp.dto.PaymentDto;
+import foodapp.exception.IdempotencyConflictException;
+
+/**
+ * Remembers order placements by client supplied idempotency key, so a retried
+ * request gets the original answer instead of a second order. The first request
+ * for a key claims it with a single putIfAbsent and stores the in-flight
+ * placement; duplicates, concurrent or later, wait on that same placement
+ * rather than running their own. The key is only released when the placement
+ * failed before anything was handed to the order writer (payment, validation,
+ * full queue); once an order is submitted its outcome stays attached to the key,
+ * including a commit that takes longer than the client was willing to wait.
+ * <p>
+ * Placements hold futures of this node, so the Caffeine map behind the cache is
+ * used directly: a released key is not broadcast to the other nodes, and only
+ * the attempt that failed is removed.
+ */
+@Component
+public class IdempotentOrders {
+
+	static final String CACHE_NAME = "idempotency";
+
+	private final ConcurrentMap<IdempotencyKey, Attempt> attempts;
+
+	@SuppressWarnings("unchecked")
+	public IdempotentOrders(CacheManager cacheManager) {
+		this.attempts = ((Cache<IdempotencyKey, Attempt>) cacheManager.getCache(CACHE_NAME).getNativeCache()).asMap();
+	}
+
+	/**
+	 * Places the order once per key and authenticated user; repeats get the first
+	 * placement, whether it has completed yet or not.
+	 *
+	 * @param username   the authenticated caller, so keys of different users never
+	 *                   meet
+	 * @param placeOrder submits the order and returns its pending result; throws if
+	 *                   nothing was submitted
+	 * @throws IdempotencyConflictException if the key was already used for a
+	 *                                      different payment
+	 */
+	public CompletableFuture<String> placeOnce(String key, String username, PaymentDto payment,
+			Supplier<CompletableFuture<String>> placeOrder) {
+		IdempotencyKey idempotencyKey = new IdempotencyKey(username, key);
+		Attempt attempt = new Attempt(payment, new CompletableFuture<>());
+		Attempt existing = attempts.putIfAbsent(idempotencyKey, attempt);
+		if (existing != null) {
+			return replay(key, existing, payment);
+		}
+
+		CompletableFuture<String> placement;
+		try {
+			placement = placeOrder.get();
+		} catch (RuntimeException e) {
+			attempts.remove(idempotencyKey, attempt);
+			attempt.result().completeExceptionally(e);
+			throw e;
+		}
+		placement.whenComplete((result, failure) -> {
+			if (failure != null)
+				attempt.result().completeExceptionally(failure);
+			else
+				attempt.result().complete(result);
+		});
+		return attempt.result();
+	}
+
+	private CompletableFuture<String> replay(String key, Attempt previous, PaymentDto payment) {
+		if (!previous.payment().equals(payment)) {
+			throw new IdempotencyConflictException(
+					"Idempotency-Key " + key + " was already used for a different order");
+		}
+		return previous.result();
+	}
+
+	private record IdempotencyKey(String username, String key) {
+	}
+
+	private record Attempt(PaymentDto payment, CompletableFuture<String> result) {
+	}
+}
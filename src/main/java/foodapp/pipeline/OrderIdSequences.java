@@ -0,0 +1,56 @@
+package foodapp.pipeline;
+
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the order id sequences past the ids already in use. Orders and items
+ * used to get IDENTITY ids; the pooled sequences that replaced them start at 1,
+ * so on a database that already has orders every insert would collide with an
+ * existing key. On MySQL the sequences are Hibernate's one-row
+ * {@code orders_seq} and {@code order_item_seq} tables; their
+ * {@code next_val} is raised to at least {@code max(id)} plus two allocation
+ * blocks, and never lowered. Runs before the {@link OrderWriter} starts, on
+ * every startup, and does nothing once the sequences are ahead. Databases with
+ * native sequences are left alone.
+ */
+@Slf4j
+@Component
+public class OrderIdSequences {
+
+	/** Twice the allocationSize of the @SequenceGenerator on Order and OrderItem. */
+	private static final long HEADROOM = 2 * 50;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Takes the EntityManagerFactory so the schema update has created the
+	 * sequence tables first.
+	 */
+	public OrderIdSequences(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@PostConstruct
+	public void seed() {
+		seed("orders", "orders_seq");
+		seed("order_item", "order_item_seq");
+	}
+
+	private void seed(String table, String sequenceTable) {
+		long floor = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class) + HEADROOM;
+		try {
+			int raised = jdbcTemplate.update("update " + sequenceTable + " set next_val = ? where next_val < ?", floor,
+					floor);
+			if (raised > 0)
+				log.info("Raised {} to {} past the existing {} ids", sequenceTable, floor, table);
+		} catch (BadSqlGrammarException e) {
+			// native sequence, not an emulation table
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package foodapp.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import foodapp.entity.Order;
+import foodapp.exception.OrderNotAcceptedException;
+import foodapp.repository.OrderRepository;
+import foodapp.repository.RestaurantRepository;
+import foodapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single writer that persists placed orders in group commits. Callers hand an
+ * order over through a bounded queue; the writer drains whatever has queued up
+ * (up to one JDBC batch), inserts it in one transaction and completes each
+ * caller's future once the transaction has committed. IDs come from a pooled
+ * sequence, so Hibernate can batch the order and item inserts; see
+ * {@link OrderIdSequences} for databases that still have IDENTITY-era ids.
+ */
+@Slf4j
+@Component
+@DependsOn("orderIdSequences")
+public class OrderWriter implements SmartLifecycle {
+
+	private final OrderRepository orderRepository;
+	private final RestaurantRepository restaurantRepository;
+	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final BlockingQueue<PendingOrder> queue;
+	private final int batchSize;
+
+	private volatile boolean running;
+	private Thread worker;
+
+	public OrderWriter(OrderRepository orderRepository, RestaurantRepository restaurantRepository,
+			UserRepository userRepository, PlatformTransactionManager transactionManager,
+			@Value("${foodapp.orders.queue-capacity}") int queueCapacity,
+			@Value("${foodapp.orders.batch-size}") int batchSize) {
+		this.orderRepository = orderRepository;
+		this.restaurantRepository = restaurantRepository;
+		this.userRepository = userRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Queues an order for the next group commit. Restaurant and user are attached
+	 * by reference inside the writing transaction.
+	 *
+	 * @return completes with the saved order once it is committed
+	 * @throws OrderNotAcceptedException if the queue is full or the writer is
+	 *                                   stopped
+	 */
+	public CompletableFuture<Order> submit(Order order, Integer restaurantId, Integer userId) {
+		PendingOrder pending = new PendingOrder(order, restaurantId, userId, new CompletableFuture<>());
+		if (!running || !queue.offer(pending))
+			throw new OrderNotAcceptedException("Too many orders are being placed right now, please retry shortly");
+		return pending.committed();
+	}
+
+	/**
+	 * @return the number of orders waiting for the next group commit
+	 */
+	public int queued() {
+		return queue.size();
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		worker = Thread.ofPlatform().name("order-writer").daemon(false).start(this::drain);
+	}
+
+	/**
+	 * Stops accepting orders and waits for the queued ones to be written.
+	 */
+	@Override
+	public void stop() {
+		running = false;
+		try {
+			worker.join(Duration.ofSeconds(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Below the web server's phases, so the writer starts before requests come
+	 * in and stops only once the server has drained them and shut down. At the
+	 * default phase it would stop first and reject orders still in flight.
+	 */
+	@Override
+	public int getPhase() {
+		return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+	}
+
+	private void drain() {
+		List<PendingOrder> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null)
+					continue;
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Order writer failed", e);
+				batch.forEach(pending -> pending.committed().completeExceptionally(e));
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Writes the batch in one transaction. If that fails, each order is retried
+	 * on its own so one bad order does not reject the others in its batch.
+	 */
+	private void write(List<PendingOrder> batch) {
+		try {
+			insert(batch);
+			batch.forEach(pending -> pending.committed().complete(pending.order()));
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				batch.get(0).committed().completeExceptionally(e);
+				return;
+			}
+			log.warn("Group commit of {} orders failed, retrying one by one", batch.size(), e);
+			for (PendingOrder pending : batch) {
+				try {
+					insert(List.of(pending));
+					pending.committed().complete(pending.order());
+				} catch (RuntimeException single) {
+					pending.committed().completeExceptionally(single);
+				}
+			}
+		}
+	}
+
+	private void insert(List<PendingOrder> batch) {
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Order> orders = new ArrayList<>(batch.size());
+			for (PendingOrder pending : batch) {
+				Order order = pending.order();
+				order.setId(null);
+				order.getOrderItems().forEach(item -> item.setId(null));
+				order.setRestaurant(restaurantRepository.getReferenceById(pending.restaurantId()));
+				order.setUser(userRepository.getReferenceById(pending.userId()));
+				orders.add(order);
+			}
+			orderRepository.saveAll(orders);
+		});
+	}
+
+	private record PendingOrder(Order order, Integer restaurantId, Integer userId,
+			CompletableFuture<Order> committed) {
+	}
+}
@@ -1,9 +1,61 @@
 package foodapp.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import foodapp.dto.MenuItemResponse;
 import foodapp.entity.Food;
 
-public interface FoodRepository extends JpaRepository<Food, Integer> {
+public interface FoodRepository extends JpaRepository<Food, Integer>, FoodStreams {
+
+	String MENU_FILTER = "from Food f join f.restaurants r where r.id = :restaurantId "
+			+ "and (:minPrice is null or f.price >= :minPrice) "
+			+ "and (:maxPrice is null or f.price <= :maxPrice) "
+			+ "and (:name is null or lower(f.name) like :name escape '!') ";
+
+	/**
+	 * One page of a restaurant's menu, filtered and sorted in the database.
+	 *
+	 * @param name lower-case LIKE pattern escaped with {@code !}, or null for any name
+	 */
+	@Query(value = "select new foodapp.dto.MenuItemResponse(f.id, f.name, f.description, f.price) " + MENU_FILTER,
+			countQuery = "select count(f) " + MENU_FILTER)
+	Page<MenuItemResponse> findMenu(@Param("restaurantId") Integer restaurantId, @Param("name") String name,
+			@Param("minPrice") Float minPrice, @Param("maxPrice") Float maxPrice, Pageable pageable);
+
+	@Query("select f.id from Food f where f.id in :ids")
+	List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	@Query(nativeQuery = true, value = "select distinct resto_id from restaurant_food where food_id = :foodId")
+	List<Integer> findRestaurantIdsByFoodId(@Param("foodId") Integer foodId);
+
+	@Modifying
+	@Query(nativeQuery = true, value = "delete from restaurant_food where food_id = :foodId")
+	int unlinkFromRestaurants(@Param("foodId") Integer foodId);
+
+	/**
+	 * Native on purpose: a JPQL delete of Food would clear restaurant_food
+	 * again through a subquery before deleting the row.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "delete from food where id = :id")
+	int removeById(@Param("id") Integer id);
 
+	/**
+	 * Deletes a food and its menu links with one statement each, without loading
+	 * the restaurants serving it.
+	 */
+	@Transactional
+	default void deleteWithLinks(Integer foodId) {
+		unlinkFromRestaurants(foodId);
+		removeById(foodId);
+	}
 }
@@ -0,0 +1,16 @@
+package foodapp.repository;
+
+import java.util.stream.Stream;
+
+import foodapp.dto.MenuItemResponse;
+
+/**
+ * Forward-only streams for food exports; see {@link FoodStreamsImpl} for how
+ * rows are fetched. Close the stream, inside the transaction that opened it.
+ */
+public interface FoodStreams {
+
+	Stream<MenuItemResponse> streamAll();
+
+	Stream<MenuItemResponse> streamByRestaurantId(Integer restaurantId);
+}
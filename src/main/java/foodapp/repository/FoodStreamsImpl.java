@@ -0,0 +1,47 @@
+package foodapp.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import foodapp.dto.MenuItemResponse;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs the export queries with {@code foodapp.exports.fetch-size}, which a
+ * query method annotation cannot take from configuration. On MySQL that is
+ * Integer.MIN_VALUE, so the driver streams these rows one by one while every
+ * other query keeps reading its result in full.
+ */
+class FoodStreamsImpl implements FoodStreams {
+
+	private static final String ALL = "select new foodapp.dto.MenuItemResponse(f.id, f.name, f.description, f.price) "
+			+ "from Food f order by f.id";
+
+	private static final String BY_RESTAURANT = "select new foodapp.dto.MenuItemResponse(f.id, f.name, f.description, "
+			+ "f.price) from Food f join f.restaurants r where r.id = :restaurantId order by f.id";
+
+	private final EntityManager entityManager;
+	private final int fetchSize;
+
+	FoodStreamsImpl(EntityManager entityManager, @Value("${foodapp.exports.fetch-size}") int fetchSize) {
+		this.entityManager = entityManager;
+		this.fetchSize = fetchSize;
+	}
+
+	@Override
+	public Stream<MenuItemResponse> streamAll() {
+		return entityManager.createQuery(ALL, MenuItemResponse.class)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.getResultStream();
+	}
+
+	@Override
+	public Stream<MenuItemResponse> streamByRestaurantId(Integer restaurantId) {
+		return entityManager.createQuery(BY_RESTAURANT, MenuItemResponse.class)
+				.setParameter("restaurantId", restaurantId)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.getResultStream();
+	}
+}
@@ -1,9 +1,73 @@
 package foodapp.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import foodapp.dto.OrderLineResponse;
+import foodapp.dto.OrderStatusResponse;
+import foodapp.dto.OrderSummaryResponse;
 import foodapp.entity.Order;
+import foodapp.entity.OrderStatus;
+
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderStreams {
+
+	String SUMMARY = "select new foodapp.dto.OrderSummaryResponse(o.id, o.status, o.totalPrice, o.restaurant.id, o.user.id, o.createdAt) from Order o ";
+
+	String FILTER = "where (:status is null or o.status = :status) "
+			+ "and (:restaurantId is null or o.restaurant.id = :restaurantId) "
+			+ "and (:userId is null or o.user.id = :userId) "
+			+ "and (:from is null or o.createdAt >= :from) "
+			+ "and (:to is null or o.createdAt < :to) ";
+
+	@EntityGraph(attributePaths = { "orderItems", "orderItems.food" })
+	Optional<Order> findWithItemsById(Integer id);
+
+	@Query("select new foodapp.dto.OrderStatusResponse(o.id, o.status, o.version, o.restaurant.id, o.user.id) "
+			+ "from Order o where o.id = :id")
+	Optional<OrderStatusResponse> findStatusById(@Param("id") Integer id);
+
+	/**
+	 * Compare-and-set of the status: only applies if nobody changed the order
+	 * since {@code version} was read.
+	 *
+	 * @return 1 if the status was changed, 0 if the order moved on in between
+	 */
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("update Order o set o.status = :next, o.version = o.version + 1 "
+			+ "where o.id = :id and o.status = :current and o.version = :version")
+	int updateStatus(@Param("id") Integer id, @Param("current") OrderStatus current,
+			@Param("version") long version, @Param("next") OrderStatus next);
+
+	@EntityGraph(attributePaths = { "orderItems", "orderItems.food" })
+	@Query("select o from Order o where o.restaurant.id = :restaurantId order by o.id desc")
+	List<Order> findWithItemsByRestaurantId(@Param("restaurantId") Integer restaurantId);
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+	/**
+	 * Lines carry the price charged; items that predate it fall back to the
+	 * current food price.
+	 */
+	@Query("select new foodapp.dto.OrderLineResponse(o.id, o.status, o.totalPrice, f.name, i.quantity, "
+			+ "coalesce(i.unitPrice, f.price)) "
+			+ "from Order o join o.orderItems i join i.food f where o.restaurant.id = :restaurantId "
+			+ "order by o.id desc, i.id")
+	List<OrderLineResponse> findLinesByRestaurantId(@Param("restaurantId") Integer restaurantId);
 
+	/**
+	 * Keyset page: orders with an id below {@code cursor}, newest first.
+	 */
+	@Query(SUMMARY + FILTER + "and (:cursor is null or o.id < :cursor) order by o.id desc")
+	List<OrderSummaryResponse> findPage(@Param("status") OrderStatus status,
+			@Param("restaurantId") Integer restaurantId, @Param("userId") Integer userId,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("cursor") Integer cursor,
+			Limit limit);
 }
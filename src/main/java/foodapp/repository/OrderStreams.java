@@ -0,0 +1,20 @@
+package foodapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import foodapp.dto.OrderSummaryResponse;
+import foodapp.entity.OrderStatus;
+
+/**
+ * Forward-only stream for order exports.
+ */
+public interface OrderStreams {
+
+	/**
+	 * @return all orders matching the filter, oldest first; null filter values
+	 *         match any order
+	 */
+	Stream<OrderSummaryResponse> streamAll(OrderStatus status, Integer restaurantId, Integer userId,
+			LocalDateTime from, LocalDateTime to);
+}
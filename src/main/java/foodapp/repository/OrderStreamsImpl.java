@@ -0,0 +1,40 @@
+package foodapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import foodapp.dto.OrderSummaryResponse;
+import foodapp.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs the export query with {@code foodapp.exports.fetch-size}; see
+ * {@link FoodStreamsImpl}.
+ */
+class OrderStreamsImpl implements OrderStreams {
+
+	private final EntityManager entityManager;
+	private final int fetchSize;
+
+	OrderStreamsImpl(EntityManager entityManager, @Value("${foodapp.exports.fetch-size}") int fetchSize) {
+		this.entityManager = entityManager;
+		this.fetchSize = fetchSize;
+	}
+
+	@Override
+	public Stream<OrderSummaryResponse> streamAll(OrderStatus status, Integer restaurantId, Integer userId,
+			LocalDateTime from, LocalDateTime to) {
+		return entityManager
+				.createQuery(OrderRepository.SUMMARY + OrderRepository.FILTER + "order by o.id", OrderSummaryResponse.class)
+				.setParameter("status", status)
+				.setParameter("restaurantId", restaurantId)
+				.setParameter("userId", userId)
+				.setParameter("from", from)
+				.setParameter("to", to)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.getResultStream();
+	}
+}
@@ -1,20 +1,68 @@
 package foodapp.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import foodapp.entity.Food;
-import foodapp.entity.Order;
 import foodapp.entity.Restaurant;
+import foodapp.index.RestaurantLocation;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Integer> {
 
 	@Query("select r.foods from Restaurant r where r.id=:restaurantId")
 	List<Food> findFoodsByRestaurantId(@Param(value = "restaurantId") Integer restaurantId);
 
-	@Query("select r.orders from Restaurant r where r.id=:restaurantId")
-	List<Order> findOrdersByRestaurantID(@Param(value = "restaurantId") Integer restaurantId);
+	@Query("select f.id from Restaurant r join r.foods f where r.id = :restaurantId")
+	Set<Integer> findFoodIdsByRestaurantId(@Param("restaurantId") Integer restaurantId);
+
+	/**
+	 * Links the foods that exist and are not on the menu yet, in one statement.
+	 *
+	 * @return the number of links added
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into restaurant_food (resto_id, food_id) "
+			+ "select :restaurantId, f.id from food f where f.id in (:foodIds) and not exists "
+			+ "(select 1 from restaurant_food rf where rf.resto_id = :restaurantId and rf.food_id = f.id)")
+	int addFoods(@Param("restaurantId") Integer restaurantId, @Param("foodIds") Collection<Integer> foodIds);
+
+	@Modifying
+	@Query(nativeQuery = true, value = "delete from restaurant_food where resto_id = :restaurantId and food_id in (:foodIds)")
+	int removeFoods(@Param("restaurantId") Integer restaurantId, @Param("foodIds") Collection<Integer> foodIds);
+
+	/**
+	 * Applies a menu delta to the join table, removals first, in one
+	 * transaction. Rows of foods that stay on the menu are not touched.
+	 *
+	 * @return the number of links removed and added
+	 */
+	@Transactional
+	default int[] changeMenu(Integer restaurantId, Collection<Integer> add, Collection<Integer> remove) {
+		int removed = remove.isEmpty() ? 0 : removeFoods(restaurantId, remove);
+		int added = add.isEmpty() ? 0 : addFoods(restaurantId, add);
+		return new int[] { removed, added };
+	}
+
+	@EntityGraph(attributePaths = "foods")
+	@Query("select r from Restaurant r")
+	List<Restaurant> findAllWithFoods();
+
+	@EntityGraph(attributePaths = "foods")
+	@Query("select r from Restaurant r where r.id in :ids")
+	List<Restaurant> findAllWithFoodsByIdIn(@Param("ids") Collection<Integer> ids);
+
+	@Query("select new foodapp.index.RestaurantLocation(r.id, r.name, r.address, r.latitude, r.longitude) from Restaurant r where r.latitude is not null and r.longitude is not null")
+	List<RestaurantLocation> findAllLocations();
+
+	@Query("select new foodapp.index.RestaurantLocation(r.id, r.name, r.address, r.latitude, r.longitude) from Restaurant r where r.id = :id and r.latitude is not null and r.longitude is not null")
+	Optional<RestaurantLocation> findLocationById(@Param("id") Integer id);
 }
@@ -0,0 +1,20 @@
+package foodapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import foodapp.entity.RollupGranularity;
+import foodapp.entity.SalesRollup;
+import foodapp.entity.SalesRollupId;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+
+	@Query("select s from SalesRollup s where s.id.granularity = :all or s.id.bucketStart >= :since")
+	List<SalesRollup> findAllTimeOrSince(@Param("all") RollupGranularity all, @Param("since") LocalDateTime since);
+
+	List<SalesRollup> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
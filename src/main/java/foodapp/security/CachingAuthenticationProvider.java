@@ -0,0 +1,43 @@
+package foodapp.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves repeat logins from the {@link CredentialCache} and only falls back to
+ * the wrapped provider (user lookup plus BCrypt) on a miss.
+ */
+@RequiredArgsConstructor
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+	private final AuthenticationProvider delegate;
+	private final CredentialCache credentialCache;
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		String username = authentication.getName();
+		Object credentials = authentication.getCredentials();
+		if (credentials == null) {
+			return delegate.authenticate(authentication);
+		}
+
+		String password = credentials.toString();
+		Authentication cached = credentialCache.get(username, password);
+		if (cached != null) {
+			return cached;
+		}
+		Authentication result = delegate.authenticate(authentication);
+		if (result != null && result.isAuthenticated()) {
+			credentialCache.put(username, password, result);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean supports(Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+}
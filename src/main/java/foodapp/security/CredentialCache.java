@@ -0,0 +1,79 @@
+package foodapp.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import foodapp.entity.User;
+
+/**
+ * Short-lived cache of successful logins, so repeat HTTP Basic requests skip
+ * the user lookup and the BCrypt check. Only an HMAC of the presented password
+ * is kept, under a key that is generated per process and never leaves memory.
+ * <p>
+ * Each entry also keeps the credentials stamp of the user it was verified
+ * against. A login verified just before a password change can be put after the
+ * change evicted the user; the {@link TokenRevocationList} then knows a newer
+ * stamp and the entry is not served.
+ */
+@Component
+public class CredentialCache {
+
+	static final String CACHE_NAME = "auth_cache";
+
+	private final Cache cache;
+	private final TokenRevocationList revocationList;
+	private final SecretKeySpec hmacKey;
+
+	public CredentialCache(CacheManager cacheManager, TokenRevocationList revocationList) {
+		this.cache = cacheManager.getCache(CACHE_NAME);
+		this.revocationList = revocationList;
+		byte[] key = new byte[32];
+		new SecureRandom().nextBytes(key);
+		this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+	}
+
+	/**
+	 * @return the cached authentication if the same password was verified for
+	 *         this user recently, otherwise null
+	 */
+	public Authentication get(String username, String password) {
+		CachedCredential cached = cache.get(username, CachedCredential.class);
+		if (cached == null || !MessageDigest.isEqual(cached.digest(), digest(password))
+				|| revocationList.isStale(username, cached.credentialsStamp())) {
+			return null;
+		}
+		return cached.authentication();
+	}
+
+	public void put(String username, String password, Authentication authentication) {
+		long credentialsStamp = authentication.getPrincipal() instanceof User user ? user.credentialsStamp() : 0;
+		cache.put(username, new CachedCredential(digest(password), credentialsStamp, authentication));
+	}
+
+	public void evict(String username) {
+		cache.evict(username);
+	}
+
+	private byte[] digest(String password) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(hmacKey);
+			return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HmacSHA256 not available", e);
+		}
+	}
+
+	private record CachedCredential(byte[] digest, long credentialsStamp, Authentication authentication) {
+	}
+}
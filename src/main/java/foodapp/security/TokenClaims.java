@@ -0,0 +1,11 @@
+package foodapp.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified contents of a signed token.
+ */
+public record TokenClaims(TokenType type, String username, List<String> roles, Instant expiresAt, String id,
+		long credentialsStamp) {
+}
@@ -0,0 +1,91 @@
+package foodapp.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import foodapp.cache.CacheInvalidationBus;
+
+/**
+ * IDs of tokens revoked before their expiry. An entry is only needed until the
+ * token would have expired anyway, so the list stays small. Revocations are
+ * broadcast with the expiry, so a logged out or rotated token is refused by
+ * every node.
+ * <p>
+ * Also holds the current credentials stamp of users whose password or username
+ * changed, or who were deleted, within the last access token lifetime. Tokens
+ * carrying another stamp are stale. Changes are broadcast to the other nodes;
+ * refresh tokens are additionally checked against the database.
+ */
+@Component
+public class TokenRevocationList {
+
+	static final String REVOKED_CHANNEL = "token_revoked";
+	static final String CREDENTIALS_CHANNEL = "token_credentials";
+
+	/** Stamp recorded for a deleted or renamed user; no token carries it. */
+	private static final long REMOVED = -1;
+
+	private final ConcurrentMap<String, Instant> revoked = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, CurrentStamp> stamps = new ConcurrentHashMap<>();
+	private final CacheInvalidationBus invalidationBus;
+	private final Duration accessTokenTtl;
+
+	public TokenRevocationList(CacheInvalidationBus invalidationBus,
+			@Value("${foodapp.auth.access-token-ttl}") Duration accessTokenTtl) {
+		this.invalidationBus = invalidationBus;
+		this.accessTokenTtl = accessTokenTtl;
+		invalidationBus.register(REVOKED_CHANNEL,
+				(key, version) -> revoked.put((String) key, Instant.ofEpochMilli(version)));
+		invalidationBus.register(CREDENTIALS_CHANNEL, (key, version) -> record((String) key, version));
+	}
+
+	public void revoke(TokenClaims claims) {
+		revoked.put(claims.id(), claims.expiresAt());
+		invalidationBus.publish(REVOKED_CHANNEL, claims.id(), claims.expiresAt().toEpochMilli());
+	}
+
+	public boolean isRevoked(String tokenId) {
+		return revoked.containsKey(tokenId);
+	}
+
+	/**
+	 * Makes every token of the user that does not carry {@code stamp} stale.
+	 */
+	public void credentialsChanged(String username, long stamp) {
+		record(username, stamp);
+		invalidationBus.publish(CREDENTIALS_CHANNEL, username, stamp);
+	}
+
+	/**
+	 * Makes every token issued so far for the username stale, after the user was
+	 * deleted or renamed.
+	 */
+	public void userRemoved(String username) {
+		credentialsChanged(username, REMOVED);
+	}
+
+	public boolean isStale(String username, long stamp) {
+		CurrentStamp current = stamps.get(username);
+		return current != null && current.stamp() != stamp;
+	}
+
+	@Scheduled(fixedRate = 5 * 60 * 1000)
+	public void purgeExpired() {
+		Instant now = Instant.now();
+		revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+		stamps.values().removeIf(current -> current.keepUntil().isBefore(now));
+	}
+
+	private void record(String username, long stamp) {
+		stamps.put(username, new CurrentStamp(stamp, Instant.now().plus(accessTokenTtl)));
+	}
+
+	private record CurrentStamp(long stamp, Instant keepUntil) {
+	}
+}
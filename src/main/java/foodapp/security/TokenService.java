@@ -0,0 +1,131 @@
+package foodapp.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import foodapp.exception.InvalidTokenException;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed tokens. A token is
+ * {@code base64url(payload) + "." + base64url(signature)} where the payload is
+ * {@code type|expiry|id|roles|credentialsStamp|username}. Verification is a
+ * local signature check and never touches the database; tokens issued before
+ * the user's password or username changed are rejected through the
+ * {@link TokenRevocationList}.
+ */
+@Component
+public class TokenService {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKeySpec key;
+	private final Duration accessTokenTtl;
+	private final Duration refreshTokenTtl;
+	private final TokenRevocationList revocationList;
+
+	public TokenService(@Value("${foodapp.auth.token-secret}") String secret,
+			@Value("${foodapp.auth.access-token-ttl}") Duration accessTokenTtl,
+			@Value("${foodapp.auth.refresh-token-ttl}") Duration refreshTokenTtl, TokenRevocationList revocationList) {
+		this.key = signingKey(secret);
+		this.accessTokenTtl = accessTokenTtl;
+		this.refreshTokenTtl = refreshTokenTtl;
+		this.revocationList = revocationList;
+	}
+
+	/**
+	 * There is deliberately no fallback key: a node started without a secret
+	 * would accept tokens anyone can sign.
+	 */
+	private static SecretKeySpec signingKey(String secret) {
+		if (secret == null || secret.isBlank()) {
+			throw new IllegalStateException(
+					"foodapp.auth.token-secret is not set; set FOODAPP_TOKEN_SECRET to a base64 key of at least 32 bytes");
+		}
+		byte[] secretBytes;
+		try {
+			secretBytes = Base64.getDecoder().decode(secret.trim());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalStateException("foodapp.auth.token-secret is not valid base64", e);
+		}
+		if (secretBytes.length < 32) {
+			throw new IllegalStateException("foodapp.auth.token-secret must be at least 32 bytes");
+		}
+		return new SecretKeySpec(secretBytes, "HmacSHA256");
+	}
+
+	public String issue(TokenType type, String username, Collection<String> roles, long credentialsStamp) {
+		Instant expiresAt = Instant.now().plus(type == TokenType.ACCESS ? accessTokenTtl : refreshTokenTtl);
+		String payload = String.join("|", type.name(), Long.toString(expiresAt.getEpochSecond()),
+				UUID.randomUUID().toString(), String.join(",", roles), Long.toString(credentialsStamp), username);
+		String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+		return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+	}
+
+	public TokenClaims verify(String token, TokenType expectedType) {
+		int dot = token.indexOf('.');
+		if (dot < 0) {
+			throw new InvalidTokenException("Malformed token");
+		}
+		String encodedPayload = token.substring(0, dot);
+		byte[] signature;
+		String[] parts;
+		try {
+			signature = DECODER.decode(token.substring(dot + 1));
+			if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+				throw new InvalidTokenException("Invalid token signature");
+			}
+			parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 6);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidTokenException("Malformed token");
+		}
+		if (parts.length != 6) {
+			throw new InvalidTokenException("Malformed token");
+		}
+
+		TokenClaims claims = new TokenClaims(TokenType.valueOf(parts[0]), parts[5],
+				parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(",")),
+				Instant.ofEpochSecond(Long.parseLong(parts[1])), parts[2], Long.parseLong(parts[4]));
+		if (claims.type() != expectedType) {
+			throw new InvalidTokenException("Expected a " + expectedType.name().toLowerCase() + " token");
+		}
+		if (claims.expiresAt().isBefore(Instant.now())) {
+			throw new InvalidTokenException("Token has expired");
+		}
+		if (revocationList.isRevoked(claims.id())) {
+			throw new InvalidTokenException("Token has been revoked");
+		}
+		if (revocationList.isStale(claims.username(), claims.credentialsStamp())) {
+			throw new InvalidTokenException("Token has been invalidated");
+		}
+		return claims;
+	}
+
+	public Duration getAccessTokenTtl() {
+		return accessTokenTtl;
+	}
+
+	private byte[] sign(String encodedPayload) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(key);
+			return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HmacSHA256 not available", e);
+		}
+	}
+}
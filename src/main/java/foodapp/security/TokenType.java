@@ -0,0 +1,5 @@
+package foodapp.security;
+
+public enum TokenType {
+	ACCESS, REFRESH
+}
@@ -0,0 +1,13 @@
+package foodapp.service;
+
+import foodapp.dto.LoginRequest;
+import foodapp.dto.TokenResponse;
+
+public interface AuthService {
+
+	TokenResponse login(LoginRequest request);
+
+	TokenResponse refresh(String refreshToken);
+
+	void logout(String accessToken, String refreshToken);
+}
@@ -1,18 +1,32 @@
 package foodapp.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 
+import foodapp.dto.FoodImportReport;
 import foodapp.entity.Food;
+import foodapp.pipeline.BulkFormat;
 
 public interface FoodService {
 	Food createFood(Food food);
 
 	Food getFoodById(Integer id);
 
+	Map<Integer, Food> getFoodsByIds(Collection<Integer> ids);
+
 	Page<Food> getAllFoods(Integer pageNum, Integer pageSize);
 
 	Food updateFood(Integer id, Food food);
 
 	void deleteFood(Integer id);
 
+	FoodImportReport importFoods(InputStream in, BulkFormat format, Integer restaurantId) throws IOException;
+
+	void exportFoods(BulkFormat format, Integer restaurantId, OutputStream out) throws IOException;
+
 }
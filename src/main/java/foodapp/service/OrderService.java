@@ -1,9 +1,18 @@
 package foodapp.service;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import foodapp.dto.BillResponse;
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.dto.OrderFilter;
+import foodapp.dto.OrderPageResponse;
+import foodapp.dto.OrderPlacement;
 import foodapp.dto.OrderRequest;
+import foodapp.dto.OrderStatusResponse;
 import foodapp.dto.PaymentDto;
 import foodapp.entity.Order;
 import foodapp.entity.OrderStatus;
@@ -11,17 +20,27 @@ import foodapp.entity.OrderStatus;
 public interface OrderService {
 	BillResponse generateBill(OrderRequest orderRequest);
 
-	String payAndPlaceOrder(PaymentDto payment);
+	CompletableFuture<String> payAndPlaceOrder(PaymentDto payment);
+
+	OrderPlacement awaitPlacement(CompletableFuture<String> placement);
 
 	void deleteOrderById(Integer id);
 
-	Order getOrder(Integer id);
+	OrderDetailsResponse getOrder(Integer id);
+
+	OrderPageResponse getOrders(OrderFilter filter, Integer cursor, int size);
 
-	List<Order> getAllOrders();
+	void exportOrders(OrderFilter filter, OutputStream out) throws IOException;
 
-	Order updateOrderStatusByAdmin(Integer id, OrderStatus status);
+	OrderStatusResponse updateOrderStatusByAdmin(Integer id, OrderStatus status);
 
 	String cancelOrder(Integer id);
 
+	SseEmitter streamOrderEvents(Integer id, Long lastEventId);
+
+	SseEmitter streamUserOrderEvents(Integer userId, Long lastEventId);
+
+	SseEmitter streamRestaurantOrderEvents(Integer restaurantId, Long lastEventId);
+
 	Order updateOrder(Integer id, Order updatedOrder);
 }
\ No newline at end of file
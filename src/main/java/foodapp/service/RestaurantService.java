@@ -4,10 +4,21 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.domain.Page;
-
+import org.springframework.data.domain.Sort;
+
+import foodapp.dto.MenuChangeResponse;
+import foodapp.dto.MenuFilter;
+import foodapp.dto.MenuItemResponse;
+import foodapp.dto.MenuPatchRequest;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.dto.OrderLineResponse;
+import foodapp.dto.PopularDishResponse;
+import foodapp.dto.RestaurantSearchResponse;
+import foodapp.dto.RestaurantStatsResponse;
 import foodapp.entity.Food;
 import foodapp.entity.Order;
 import foodapp.entity.Restaurant;
+import foodapp.entity.RollupGranularity;
 
 public interface RestaurantService {
 	Restaurant createRestaurant(Restaurant restaurant);
@@ -18,12 +29,28 @@ public interface RestaurantService {
 
 	Restaurant assignFoodItems(Integer id, Set<Integer> foodId);
 
+	MenuChangeResponse changeMenu(Integer id, MenuPatchRequest request);
+
 	void deleteRestaurant(Integer id);
 
 	Restaurant updateRestaurant(Integer id, Restaurant updatedRest);
 
 	List<Food> findFoodsByRestaurantId(Integer restaurantId);
 
+	Page<MenuItemResponse> findMenu(Integer restaurantId, MenuFilter filter, int pageNum, int pageSize, String sortBy,
+			Sort.Direction direction);
+
 	List<Order> findOrdersByRestaurantID(Integer restaurantId);
 
+	List<OrderLineResponse> findOrderLinesByRestaurantId(Integer restaurantId);
+
+	RestaurantStatsResponse getSalesStats(Integer restaurantId, RollupGranularity granularity, int buckets);
+
+	List<PopularDishResponse> getPopularDishes(Integer restaurantId, Integer days, int limit);
+
+	List<RestaurantSearchResponse> searchRestaurants(String query, int limit);
+
+	List<NearbyRestaurantResponse> findNearbyRestaurants(Double latitude, Double longitude, String username,
+			double radiusKm, int limit);
+
 }
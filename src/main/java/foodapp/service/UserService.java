@@ -7,6 +7,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import foodapp.dto.UserRequest;
 import foodapp.dto.UserResponse;
+import foodapp.storage.StoredImage;
 
 public interface UserService {
 
@@ -22,6 +23,6 @@ public interface UserService {
 
 	String uploadImage(MultipartFile file, Integer id) throws IOException;
 
-	byte[] getImage(Integer id);
+	StoredImage getImage(Integer id);
 
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package foodapp.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import foodapp.dto.LoginRequest;
+import foodapp.dto.TokenResponse;
+import foodapp.entity.User;
+import foodapp.exception.InvalidTokenException;
+import foodapp.repository.UserRepository;
+import foodapp.service.AuthService;
+import foodapp.security.TokenClaims;
+import foodapp.security.TokenRevocationList;
+import foodapp.security.TokenService;
+import foodapp.security.TokenType;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class AuthServiceImpl implements AuthService {
+
+	private final AuthenticationManager authenticationManager;
+	private final UserRepository userRepository;
+	private final TokenService tokenService;
+	private final TokenRevocationList revocationList;
+
+	@Override
+	public TokenResponse login(LoginRequest request) {
+		Authentication authentication = authenticationManager.authenticate(
+				UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+		return issueTokens((User) authentication.getPrincipal());
+	}
+
+	/**
+	 * Rotates the refresh token: the presented one is revoked and a new pair is
+	 * issued. The user is looked up again so deleted users cannot refresh, a
+	 * changed password or username invalidates the token and role changes take
+	 * effect.
+	 */
+	@Override
+	public TokenResponse refresh(String refreshToken) {
+		TokenClaims claims = tokenService.verify(refreshToken, TokenType.REFRESH);
+		User user = userRepository.findByUsername(claims.username())
+				.orElseThrow(() -> new InvalidTokenException("User no longer exists"));
+		if (user.credentialsStamp() != claims.credentialsStamp()) {
+			throw new InvalidTokenException("Token has been invalidated");
+		}
+		revocationList.revoke(claims);
+		return issueTokens(user);
+	}
+
+	@Override
+	public void logout(String accessToken, String refreshToken) {
+		if (accessToken != null) {
+			revocationList.revoke(tokenService.verify(accessToken, TokenType.ACCESS));
+		}
+		if (refreshToken != null) {
+			revocationList.revoke(tokenService.verify(refreshToken, TokenType.REFRESH));
+		}
+	}
+
+	private TokenResponse issueTokens(User user) {
+		List<String> roles = roles(user.getAuthorities());
+		long stamp = user.credentialsStamp();
+		return new TokenResponse(tokenService.issue(TokenType.ACCESS, user.getUsername(), roles, stamp),
+				tokenService.issue(TokenType.REFRESH, user.getUsername(), roles, stamp), "Bearer",
+				tokenService.getAccessTokenTtl().toSeconds());
+	}
+
+	private List<String> roles(Collection<? extends GrantedAuthority> authorities) {
+		return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+	}
+}
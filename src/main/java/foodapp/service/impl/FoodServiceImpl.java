@@ -1,9 +1,20 @@
 package foodapp.service.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -11,11 +22,15 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import foodapp.dto.FoodImportReport;
 import foodapp.entity.Food;
-import foodapp.entity.Restaurant;
+import foodapp.index.MenuIndex;
+import foodapp.index.RestaurantSearchIndex;
+import foodapp.pipeline.BulkFormat;
+import foodapp.pipeline.FoodBulkTransfer;
+import foodapp.pipeline.FoodBulkTransfer.ImportResult;
 import foodapp.repository.FoodRepository;
 import foodapp.repository.RestaurantRepository;
 import foodapp.service.FoodService;
@@ -26,6 +41,10 @@ import lombok.RequiredArgsConstructor;
 public class FoodServiceImpl implements FoodService {
 	private final FoodRepository foodRepository;
 	private final RestaurantRepository restaurantRepository;
+	private final CacheManager cacheManager;
+	private final MenuIndex menuIndex;
+	private final RestaurantSearchIndex searchIndex;
+	private final FoodBulkTransfer bulkTransfer;
 
 	@Override
 	public Food createFood(Food food) {
@@ -41,6 +60,41 @@ public class FoodServiceImpl implements FoodService {
 		throw new NoSuchElementException("No food found with ID :" + id);
 	}
 
+	/**
+	 * Resolves several foods at once. Entries already in food_cache are served
+	 * from there, the rest are loaded with a single IN query and written back to
+	 * the cache. All missing IDs are reported together.
+	 */
+	@Override
+	public Map<Integer, Food> getFoodsByIds(Collection<Integer> ids) {
+		Set<Integer> uniqueIds = new LinkedHashSet<>(ids);
+		Map<Integer, Food> foods = new HashMap<>(uniqueIds.size() * 2);
+		Cache cache = cacheManager.getCache("food_cache");
+
+		List<Integer> misses = new ArrayList<>();
+		for (Integer id : uniqueIds) {
+			Food cached = cache != null ? cache.get(id, Food.class) : null;
+			if (cached != null)
+				foods.put(id, cached);
+			else
+				misses.add(id);
+		}
+
+		if (!misses.isEmpty()) {
+			for (Food food : foodRepository.findAllById(misses)) {
+				foods.put(food.getId(), food);
+				if (cache != null)
+					cache.put(food.getId(), food);
+			}
+		}
+
+		if (foods.size() < uniqueIds.size()) {
+			List<Integer> missing = uniqueIds.stream().filter(id -> !foods.containsKey(id)).toList();
+			throw new NoSuchElementException("No food found with IDs :" + missing);
+		}
+		return foods;
+	}
+
 	@Override
 	@Cacheable(value = "food_page_cache", key = "'PAGE_' + #pageNum + '_' + #pageSize")
 	public Page<Food> getAllFoods(Integer pageNum, Integer pageSize) {
@@ -56,27 +110,60 @@ public class FoodServiceImpl implements FoodService {
 		existingFood.setName(updatedFood.getName());
 		existingFood.setDescription(updatedFood.getDescription());
 		existingFood.setPrice(updatedFood.getPrice());
-		return foodRepository.save(existingFood);
+		Food savedFood = foodRepository.save(existingFood);
+		menuIndex.updateFood(savedFood);
+		searchIndex.foodChanged(id);
+		return savedFood;
 	}
 
 	@Override
 	@Caching(evict = { @CacheEvict(value = "food_cache", key = "#id"),
 			@CacheEvict(value = "food_page_cache", allEntries = true) })
 	public void deleteFood(Integer id) {
-		Food food = getFoodById(id);
-		List<Restaurant> restaurants = food.getRestaurants();
-		if (restaurants.size() == 0) {
-			foodRepository.delete(food);
-			return;
+		getFoodById(id);
+		List<Integer> restaurantIds = foodRepository.findRestaurantIdsByFoodId(id);
+		foodRepository.deleteWithLinks(id);
+
+		Cache restaurantCache = cacheManager.getCache("restaurant_cache");
+		Cache restaurantFoodsCache = cacheManager.getCache("restaurant_foods_cache");
+		restaurantIds.forEach(restaurantId -> {
+			restaurantCache.evict(restaurantId);
+			restaurantFoodsCache.evict(restaurantId);
+		});
+		menuIndex.removeFood(id);
+		searchIndex.foodChanged(id);
+	}
+
+	/**
+	 * Bulk upsert of foods, optionally adding them to a restaurant's menu. The
+	 * rows are written with plain JDBC, so the caches and in-memory indexes over
+	 * the changed foods and menu are refreshed here afterwards.
+	 */
+	@Override
+	public FoodImportReport importFoods(InputStream in, BulkFormat format, Integer restaurantId) throws IOException {
+		if (restaurantId != null && !restaurantRepository.existsById(restaurantId))
+			throw new NoSuchElementException("Restaurant with ID:" + restaurantId + " not found");
+
+		ImportResult result = bulkTransfer.importFoods(in, format, restaurantId);
+
+		Cache foodCache = cacheManager.getCache("food_cache");
+		result.updatedIds().forEach(foodCache::evict);
+		if (!result.insertedIds().isEmpty() || !result.updatedIds().isEmpty())
+			cacheManager.getCache("food_page_cache").clear();
+		menuIndex.dropFoods(result.updatedIds());
+		searchIndex.foodsChanged(result.updatedIds());
+
+		if (restaurantId != null && result.report().getLinked() > 0) {
+			cacheManager.getCache("restaurant_foods_cache").evict(restaurantId);
+			cacheManager.getCache("restaurant_cache").clear(); // the restaurant and the paginated lists
+			menuIndex.evict(restaurantId);
+			searchIndex.restaurantChanged(restaurantId);
 		}
-		restaurants.forEach(restaurant -> restaurant.getFoods().remove(food));
-		restaurantRepository.saveAll(restaurants);
-		foodRepository.delete(food);
+		return result.report();
 	}
 
-	@Scheduled(cron = "0 0 0 * * ?") // At midnight
-	@CacheEvict(value = { "food_cache", "food_page_cache" }, allEntries = true)
-	public void clearFoodCachesDaily() {
-		System.out.println("Daily food cache cleared at midnight.");
+	@Override
+	public void exportFoods(BulkFormat format, Integer restaurantId, OutputStream out) throws IOException {
+		bulkTransfer.exportFoods(format, restaurantId, out);
 	}
 }
@@ -1,90 +1,166 @@
 package foodapp.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import foodapp.dto.BillResponse;
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.dto.OrderFilter;
 import foodapp.dto.OrderItemRequest;
+import foodapp.dto.OrderPageResponse;
+import foodapp.dto.OrderPlacement;
 import foodapp.dto.OrderRequest;
+import foodapp.dto.OrderStatusEvent;
+import foodapp.dto.OrderStatusResponse;
+import foodapp.dto.OrderSummaryResponse;
 import foodapp.dto.PaymentDto;
 import foodapp.entity.Food;
 import foodapp.entity.Order;
 import foodapp.entity.OrderItem;
 import foodapp.entity.OrderStatus;
-import foodapp.entity.Restaurant;
-import foodapp.entity.User;
+import foodapp.events.OrderEventBus;
+import foodapp.exception.InvalidOrderStateException;
 import foodapp.exception.PaymentFailedException;
+import foodapp.index.MenuIndex;
+import foodapp.index.MenuSnapshot;
+import foodapp.index.OrderReadModel;
+import foodapp.pipeline.OrderWriter;
 import foodapp.repository.OrderRepository;
 import foodapp.repository.UserRepository;
 import foodapp.service.FoodService;
 import foodapp.service.OrderService;
-import foodapp.service.RestaurantService;
-import lombok.RequiredArgsConstructor;
+import foodapp.stats.SalesStats;
 
 @Service
-@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
-	private final RestaurantService restaurantService;
+	private static final int MAX_TRANSITION_ATTEMPTS = 3;
+
 	private final FoodService foodService;
 	private final UserRepository userRepository;
 	private final OrderRepository orderRepository;
+	private final MenuIndex menuIndex;
+	private final OrderReadModel orderReadModel;
+	private final OrderWriter orderWriter;
+	private final OrderEventBus orderEventBus;
+	private final SalesStats salesStats;
+	private final ObjectMapper objectMapper;
+	private final long commitTimeoutMillis;
+
+	public OrderServiceImpl(FoodService foodService, UserRepository userRepository, OrderRepository orderRepository,
+			MenuIndex menuIndex, OrderReadModel orderReadModel, OrderWriter orderWriter, OrderEventBus orderEventBus,
+			SalesStats salesStats, ObjectMapper objectMapper, @Value("${foodapp.orders.commit-timeout}") Duration commitTimeout) {
+		this.foodService = foodService;
+		this.userRepository = userRepository;
+		this.orderRepository = orderRepository;
+		this.menuIndex = menuIndex;
+		this.orderReadModel = orderReadModel;
+		this.orderWriter = orderWriter;
+		this.orderEventBus = orderEventBus;
+		this.salesStats = salesStats;
+		this.objectMapper = objectMapper;
+		this.commitTimeoutMillis = commitTimeout.toMillis();
+	}
 
 	/**
-	 * Generates bill for an order request. Caching is used so repeated bill
-	 * calculations for the same restaurant & items are fast.
+	 * Generates bill for an order request. Prices come from the in-memory menu
+	 * snapshot of the restaurant; only foods that are not on its menu fall back
+	 * to a bulk lookup. Cached bills are keyed on the menu version, so a menu
+	 * change makes the old entries unreachable without touching other
+	 * restaurants. Bills with off-menu foods are not cached, since no menu
+	 * version covers their prices.
 	 */
 	@Override
-	@Cacheable(value = "bills", key = "#orderRequest.restaurantId + '-' + #orderRequest.orderItems.hashCode()")
+	@Cacheable(value = "bills", keyGenerator = "billKeyGenerator", condition = "@menuIndex.servesAll(#orderRequest.restaurantId, #orderRequest.orderItems.![foodId])")
 	public BillResponse generateBill(OrderRequest orderRequest) {
-		Restaurant restaurant = restaurantService.getById(orderRequest.getRestaurantId());
-		StringBuilder summary = new StringBuilder();
+		MenuSnapshot menu = menuIndex.get(orderRequest.getRestaurantId());
+		List<OrderItemRequest> orderItems = orderRequest.getOrderItems();
+		Map<Integer, Food> offMenuFoods = resolveOffMenuFoods(menu, orderItems);
+		StringBuilder summary = new StringBuilder(orderItems.size() * 32);
 
 		float totalPrice = 0;
 
-		for (OrderItemRequest orderItem : orderRequest.getOrderItems()) {
-			Food food = foodService.getFoodById(orderItem.getFoodId());
-			float price = food.getPrice() * orderItem.getQuantity();
+		for (OrderItemRequest orderItem : orderItems) {
+			int slot = menu.indexOf(orderItem.getFoodId());
+			String name;
+			float unitPrice;
+			if (slot >= 0) {
+				name = menu.nameAt(slot);
+				unitPrice = menu.priceAt(slot);
+			} else {
+				Food food = offMenuFoods.get(orderItem.getFoodId());
+				name = food.getName();
+				unitPrice = food.getPrice();
+			}
+			float price = unitPrice * orderItem.getQuantity();
 			totalPrice += price;
-			summary.append(food.getName()).append(" X ").append(orderItem.getQuantity()).append(" = ").append(price)
+			summary.append(name).append(" X ").append(orderItem.getQuantity()).append(" = ").append(price)
 					.append("\n");
 		}
 
-		return new BillResponse(restaurant.getName(), summary.toString(), totalPrice);
+		return new BillResponse(menu.getRestaurantName(), summary.toString(), totalPrice);
+	}
+
+	private Map<Integer, Food> resolveOffMenuFoods(MenuSnapshot menu, List<OrderItemRequest> orderItems) {
+		List<Integer> offMenu = null;
+		for (OrderItemRequest orderItem : orderItems) {
+			if (menu.indexOf(orderItem.getFoodId()) < 0) {
+				if (offMenu == null)
+					offMenu = new ArrayList<>();
+				offMenu.add(orderItem.getFoodId());
+			}
+		}
+		return offMenu == null ? Map.of() : foodService.getFoodsByIds(offMenu);
 	}
 
 	/**
-	 * Processes payment and places order. Clears bill cache since prices might
-	 * change after an order.
+	 * Processes payment and hands the order to the {@link OrderWriter}. Anything
+	 * thrown from here means nothing was submitted. The returned future completes
+	 * once the group commit has completed; the read model, event stream and sales
+	 * figures are updated then, even if the caller stopped waiting.
 	 */
 	@Override
-	@CacheEvict(value = "bills", allEntries = true)
-	public String payAndPlaceOrder(PaymentDto payment) {
+	public CompletableFuture<String> payAndPlaceOrder(PaymentDto payment) {
 		if (payment.isPaymentSuccessful()) {
 			Order order = new Order();
 
-			Restaurant restaurant = restaurantService.getById(payment.getRestaurantId());
-			User user = userRepository.findById(payment.getUserId())
+			menuIndex.get(payment.getRestaurantId());
+			String username = userRepository.findUsernameById(payment.getUserId())
 					.orElseThrow(() -> new NoSuchElementException("User not found with id :" + payment.getUserId()));
-			order.setRestaurant(restaurant);
-			order.setUser(user);
 
 			List<OrderItem> items = new ArrayList<>();
 			double totalPrice = 0;
 
+			Map<Integer, Food> foods = foodService.getFoodsByIds(foodIds(payment.getOrderItems()));
 			for (OrderItemRequest request : payment.getOrderItems()) {
-				Food food = foodService.getFoodById(request.getFoodId());
+				Food food = foods.get(request.getFoodId());
 
 				OrderItem orderItem = new OrderItem();
 				orderItem.setFood(food);
 				orderItem.setQuantity(request.getQuantity());
+				orderItem.setUnitPrice(food.getPrice());
 
 				orderItem.setOrder(order);
 				items.add(orderItem);
@@ -96,20 +172,24 @@ public class OrderServiceImpl implements OrderService {
 			order.setTotalPrice(totalPrice);
 			order.setOrderItems(items);
 			order.setStatus(OrderStatus.PLACED);
-			orderRepository.save(order);
-			return "Order has been placed by " + user.getUsername();
+			return orderWriter.submit(order, payment.getRestaurantId(), payment.getUserId()).thenApply(placed -> {
+				orderReadModel.put(OrderDetailsResponse.of(placed));
+				orderEventBus.publish(placed);
+				salesStats.orderPlaced(placed);
+				return "Order has been placed by " + username;
+			});
 		} else {
 			throw new PaymentFailedException("Payment was not successful, hence order cannot be placed");
 		}
 	}
 
 	@Override
-	@CacheEvict(value = "bills", allEntries = true)
 	public void deleteOrderById(Integer id) {
 		if (!orderRepository.existsById(id)) {
 			throw new NoSuchElementException("No order present with id: " + id);
 		}
 		orderRepository.deleteById(id);
+		orderReadModel.deleted(id);
 	}
 
 	@Override
@@ -118,47 +198,140 @@ public class OrderServiceImpl implements OrderService {
 	}
 
 	@Override
-	@CachePut(value = "orders", key = "#id")
-	public Order updateOrderStatusByAdmin(Integer id, OrderStatus status) {
-		Order order = getOrder(id);
-		order.setStatus(status);
-		return orderRepository.save(order);
+	public OrderStatusResponse updateOrderStatusByAdmin(Integer id, OrderStatus status) {
+		return transition(id, status);
 	}
 
+	/**
+	 * Served from the orders read model; a miss loads the order with its items in
+	 * one query.
+	 */
 	@Override
-	@Cacheable(value = "orders", key = "#id")
-	public Order getOrder(Integer id) {
-		Order order = orderRepository.findById(id)
-				.orElseThrow(() -> new NoSuchElementException("Order not found with id: " + id));
-		return order;
+	public OrderDetailsResponse getOrder(Integer id) {
+		return orderReadModel.get(id, () -> orderRepository.findWithItemsById(id).map(OrderDetailsResponse::of));
 	}
 
 	@Override
-	@CacheEvict(value = "orders", key = "#id")
 	public String cancelOrder(Integer id) {
-		Order order = getOrder(id);
-		order.setStatus(OrderStatus.CANCELLED);
-		orderRepository.save(order);
+		transition(id, OrderStatus.CANCELLED);
 		return "Order has been cancelled";
 	}
 
+	/**
+	 * Moves the order to {@code next} with a single conditional UPDATE on id,
+	 * status and version. If another update wins the race, the new state is
+	 * re-read and the transition re-checked against it, so a concurrent change
+	 * is never overwritten and a final order is never reopened.
+	 */
+	private OrderStatusResponse transition(Integer id, OrderStatus next) {
+		for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+			OrderStatusResponse current = orderRepository.findStatusById(id)
+					.orElseThrow(() -> new NoSuchElementException("Order not found with id: " + id));
+			if (!current.getStatus().canTransitionTo(next)) {
+				throw new InvalidOrderStateException(
+						"Order " + id + " cannot move from " + current.getStatus() + " to " + next);
+			}
+			if (orderRepository.updateStatus(id, current.getStatus(), current.getVersion(), next) == 1) {
+				orderReadModel.statusChanged(id, next, current.getVersion() + 1);
+				orderEventBus.publish(id, current.getRestaurantId(), current.getUserId(), next);
+				if (next == OrderStatus.CANCELLED)
+					salesStats.orderCancelled(current.getRestaurantId());
+				return new OrderStatusResponse(id, next, current.getVersion() + 1, current.getRestaurantId(),
+						current.getUserId());
+			}
+		}
+		throw new InvalidOrderStateException("Order " + id + " is being updated concurrently, please retry");
+	}
+
+	/**
+	 * Streams status changes of one order, starting with its current status.
+	 */
+	@Override
+	public SseEmitter streamOrderEvents(Integer id, Long lastEventId) {
+		getOrder(id);
+		return orderEventBus.subscribe(event -> event.getOrderId().equals(id), lastEventId, () -> {
+			OrderDetailsResponse order = getOrder(id);
+			return new OrderStatusEvent(0, id, order.restaurantId(), order.userId(), order.status(), null);
+		});
+	}
+
 	@Override
-	@Cacheable(value = "ordersAll")
-	public List<Order> getAllOrders() {
-		List<Order> orders = orderRepository.findAll();
-		if (orders == null || orders.isEmpty()) {
-			throw new NoSuchElementException("No orders present");
+	public SseEmitter streamUserOrderEvents(Integer userId, Long lastEventId) {
+		return orderEventBus.subscribe(event -> event.getUserId().equals(userId), lastEventId, null);
+	}
+
+	/**
+	 * Live order board of a restaurant: new orders and every status change.
+	 */
+	@Override
+	public SseEmitter streamRestaurantOrderEvents(Integer restaurantId, Long lastEventId) {
+		menuIndex.get(restaurantId);
+		return orderEventBus.subscribe(event -> event.getRestaurantId().equals(restaurantId), lastEventId, null);
+	}
+
+	/**
+	 * Keyset pagination: the cursor is the last order id of the previous page, so
+	 * every page costs the same regardless of how deep the client scrolls.
+	 */
+	@Override
+	public OrderPageResponse getOrders(OrderFilter filter, Integer cursor, int size) {
+		List<OrderSummaryResponse> orders = orderRepository.findPage(filter.getStatus(), filter.getRestaurantId(),
+				filter.getUserId(), filter.getFrom(), filter.getTo(), cursor, Limit.of(size));
+		Integer nextCursor = orders.size() == size ? orders.get(orders.size() - 1).getId() : null;
+		return new OrderPageResponse(orders, nextCursor);
+	}
+
+	/**
+	 * Writes every matching order as one JSON object per line while walking a
+	 * forward-only result stream, so memory use does not grow with the table.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exportOrders(OrderFilter filter, OutputStream out) throws IOException {
+		ObjectWriter writer = objectMapper.writerFor(OrderSummaryResponse.class);
+		try (Stream<OrderSummaryResponse> orders = orderRepository.streamAll(filter.getStatus(),
+				filter.getRestaurantId(), filter.getUserId(), filter.getFrom(), filter.getTo())) {
+			Iterator<OrderSummaryResponse> iterator = orders.iterator();
+			while (iterator.hasNext()) {
+				out.write(writer.writeValueAsBytes(iterator.next()));
+				out.write('\n');
+			}
 		}
-		return orders;
+		out.flush();
 	}
 
 	/**
-	 * Scheduled cache clearing to avoid old prices. Runs every hour.
+	 * Waits up to {@code foodapp.orders.commit-timeout} for the placement. A
+	 * placement that is not confirmed by then is still queued or committing and
+	 * will be applied, so it is reported as pending rather than failed; a
+	 * failure of the commit itself is rethrown.
 	 */
-	@Scheduled(fixedRate = 60 * 60 * 1000)
-	@CacheEvict(value = "bills", allEntries = true)
-	public void clearBillCacheScheduled() {
-		System.out.println(("Scheduled task: Cleared all bill caches to avoid old data."));
+	@Override
+	public OrderPlacement awaitPlacement(CompletableFuture<String> placement) {
+		try {
+			return new OrderPlacement(true, placement.get(commitTimeoutMillis, TimeUnit.MILLISECONDS));
+		} catch (TimeoutException e) {
+			return pending();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return pending();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() instanceof CompletionException completion && completion.getCause() != null
+					? completion.getCause()
+					: e.getCause();
+			if (cause instanceof RuntimeException runtime)
+				throw runtime;
+			throw new CompletionException(cause);
+		}
+	}
+
+	private OrderPlacement pending() {
+		return new OrderPlacement(false, "Order accepted and still being confirmed; repeat the request with the "
+				+ "same Idempotency-Key to get the result, or check your orders before placing it again");
+	}
+
+	private List<Integer> foodIds(List<OrderItemRequest> orderItems) {
+		return orderItems.stream().map(OrderItemRequest::getFoodId).toList();
 	}
 
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package foodapp.service.impl;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -13,16 +14,33 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import foodapp.dto.MenuChangeResponse;
+import foodapp.dto.MenuFilter;
+import foodapp.dto.MenuItemResponse;
+import foodapp.dto.MenuPatchRequest;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.dto.OrderLineResponse;
+import foodapp.dto.PopularDishResponse;
+import foodapp.dto.RestaurantSearchResponse;
+import foodapp.dto.RestaurantStatsResponse;
 import foodapp.entity.Food;
 import foodapp.entity.Order;
 import foodapp.entity.Restaurant;
+import foodapp.entity.RollupGranularity;
+import foodapp.entity.User;
+import foodapp.exception.LocationRequiredException;
 import foodapp.exception.NoFoodsAssignedException;
+import foodapp.index.MenuIndex;
+import foodapp.index.RestaurantGeoIndex;
+import foodapp.index.RestaurantSearchIndex;
 import foodapp.repository.FoodRepository;
+import foodapp.repository.OrderRepository;
 import foodapp.repository.RestaurantRepository;
+import foodapp.repository.UserRepository;
 import foodapp.service.RestaurantService;
+import foodapp.stats.SalesStats;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -31,10 +49,19 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     private final RestaurantRepository restaurantRepo;
     private final FoodRepository foodRepository;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final MenuIndex menuIndex;
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantGeoIndex geoIndex;
+    private final SalesStats salesStats;
 
     @Override
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return restaurantRepo.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepo.save(restaurant);
+        searchIndex.restaurantChanged(savedRestaurant.getId());
+        geoIndex.put(savedRestaurant);
+        return savedRestaurant;
     }
 
     @Override
@@ -52,6 +79,9 @@ public class RestaurantServiceImpl implements RestaurantService {
     public void deleteRestaurant(Integer id) {
         Restaurant response = getById(id);
         restaurantRepo.delete(response);
+        menuIndex.evict(id);
+        searchIndex.restaurantChanged(id);
+        geoIndex.evict(id);
     }
 
     @Override
@@ -71,22 +101,65 @@ public class RestaurantServiceImpl implements RestaurantService {
         restaurant.setAddress(updatedRest.getAddress());
         restaurant.setContactNumber(updatedRest.getContactNumber());
         restaurant.setEmail(updatedRest.getEmail());
-        return restaurantRepo.save(restaurant);
+        restaurant.setLatitude(updatedRest.getLatitude());
+        restaurant.setLongitude(updatedRest.getLongitude());
+        Restaurant savedRestaurant = restaurantRepo.save(restaurant);
+        menuIndex.renameRestaurant(id, savedRestaurant.getName());
+        searchIndex.restaurantChanged(id);
+        geoIndex.put(savedRestaurant);
+        return savedRestaurant;
     }
 
     @Override
     @CachePut(value = "restaurant_cache", key = "#id")
     @CacheEvict(value = "restaurant_foods_cache", key = "#id") // clear foods cache
     public Restaurant assignFoodItems(Integer id, Set<Integer> foodId) {
-        Restaurant restaurant = getById(id);
-        List<Food> foodItems = new ArrayList<>();
-        for (Integer food_id : foodId) {
-            Food food = foodRepository.findById(food_id)
-                    .orElseThrow(() -> new NoSuchElementException("Food with ID: " + food_id + " not found"));
-            foodItems.add(food);
+        getById(id);
+        requireFoods(foodId);
+        Set<Integer> current = restaurantRepo.findFoodIdsByRestaurantId(id);
+        Set<Integer> added = new HashSet<>(foodId);
+        added.removeAll(current);
+        Set<Integer> removed = new HashSet<>(current);
+        removed.removeAll(foodId);
+        restaurantRepo.changeMenu(id, added, removed);
+
+        Restaurant savedRestaurant = restaurantRepo.findAllWithFoodsByIdIn(List.of(id)).get(0);
+        menuIndex.publish(savedRestaurant);
+        searchIndex.restaurantChanged(id);
+        return savedRestaurant;
+    }
+
+    /**
+     * Adds and removes single foods; only those rows of restaurant_food are
+     * written.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "restaurant_cache", key = "#id"),
+            @CacheEvict(value = "restaurant_foods_cache", key = "#id")
+        })
+    public MenuChangeResponse changeMenu(Integer id, MenuPatchRequest request) {
+        getById(id);
+        Set<Integer> add = request.getAdd() != null ? request.getAdd() : Set.of();
+        Set<Integer> remove = request.getRemove() != null ? request.getRemove() : Set.of();
+        requireFoods(add);
+        int[] changed = restaurantRepo.changeMenu(id, add, remove);
+        if (changed[0] > 0 || changed[1] > 0) {
+            menuIndex.evict(id);
+            searchIndex.restaurantChanged(id);
+        }
+        return new MenuChangeResponse(id, changed[1], changed[0]);
+    }
+
+    private void requireFoods(Set<Integer> foodIds) {
+        if (foodIds.isEmpty())
+            return;
+        List<Integer> existing = foodRepository.findExistingIds(foodIds);
+        if (existing.size() < foodIds.size()) {
+            Set<Integer> missing = new TreeSet<>(foodIds);
+            existing.forEach(missing::remove);
+            throw new NoSuchElementException("Food with ID: " + missing.iterator().next() + " not found");
         }
-        restaurant.setFoods(foodItems);
-        return restaurantRepo.save(restaurant);
     }
 
     @Override
@@ -100,20 +173,77 @@ public class RestaurantServiceImpl implements RestaurantService {
         return foods;
     }
 
+    @Override
+    public Page<MenuItemResponse> findMenu(Integer restaurantId, MenuFilter filter, int pageNum, int pageSize,
+            String sortBy, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by("id")); // stable order across pages
+        Page<MenuItemResponse> menu = foodRepository.findMenu(restaurantId, containsPattern(filter.getName()),
+                filter.getMinPrice(), filter.getMaxPrice(), PageRequest.of(pageNum, pageSize, sort));
+        if (menu.getTotalElements() == 0 && !restaurantRepo.existsById(restaurantId)) {
+            throw new NoSuchElementException("Restaurant with ID:" + restaurantId + " not found");
+        }
+        return menu;
+    }
+
+    private static String containsPattern(String text) {
+        if (text == null || text.isBlank())
+            return null;
+        String escaped = text.strip().toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
     @Override
     public List<Order> findOrdersByRestaurantID(Integer restaurantId) {
-        List<Order> orders = restaurantRepo.findOrdersByRestaurantID(restaurantId);
+        List<Order> orders = orderRepository.findWithItemsByRestaurantId(restaurantId);
         if (orders == null || orders.isEmpty())
             throw new NoSuchElementException("Restaurant got no orders to process, Try again");
         return orders;
     }
 
+    @Override
+    public List<OrderLineResponse> findOrderLinesByRestaurantId(Integer restaurantId) {
+        List<OrderLineResponse> lines = orderRepository.findLinesByRestaurantId(restaurantId);
+        if (lines.isEmpty())
+            throw new NoSuchElementException("Restaurant got no orders to process, Try again");
+        return lines;
+    }
+
     /**
-     * Periodically evict all restaurant caches to avoid stale data.
+     * Served from the in-memory sales aggregates; no orders are read.
      */
-    @Scheduled(fixedRate = 3600000) // every hour
-    @CacheEvict(value = {"restaurant_cache", "restaurant_foods_cache"}, allEntries = true)
-    public void clearCachesPeriodically() {
-        System.out.println("Clearing restaurant caches...");
+    @Override
+    public RestaurantStatsResponse getSalesStats(Integer restaurantId, RollupGranularity granularity, int buckets) {
+        menuIndex.get(restaurantId); // 404 for unknown restaurants
+        return new RestaurantStatsResponse(restaurantId, salesStats.totals(restaurantId), granularity,
+                salesStats.buckets(restaurantId, granularity, buckets));
+    }
+
+    @Override
+    public List<PopularDishResponse> getPopularDishes(Integer restaurantId, Integer days, int limit) {
+        return salesStats.popularDishes(restaurantId, days, limit);
+    }
+
+    @Override
+    public List<RestaurantSearchResponse> searchRestaurants(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Searches around the given point, or around the caller's own saved delivery
+     * location when no point is given. Only the caller's location is ever used:
+     * distances from someone else's home would let a client locate it.
+     */
+    @Override
+    public List<NearbyRestaurantResponse> findNearbyRestaurants(Double latitude, Double longitude, String username,
+            double radiusKm, int limit) {
+        if (latitude == null || longitude == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new NoSuchElementException("User not found with username :" + username));
+            if (user.getLatitude() == null || user.getLongitude() == null)
+                throw new LocationRequiredException("Latitude and longitude are required, you have no saved location");
+            latitude = user.getLatitude();
+            longitude = user.getLongitude();
+        }
+        return geoIndex.nearest(latitude, longitude, limit, radiusKm);
     }
 }
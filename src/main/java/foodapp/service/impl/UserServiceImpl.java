@@ -1,6 +1,10 @@
 package foodapp.service.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
@@ -9,7 +13,6 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -17,8 +20,14 @@ import org.springframework.web.multipart.MultipartFile;
 import foodapp.dto.UserRequest;
 import foodapp.dto.UserResponse;
 import foodapp.entity.User;
+import foodapp.exception.UnsupportedImageException;
 import foodapp.repository.UserRepository;
+import foodapp.security.CredentialCache;
+import foodapp.security.TokenRevocationList;
 import foodapp.service.UserService;
+import foodapp.storage.ImageStore;
+import foodapp.storage.ImageType;
+import foodapp.storage.StoredImage;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -26,6 +35,9 @@ import lombok.RequiredArgsConstructor;
 public class UserServiceImpl implements UserService {
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
+	private final ImageStore imageStore;
+	private final CredentialCache credentialCache;
+	private final TokenRevocationList tokenRevocationList;
 
 	@Override
 	public UserResponse createUser(UserRequest request) {
@@ -34,7 +46,11 @@ public class UserServiceImpl implements UserService {
 		if (user.getRole() == null || user.getRole().isBlank()) {
 			user.setRole("ROLE_USER");
 		}
-		return toResponse(userRepository.save(user));
+		user.setCredentialsChangedAt(Instant.now());
+		User savedUser = userRepository.save(user);
+		// the username may belong to a user deleted moments ago
+		tokenRevocationList.credentialsChanged(savedUser.getUsername(), savedUser.credentialsStamp());
+		return toResponse(savedUser);
 	}
 
 	@Override
@@ -55,8 +71,9 @@ public class UserServiceImpl implements UserService {
 
 		return users.stream()
 				.map(user -> UserResponse.builder().id(user.getId()).username(user.getUsername()).email(user.getEmail())
-						.contactNumber(user.getContactNumber()).address(user.getAddress()).role(user.getRole())
-						.profileImage(user.getImage() != null ? "/api/users/" + user.getId() + "/profile-image" : null)
+						.contactNumber(user.getContactNumber()).address(user.getAddress())
+						.latitude(user.getLatitude()).longitude(user.getLongitude()).role(user.getRole())
+						.profileImage(user.getImageKey() != null ? "/api/users/" + user.getId() + "/profile-image" : null)
 						.build())
 				.collect(Collectors.toList());
 	}
@@ -72,39 +89,69 @@ public class UserServiceImpl implements UserService {
 	public UserResponse updateUser(UserRequest request, Integer id) {
 		User existingUser = userRepository.findById(id)
 				.orElseThrow(() -> new NoSuchElementException("User not found with id :" + id));
+		String previousUsername = existingUser.getUsername();
 
+		boolean renamed = !previousUsername.equals(request.getUsername());
 		existingUser.setUsername(request.getUsername());
 		existingUser.setAddress(request.getAddress());
+		existingUser.setLatitude(request.getLatitude());
+		existingUser.setLongitude(request.getLongitude());
 		existingUser.setContactNumber(request.getContactNumber());
 		existingUser.setEmail(request.getEmail());
 
-		if (request.getPassword() != null && !request.getPassword().isBlank()) {
+		boolean passwordChanged = request.getPassword() != null && !request.getPassword().isBlank();
+		if (passwordChanged) {
 			existingUser.setPassword(passwordEncoder.encode(request.getPassword()));
 		}
+		if (renamed || passwordChanged) {
+			existingUser.setCredentialsChangedAt(Instant.now());
+		}
 
-		return toResponse(userRepository.save(existingUser));
+		User savedUser = userRepository.save(existingUser);
+		if (renamed) {
+			tokenRevocationList.userRemoved(previousUsername);
+		}
+		if (renamed || passwordChanged) {
+			tokenRevocationList.credentialsChanged(savedUser.getUsername(), savedUser.credentialsStamp());
+		}
+		credentialCache.evict(previousUsername);
+		return toResponse(savedUser);
 	}
 
+	/**
+	 * Streams the upload into the image store; only the content key is saved on
+	 * the user. The format is sniffed from the first bytes and must be JPEG, PNG,
+	 * GIF or WebP; the Content-Type sent by the client is ignored.
+	 */
 	@Override
-	@CachePut(value = "user_cache", key = "#id")
-	@CacheEvict(value = "user_cache", key = "'ALL_USERS'")
+	@Caching(evict = { @CacheEvict(value = "user_cache", key = "#id"),
+			@CacheEvict(value = "user_cache", key = "'ALL_USERS'") })
 	public String uploadImage(MultipartFile file, Integer id) throws IOException {
-		byte[] image = file.getBytes();
 		User user = getUserEntity(id);
-		user.setImage(image);
+		String key;
+		ImageType type;
+		try (InputStream content = file.getInputStream()) {
+			byte[] header = content.readNBytes(ImageType.HEADER_LENGTH);
+			type = ImageType.detect(header, header.length).orElseThrow(
+					() -> new UnsupportedImageException("Profile image must be a JPEG, PNG, GIF or WebP file"));
+			key = imageStore.store(new SequenceInputStream(new ByteArrayInputStream(header), content));
+		}
+		user.setImageKey(key);
+		user.setImageContentType(type.contentType());
+		user.setImageUpdatedAt(Instant.now());
 
 		userRepository.save(user);
 		return "Image uploaded";
 	}
 
 	@Override
-	public byte[] getImage(Integer id) {
+	public StoredImage getImage(Integer id) {
 		User user = getUserEntity(id);
-		byte[] image = user.getImage();
-		if (image == null || image.length == 0) {
+		if (user.getImageKey() == null) {
 			throw new NoSuchElementException("No image uploaded for user");
 		}
-		return image;
+		return new StoredImage(user.getImageKey(), user.getImageContentType(), user.getImageUpdatedAt(),
+				imageStore.load(user.getImageKey()));
 	}
 
 	@Override
@@ -113,15 +160,11 @@ public class UserServiceImpl implements UserService {
 	public void deleteUser(Integer id) {
 		User user = getUserEntity(id);
 		userRepository.delete(user);
+		tokenRevocationList.userRemoved(user.getUsername());
+		credentialCache.evict(user.getUsername());
 
 	}
 
-	@Scheduled(fixedRate = 120000)
-	@CacheEvict(value = "user_cache", allEntries = true)
-	public void evictAllCache() {
-		System.out.println("Evicting all user cache...");
-	}
-
 	public UserResponse toResponse(User user) {
 		UserResponse dto = new UserResponse();
 		dto.setId(user.getId());
@@ -129,10 +172,12 @@ public class UserServiceImpl implements UserService {
 		dto.setEmail(user.getEmail());
 		dto.setContactNumber(user.getContactNumber());
 		dto.setAddress(user.getAddress());
+		dto.setLatitude(user.getLatitude());
+		dto.setLongitude(user.getLongitude());
 		dto.setRole(user.getRole());
 
-		if (user.getImage() != null) {
-			dto.setProfileImage("/api/users/" + user.getId() + "/image");
+		if (user.getImageKey() != null) {
+			dto.setProfileImage("/api/users/" + user.getId() + "/profile-image");
 		}
 
 		return dto;
@@ -144,6 +189,8 @@ public class UserServiceImpl implements UserService {
 		user.setEmail(dto.getEmail());
 		user.setContactNumber(dto.getContactNumber());
 		user.setAddress(dto.getAddress());
+		user.setLatitude(dto.getLatitude());
+		user.setLongitude(dto.getLongitude());
 		user.setRole(dto.getRole());
 		user.setPassword(dto.getPassword()); // hash before saving
 		return user;
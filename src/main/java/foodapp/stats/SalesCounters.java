@@ -0,0 +1,80 @@
+package foodapp.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Figures of one rollup row. Request threads only add to the striped
+ * {@link LongAdder}s, so concurrent orders of a busy restaurant do not contend
+ * on one counter. The flush moves those pending amounts into {@code synced},
+ * which mirrors the row as last written to or read from the rollup table.
+ */
+final class SalesCounters {
+
+	static final int ORDERS = 0;
+	static final int QUANTITY = 1;
+	static final int REVENUE_CENTS = 2;
+	static final int CANCELLATIONS = 3;
+	static final int METRICS = 4;
+
+	private final LongAdder[] pending = new LongAdder[METRICS];
+	private final AtomicLongArray synced = new AtomicLongArray(METRICS);
+
+	SalesCounters() {
+		for (int metric = 0; metric < METRICS; metric++)
+			pending[metric] = new LongAdder();
+	}
+
+	void add(int metric, long amount) {
+		pending[metric].add(amount);
+	}
+
+	long get(int metric) {
+		return synced.get(metric) + pending[metric].sum();
+	}
+
+	/**
+	 * Takes the pending amounts for writing. They stay visible to readers through
+	 * {@code synced}.
+	 *
+	 * @return the amounts taken, or null if there were none
+	 */
+	long[] takePending() {
+		long[] taken = new long[METRICS];
+		boolean any = false;
+		for (int metric = 0; metric < METRICS; metric++) {
+			taken[metric] = pending[metric].sumThenReset();
+			synced.addAndGet(metric, taken[metric]);
+			any |= taken[metric] != 0;
+		}
+		return any ? taken : null;
+	}
+
+	/**
+	 * Puts back amounts whose write failed, to be retried by the next flush.
+	 */
+	void restorePending(long[] taken) {
+		for (int metric = 0; metric < METRICS; metric++) {
+			synced.addAndGet(metric, -taken[metric]);
+			pending[metric].add(taken[metric]);
+		}
+	}
+
+	/**
+	 * Adopts the row as stored, which includes everything flushed by any node.
+	 */
+	void sync(long orders, long quantity, long revenueCents, long cancellations) {
+		synced.set(ORDERS, orders);
+		synced.set(QUANTITY, quantity);
+		synced.set(REVENUE_CENTS, revenueCents);
+		synced.set(CANCELLATIONS, cancellations);
+	}
+
+	boolean hasPending() {
+		for (LongAdder adder : pending) {
+			if (adder.sum() != 0)
+				return true;
+		}
+		return false;
+	}
+}
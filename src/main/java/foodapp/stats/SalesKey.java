@@ -0,0 +1,14 @@
+package foodapp.stats;
+
+import java.time.LocalDateTime;
+
+import foodapp.entity.RollupGranularity;
+
+/**
+ * One rollup row: a restaurant, or one of its foods, in one time bucket.
+ */
+record SalesKey(int restaurantId, int foodId, RollupGranularity granularity, LocalDateTime bucketStart) {
+
+	/** Food ID of the figures for the whole restaurant. */
+	static final int WHOLE_RESTAURANT = 0;
+}
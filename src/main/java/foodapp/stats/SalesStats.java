@@ -0,0 +1,328 @@
+package foodapp.stats;
+
+import static foodapp.stats.SalesCounters.CANCELLATIONS;
+import static foodapp.stats.SalesCounters.ORDERS;
+import static foodapp.stats.SalesCounters.QUANTITY;
+import static foodapp.stats.SalesCounters.REVENUE_CENTS;
+import static foodapp.stats.SalesKey.WHOLE_RESTAURANT;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import foodapp.dto.PopularDishResponse;
+import foodapp.dto.SalesFiguresResponse;
+import foodapp.entity.Order;
+import foodapp.entity.OrderItem;
+import foodapp.entity.RollupGranularity;
+import foodapp.entity.SalesRollup;
+import foodapp.entity.SalesRollupId;
+import foodapp.index.MenuIndex;
+import foodapp.index.MenuSnapshot;
+import foodapp.repository.SalesRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sales figures per restaurant and per food, by hour, by day and all-time,
+ * kept in memory and updated as orders are placed and cancelled. Reads never
+ * scan orders.
+ * <p>
+ * Every few seconds the amounts added since the last flush are written to the
+ * {@code sales_rollup} table as increments, so several nodes can flush into the
+ * same rows. Rows any node changed since the last flush are then read back, so
+ * each node's figures include the others' up to their last flush. Orders are
+ * counted in the bucket they are placed in; a cancellation counts in the bucket
+ * it happens in.
+ */
+@Slf4j
+@Component
+public class SalesStats {
+
+	static final int HOURS_KEPT = 48;
+	static final int DAYS_KEPT = 90;
+
+	/** Covers commit lag: a row written just before a sync may commit after it. */
+	private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+	private static final String UPSERT = "insert into sales_rollup "
+			+ "(restaurant_id, food_id, granularity, bucket_start, orders, quantity, revenue_cents, cancellations, updated_at) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, current_timestamp) on duplicate key update "
+			+ "orders = orders + values(orders), quantity = quantity + values(quantity), "
+			+ "revenue_cents = revenue_cents + values(revenue_cents), "
+			+ "cancellations = cancellations + values(cancellations), updated_at = current_timestamp";
+
+	private static final RollupGranularity[] RESTAURANT_GRANULARITIES = RollupGranularity.values();
+	private static final RollupGranularity[] FOOD_GRANULARITIES = { RollupGranularity.DAY, RollupGranularity.ALL };
+
+	private final SalesRollupRepository rollupRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final MenuIndex menuIndex;
+
+	private final ConcurrentMap<SalesKey, SalesCounters> counters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Integer, Set<Integer>> foodsByRestaurant = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes loads and flushes. Not a monitor: the flush does JDBC I/O on a
+	 * virtual thread, which would pin its carrier while holding one.
+	 */
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	/** Rows changed at or after this database time are read back on the next flush. */
+	private LocalDateTime syncedUpTo = RollupGranularity.ALL_TIME;
+
+	public SalesStats(SalesRollupRepository rollupRepository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, MenuIndex menuIndex) {
+		this.rollupRepository = rollupRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.menuIndex = menuIndex;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		LocalDateTime since = RollupGranularity.DAY.minus(RollupGranularity.DAY.bucketOf(LocalDateTime.now()), DAYS_KEPT);
+		flushLock.lock();
+		try {
+			sync(rollupRepository.findAllTimeOrSince(RollupGranularity.ALL, since));
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	public void orderPlaced(Order order) {
+		int restaurantId = order.getRestaurant().getId();
+		LocalDateTime now = LocalDateTime.now();
+
+		// One order counts once per food, however many lines it has for it
+		Map<Integer, long[]> byFood = new HashMap<>();
+		long quantity = 0;
+		for (OrderItem item : order.getOrderItems()) {
+			long[] food = byFood.computeIfAbsent(item.getFood().getId(), id -> new long[2]);
+			food[0] += item.getQuantity();
+			food[1] += Math.round(item.chargedUnitPrice() * item.getQuantity() * 100.0);
+			quantity += item.getQuantity();
+		}
+
+		long revenueCents = Math.round(order.getTotalPrice() * 100);
+		for (RollupGranularity granularity : RESTAURANT_GRANULARITIES) {
+			SalesCounters restaurant = counters(new SalesKey(restaurantId, WHOLE_RESTAURANT, granularity,
+					granularity.bucketOf(now)));
+			restaurant.add(ORDERS, 1);
+			restaurant.add(QUANTITY, quantity);
+			restaurant.add(REVENUE_CENTS, revenueCents);
+		}
+		byFood.forEach((foodId, figures) -> {
+			for (RollupGranularity granularity : FOOD_GRANULARITIES) {
+				SalesCounters food = counters(new SalesKey(restaurantId, foodId, granularity, granularity.bucketOf(now)));
+				food.add(ORDERS, 1);
+				food.add(QUANTITY, figures[0]);
+				food.add(REVENUE_CENTS, figures[1]);
+			}
+		});
+	}
+
+	public void orderCancelled(int restaurantId) {
+		LocalDateTime now = LocalDateTime.now();
+		for (RollupGranularity granularity : RESTAURANT_GRANULARITIES) {
+			counters(new SalesKey(restaurantId, WHOLE_RESTAURANT, granularity, granularity.bucketOf(now)))
+					.add(CANCELLATIONS, 1);
+		}
+	}
+
+	public SalesFiguresResponse totals(int restaurantId) {
+		return figures(null, counters.get(new SalesKey(restaurantId, WHOLE_RESTAURANT, RollupGranularity.ALL,
+				RollupGranularity.ALL_TIME)));
+	}
+
+	/**
+	 * @return the last {@code count} hours or days, oldest first; at most
+	 *         {@value #HOURS_KEPT} hours or {@value #DAYS_KEPT} days are kept
+	 */
+	public List<SalesFiguresResponse> buckets(int restaurantId, RollupGranularity granularity, int count) {
+		int kept = granularity == RollupGranularity.HOUR ? HOURS_KEPT : DAYS_KEPT;
+		int size = Math.min(count, kept);
+		LocalDateTime current = granularity.bucketOf(LocalDateTime.now());
+		List<SalesFiguresResponse> buckets = new ArrayList<>(size);
+		for (int back = size - 1; back >= 0; back--) {
+			LocalDateTime bucketStart = granularity.minus(current, back);
+			buckets.add(figures(bucketStart,
+					counters.get(new SalesKey(restaurantId, WHOLE_RESTAURANT, granularity, bucketStart))));
+		}
+		return buckets;
+	}
+
+	/**
+	 * Best sellers of a restaurant by quantity, all-time or over the last
+	 * {@code days} days (at most {@value #DAYS_KEPT}).
+	 */
+	public List<PopularDishResponse> popularDishes(int restaurantId, Integer days, int limit) {
+		MenuSnapshot menu = menuIndex.get(restaurantId);
+		LocalDateTime today = RollupGranularity.DAY.bucketOf(LocalDateTime.now());
+		List<PopularDishResponse> dishes = new ArrayList<>();
+		for (Integer foodId : foodsByRestaurant.getOrDefault(restaurantId, Set.of())) {
+			long orders = 0, quantity = 0, revenueCents = 0;
+			if (days == null) {
+				SalesCounters food = counters.get(new SalesKey(restaurantId, foodId, RollupGranularity.ALL,
+						RollupGranularity.ALL_TIME));
+				if (food != null) {
+					orders = food.get(ORDERS);
+					quantity = food.get(QUANTITY);
+					revenueCents = food.get(REVENUE_CENTS);
+				}
+			} else {
+				for (int back = 0; back < Math.min(days, DAYS_KEPT); back++) {
+					SalesCounters food = counters.get(new SalesKey(restaurantId, foodId, RollupGranularity.DAY,
+							RollupGranularity.DAY.minus(today, back)));
+					if (food != null) {
+						orders += food.get(ORDERS);
+						quantity += food.get(QUANTITY);
+						revenueCents += food.get(REVENUE_CENTS);
+					}
+				}
+			}
+			if (orders > 0) {
+				int slot = menu.indexOf(foodId);
+				dishes.add(new PopularDishResponse(foodId, slot >= 0 ? menu.nameAt(slot) : null, orders, quantity,
+						revenueCents / 100.0));
+			}
+		}
+		dishes.sort(Comparator.comparingLong(PopularDishResponse::getQuantity).reversed()
+				.thenComparing(Comparator.comparingLong(PopularDishResponse::getOrders).reversed())
+				.thenComparing(PopularDishResponse::getFoodId));
+		return dishes.size() > limit ? dishes.subList(0, limit) : dishes;
+	}
+
+	/**
+	 * Writes the pending amounts as increments in one batch, then reads back the
+	 * rows changed by any node. A failed write is put back and retried next time.
+	 */
+	@Scheduled(fixedDelayString = "${foodapp.stats.flush-interval}")
+	public void flush() {
+		flushLock.lock();
+		try {
+			flushPending();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void flushPending() {
+		List<SalesKey> keys = new ArrayList<>();
+		List<long[]> amounts = new ArrayList<>();
+		counters.forEach((key, sales) -> {
+			long[] taken = sales.takePending();
+			if (taken != null) {
+				keys.add(key);
+				amounts.add(taken);
+			}
+		});
+
+		if (!keys.isEmpty()) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT,
+						new BatchPreparedStatementSetter() {
+							@Override
+							public void setValues(PreparedStatement statement, int i) throws SQLException {
+								SalesKey key = keys.get(i);
+								long[] taken = amounts.get(i);
+								statement.setInt(1, key.restaurantId());
+								statement.setInt(2, key.foodId());
+								statement.setString(3, key.granularity().name());
+								statement.setTimestamp(4, Timestamp.valueOf(key.bucketStart()));
+								statement.setLong(5, taken[ORDERS]);
+								statement.setLong(6, taken[QUANTITY]);
+								statement.setLong(7, taken[REVENUE_CENTS]);
+								statement.setLong(8, taken[CANCELLATIONS]);
+							}
+
+							@Override
+							public int getBatchSize() {
+								return keys.size();
+							}
+						}));
+			} catch (RuntimeException e) {
+				for (int i = 0; i < keys.size(); i++)
+					counters.get(keys.get(i)).restorePending(amounts.get(i));
+				log.warn("Could not flush {} sales rollup rows, retrying on the next flush", keys.size(), e);
+				return;
+			}
+		}
+
+		sync(rollupRepository.findByUpdatedAtGreaterThanEqual(syncedUpTo));
+		evictExpired();
+	}
+
+	@PreDestroy
+	public void flushOnShutdown() {
+		flush();
+	}
+
+	private void sync(List<SalesRollup> rows) {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime latest = null;
+		for (SalesRollup row : rows) {
+			SalesRollupId id = row.getId();
+			SalesKey key = new SalesKey(id.getRestaurantId(), id.getFoodId(), id.getGranularity(), id.getBucketStart());
+			if (row.getUpdatedAt() != null && (latest == null || row.getUpdatedAt().isAfter(latest)))
+				latest = row.getUpdatedAt();
+			if (expired(key, now))
+				continue;
+			counters(key).sync(row.getOrders(), row.getQuantity(), row.getRevenueCents(), row.getCancellations());
+		}
+		if (latest != null && latest.minus(SYNC_OVERLAP).isAfter(syncedUpTo))
+			syncedUpTo = latest.minus(SYNC_OVERLAP);
+	}
+
+	private void evictExpired() {
+		LocalDateTime now = LocalDateTime.now();
+		counters.entrySet().removeIf(entry -> expired(entry.getKey(), now) && !entry.getValue().hasPending());
+	}
+
+	private SalesCounters counters(SalesKey key) {
+		SalesCounters sales = counters.get(key);
+		if (sales != null)
+			return sales;
+		if (key.foodId() != WHOLE_RESTAURANT)
+			foodsByRestaurant.computeIfAbsent(key.restaurantId(), id -> ConcurrentHashMap.newKeySet()).add(key.foodId());
+		return counters.computeIfAbsent(key, k -> new SalesCounters());
+	}
+
+	private static boolean expired(SalesKey key, LocalDateTime now) {
+		return switch (key.granularity()) {
+		case HOUR -> key.bucketStart().isBefore(RollupGranularity.HOUR.minus(RollupGranularity.HOUR.bucketOf(now), HOURS_KEPT));
+		case DAY -> key.bucketStart().isBefore(RollupGranularity.DAY.minus(RollupGranularity.DAY.bucketOf(now), DAYS_KEPT));
+		case ALL -> false;
+		};
+	}
+
+	private static SalesFiguresResponse figures(LocalDateTime bucketStart, SalesCounters sales) {
+		if (sales == null)
+			return new SalesFiguresResponse(bucketStart, 0, 0, 0, 0, 0);
+		long orders = sales.get(ORDERS);
+		long cancellations = sales.get(CANCELLATIONS);
+		return new SalesFiguresResponse(bucketStart, orders, sales.get(QUANTITY), sales.get(REVENUE_CENTS) / 100.0,
+				cancellations, orders > 0 ? (double) cancellations / orders : 0);
+	}
+}
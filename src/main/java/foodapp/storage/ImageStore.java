@@ -0,0 +1,25 @@
+package foodapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed storage for uploaded images. Identical content is stored
+ * once and always gets the same key, so keys double as ETags.
+ */
+public interface ImageStore {
+
+	/**
+	 * Streams the content into the store without buffering it in memory.
+	 *
+	 * @return the key of the stored content
+	 */
+	String store(InputStream content) throws IOException;
+
+	/**
+	 * @throws java.util.NoSuchElementException if nothing is stored under the key
+	 */
+	Resource load(String key);
+}
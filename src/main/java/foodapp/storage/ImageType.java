@@ -0,0 +1,62 @@
+package foodapp.storage;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The image formats accepted for upload. The format is taken from the leading
+ * bytes of the content, never from the Content-Type the client declared, so
+ * HTML or SVG cannot be stored and later served as a profile image.
+ */
+public enum ImageType {
+
+	JPEG(MediaType.IMAGE_JPEG_VALUE),
+	PNG(MediaType.IMAGE_PNG_VALUE),
+	GIF(MediaType.IMAGE_GIF_VALUE),
+	WEBP("image/webp");
+
+	/** Bytes needed by {@link #detect(byte[], int)}. */
+	public static final int HEADER_LENGTH = 12;
+
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
+	private final String contentType;
+
+	ImageType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String contentType() {
+		return contentType;
+	}
+
+	public static Optional<ImageType> detect(byte[] header, int length) {
+		if (length >= 3 && (header[0] & 0xff) == 0xff && (header[1] & 0xff) == 0xd8 && (header[2] & 0xff) == 0xff)
+			return Optional.of(JPEG);
+		if (length >= 8 && Arrays.equals(header, 0, 8, PNG_SIGNATURE, 0, 8))
+			return Optional.of(PNG);
+		if (length >= 6 && (startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a")))
+			return Optional.of(GIF);
+		if (length >= 12 && startsWith(header, 0, "RIFF") && startsWith(header, 8, "WEBP"))
+			return Optional.of(WEBP);
+		return Optional.empty();
+	}
+
+	/**
+	 * @return the type with this content type, e.g. to check values stored before
+	 *         uploads were sniffed
+	 */
+	public static Optional<ImageType> ofContentType(String contentType) {
+		return Arrays.stream(values()).filter(type -> type.contentType.equalsIgnoreCase(contentType)).findFirst();
+	}
+
+	private static boolean startsWith(byte[] header, int offset, String ascii) {
+		for (int i = 0; i < ascii.length(); i++) {
+			if (header[offset + i] != ascii.charAt(i))
+				return false;
+		}
+		return true;
+	}
+}
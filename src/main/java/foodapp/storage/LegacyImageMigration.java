@@ -0,0 +1,99 @@
+package foodapp.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies profile images still held in the old {@code users.image} blob column
+ * into the {@link ImageStore} and points the user at them. Runs at startup and
+ * only touches rows without an image key, so it does nothing once every image
+ * has been copied, or on databases that never had the column. The blob column
+ * is left in place and can be dropped after a successful run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyImageMigration implements ApplicationRunner {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ImageStore imageStore;
+	private final CacheManager cacheManager;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<Integer> userIds;
+		try {
+			userIds = jdbcTemplate.queryForList("select id from users where image is not null and image_key is null",
+					Integer.class);
+		} catch (BadSqlGrammarException e) {
+			return; // no legacy column
+		}
+		if (userIds.isEmpty())
+			return;
+
+		int copied = 0;
+		for (Integer userId : userIds) {
+			try {
+				if (copy(userId))
+					copied++;
+			} catch (RuntimeException e) {
+				log.warn("Could not copy the legacy profile image of user {}", userId, e);
+			}
+		}
+		log.info("Copied {} of {} legacy profile images into the image store", copied, userIds.size());
+		if (copied > 0)
+			cacheManager.getCache("user_cache").clear(); // preloaded users without their image key
+	}
+
+	/**
+	 * Streams one blob into the store. Content that is not a supported image
+	 * format would never be served, so its blob is cleared; left in place it
+	 * would be selected and warned about again on every startup.
+	 */
+	private boolean copy(Integer userId) {
+		Optional<StoredUpload> upload = jdbcTemplate.query("select image from users where id = ?", rs -> {
+			if (!rs.next())
+				return Optional.empty();
+			try (InputStream content = rs.getBinaryStream(1)) {
+				if (content == null)
+					return Optional.empty();
+				byte[] header = content.readNBytes(ImageType.HEADER_LENGTH);
+				Optional<ImageType> type = ImageType.detect(header, header.length);
+				if (type.isEmpty()) {
+					log.warn("Legacy profile image of user {} is not a JPEG, PNG, GIF or WebP file, dropped", userId);
+					return Optional.empty();
+				}
+				String key = imageStore.store(new SequenceInputStream(new ByteArrayInputStream(header), content));
+				return Optional.of(new StoredUpload(key, type.get()));
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not store the image of user " + userId, e);
+			}
+		}, userId);
+		if (upload == null || upload.isEmpty()) {
+			jdbcTemplate.update("update users set image = null where id = ? and image_key is null", userId);
+			return false;
+		}
+		return jdbcTemplate.update(
+				"update users set image_key = ?, image_content_type = ?, image_updated_at = ? where id = ? and image_key is null",
+				upload.get().key(), upload.get().type().contentType(), Timestamp.from(Instant.now()), userId) == 1;
+	}
+
+	private record StoredUpload(String key, ImageType type) {
+	}
+}
@@ -0,0 +1,81 @@
+package foodapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps images on the local filesystem under their SHA-256, fanned out into
+ * sub-directories by the first two hex digits.
+ */
+@Component
+public class LocalImageStore implements ImageStore {
+
+	private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+	private final Path root;
+
+	public LocalImageStore(@Value("${foodapp.images.root}") String root) {
+		this.root = Paths.get(root).toAbsolutePath().normalize();
+	}
+
+	@Override
+	public String store(InputStream content) throws IOException {
+		Path tmpDir = Files.createDirectories(root.resolve("tmp"));
+		Path upload = Files.createTempFile(tmpDir, "upload-", ".part");
+		try {
+			MessageDigest digest = sha256();
+			try (OutputStream out = new DigestOutputStream(Files.newOutputStream(upload), digest)) {
+				content.transferTo(out);
+			}
+			String key = HexFormat.of().formatHex(digest.digest());
+			Path target = pathOf(key);
+			if (!Files.exists(target)) {
+				Files.createDirectories(target.getParent());
+				Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			return key;
+		} finally {
+			Files.deleteIfExists(upload);
+		}
+	}
+
+	@Override
+	public Resource load(String key) {
+		if (key == null || !KEY.matcher(key).matches()) {
+			throw new NoSuchElementException("No image stored with key: " + key);
+		}
+		Path path = pathOf(key);
+		if (!Files.isRegularFile(path)) {
+			throw new NoSuchElementException("No image stored with key: " + key);
+		}
+		return new FileSystemResource(path);
+	}
+
+	private Path pathOf(String key) {
+		return root.resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package foodapp.storage;
+
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * An image ready to be served, with the metadata needed for HTTP caching.
+ */
+public record StoredImage(String key, String contentType, Instant lastModified, Resource resource) {
+}
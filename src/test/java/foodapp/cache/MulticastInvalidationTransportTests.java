@@ -0,0 +1,83 @@
+package foodapp.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MulticastInvalidationTransportTests {
+
+	private static final String ORIGIN = "9b2f6c1e-5d0a-4e8b-a1f3-7c6d2e4b8a90";
+
+	@Test
+	void keysOfEveryWireTypeSurviveTheRoundTrip() {
+		for (Object key : List.of(42, -7, Long.MAX_VALUE, 0L, "ALL_USERS", "", "PAGE_0_10")) {
+			CacheInvalidation invalidation = new CacheInvalidation(ORIGIN, "food_cache", key, 3);
+			assertEquals(invalidation, roundTrip(invalidation));
+		}
+	}
+
+	@Test
+	void integerAndLongKeysKeepTheirType() {
+		assertEquals(Integer.class, roundTrip(new CacheInvalidation(ORIGIN, "c", 5, 0)).key().getClass());
+		assertEquals(Long.class, roundTrip(new CacheInvalidation(ORIGIN, "c", 5L, 0)).key().getClass());
+		assertEquals(String.class, roundTrip(new CacheInvalidation(ORIGIN, "c", "5", 0)).key().getClass());
+	}
+
+	@Test
+	void stringKeysMayContainSeparatorsAndNonAscii() {
+		for (String key : List.of("a\tb", "line\nbreak", "\t", "Crème Brûlée", "ಮಸಾಲೆ ದೋಸೆ")) {
+			CacheInvalidation invalidation = new CacheInvalidation(ORIGIN, "menu", key, 0);
+			assertEquals(invalidation, roundTrip(invalidation));
+		}
+	}
+
+	@Test
+	void versionSurvivesTheRoundTrip() {
+		for (long version : List.of(0L, 1L, -1L, Long.MAX_VALUE)) {
+			assertEquals(version, roundTrip(new CacheInvalidation(ORIGIN, "orders", 1, version)).version());
+		}
+	}
+
+	@Test
+	void nullKeyMeansWholeCache() {
+		CacheInvalidation invalidation = new CacheInvalidation(ORIGIN, "user_cache", null, 0);
+		assertEquals(invalidation, roundTrip(invalidation));
+	}
+
+	@Test
+	void otherKeyTypesAreSentAsWholeCache() {
+		CacheInvalidation decoded = roundTrip(new CacheInvalidation(ORIGIN, "bills", LocalDate.of(2024, 1, 1), 2));
+		assertNull(decoded.key());
+		assertEquals("bills", decoded.cacheName());
+		assertEquals(2, decoded.version());
+	}
+
+	@Test
+	void encodingIsOneTabSeparatedLine() {
+		assertEquals(ORIGIN + "\tfood_cache\t7\tI\t42",
+				MulticastInvalidationTransport.encode(new CacheInvalidation(ORIGIN, "food_cache", 42, 7)));
+		assertEquals(ORIGIN + "\tuser_cache\t0\t*\t",
+				MulticastInvalidationTransport.encode(new CacheInvalidation(ORIGIN, "user_cache", null, 0)));
+	}
+
+	@Test
+	void malformedDatagramsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> MulticastInvalidationTransport.decode("origin\tcache\t0"));
+		assertThrows(IllegalArgumentException.class, () -> MulticastInvalidationTransport.decode(""));
+		assertThrows(IllegalArgumentException.class,
+				() -> MulticastInvalidationTransport.decode(ORIGIN + "\tcache\t0\tX\t1"));
+		assertThrows(IllegalArgumentException.class,
+				() -> MulticastInvalidationTransport.decode(ORIGIN + "\tcache\t0\tI\tnot-a-number"));
+		assertThrows(IllegalArgumentException.class,
+				() -> MulticastInvalidationTransport.decode(ORIGIN + "\tcache\tv1\tI\t1"));
+	}
+
+	private static CacheInvalidation roundTrip(CacheInvalidation invalidation) {
+		return MulticastInvalidationTransport.decode(MulticastInvalidationTransport.encode(invalidation));
+	}
+}
@@ -0,0 +1,53 @@
+package foodapp.entity;
+
+import static foodapp.entity.OrderStatus.CANCELLED;
+import static foodapp.entity.OrderStatus.DELIVERED;
+import static foodapp.entity.OrderStatus.OUT_FOR_DELIVERY;
+import static foodapp.entity.OrderStatus.PLACED;
+import static foodapp.entity.OrderStatus.PREPARING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class OrderStatusTests {
+
+	private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = Map.of(
+			PLACED, EnumSet.of(PREPARING, CANCELLED),
+			PREPARING, EnumSet.of(OUT_FOR_DELIVERY, CANCELLED),
+			OUT_FOR_DELIVERY, EnumSet.of(DELIVERED),
+			DELIVERED, EnumSet.noneOf(OrderStatus.class),
+			CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+	@Test
+	void everyMoveMatchesTheLifecycle() {
+		for (OrderStatus current : OrderStatus.values()) {
+			for (OrderStatus next : OrderStatus.values()) {
+				assertEquals(ALLOWED.get(current).contains(next), current.canTransitionTo(next),
+						current + " -> " + next);
+			}
+		}
+	}
+
+	@Test
+	void finalOrdersNeverMove() {
+		assertFalse(DELIVERED.canTransitionTo(CANCELLED));
+		assertFalse(CANCELLED.canTransitionTo(PLACED));
+		assertFalse(CANCELLED.canTransitionTo(DELIVERED));
+	}
+
+	@Test
+	void ordersOnTheWayCannotBeCancelled() {
+		assertFalse(OUT_FOR_DELIVERY.canTransitionTo(CANCELLED));
+	}
+
+	@Test
+	void noStatusMovesToItself() {
+		for (OrderStatus status : OrderStatus.values())
+			assertFalse(status.canTransitionTo(status), status.name());
+	}
+}
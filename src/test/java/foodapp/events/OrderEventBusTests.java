@@ -0,0 +1,80 @@
+package foodapp.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import foodapp.dto.OrderStatusEvent;
+import foodapp.entity.OrderStatus;
+
+class OrderEventBusTests {
+
+	private static final int RING_SIZE = 8;
+	private static final Predicate<OrderStatusEvent> ALL = event -> true;
+
+	private OrderEventBus bus;
+	private long base;
+
+	@BeforeEach
+	void setUp() {
+		bus = new OrderEventBus(RING_SIZE, 16, Duration.ofSeconds(15), Duration.ofMinutes(30));
+		base = bus.lastEventId();
+	}
+
+	@Test
+	void replaysEventsAfterTheGivenIdThatPassTheFilter() {
+		publish(5);
+
+		assertEquals(List.of(3, 4, 5), orderIds(bus.missedSince(base + 2, ALL)));
+		assertEquals(List.of(4), orderIds(bus.missedSince(base + 2, event -> event.getOrderId() == 4)));
+	}
+
+	@Test
+	void upToDateClientGetsNothing() {
+		publish(3);
+
+		assertEquals(List.of(), bus.missedSince(base + 3, ALL));
+	}
+
+	@Test
+	void overwrittenEventsForceAResync() {
+		publish(RING_SIZE + 3);
+
+		assertEquals(RING_SIZE - 1, bus.missedSince(bus.lastEventId() - RING_SIZE + 1, ALL).size());
+		assertNull(bus.missedSince(bus.lastEventId() - RING_SIZE, ALL));
+		assertNull(bus.missedSince(base, ALL));
+	}
+
+	@Test
+	void idFromBeforeThisNodeStartedForcesAResync() {
+		publish(2);
+
+		// a client of another node whose IDs started slightly lower
+		assertNull(bus.missedSince(base - 3, ALL));
+		assertNull(bus.missedSince(base - 1, event -> event.getOrderId() > 0));
+		assertEquals(List.of(1, 2), orderIds(bus.missedSince(base, ALL)));
+	}
+
+	@Test
+	void idAheadOfThisNodeForcesAResync() {
+		publish(2);
+
+		assertNull(bus.missedSince(base + 3, ALL));
+		assertNull(bus.missedSince(Long.MAX_VALUE, ALL));
+	}
+
+	private void publish(int count) {
+		for (int orderId = 1; orderId <= count; orderId++)
+			bus.publish(orderId, 10, 100, OrderStatus.PLACED);
+	}
+
+	private static List<Integer> orderIds(List<OrderStatusEvent> events) {
+		return events.stream().map(OrderStatusEvent::getOrderId).toList();
+	}
+}
@@ -0,0 +1,182 @@
+package foodapp.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import foodapp.cache.CacheInvalidation;
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.cache.InvalidationTransport;
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.entity.OrderStatus;
+
+class OrderReadModelTests {
+
+	private OrderReadModel readModel;
+
+	@BeforeEach
+	void setUp() {
+		readModel = node(mock(InvalidationTransport.class));
+	}
+
+	@Test
+	void missLoadsOnceAndServesFromCache() {
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			readModel.get(1, () -> {
+				loads.incrementAndGet();
+				return Optional.of(order(1, 0));
+			});
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void statusChangeUpgradesCachedSnapshotButNeverDowngradesIt() {
+		readModel.put(order(1, 0));
+		readModel.statusChanged(1, OrderStatus.OUT_FOR_DELIVERY, 2);
+		readModel.statusChanged(1, OrderStatus.PREPARING, 1);
+
+		OrderDetailsResponse cached = readModel.get(1, Optional::empty);
+		assertEquals(OrderStatus.OUT_FOR_DELIVERY, cached.status());
+		assertEquals(2, cached.version());
+	}
+
+	@Test
+	void loadStartedBeforeStatusChangeIsServedButNotCached() {
+		readModel.statusChanged(1, OrderStatus.PREPARING, 1);
+
+		assertEquals(0, readModel.get(1, () -> Optional.of(order(1, 0))).version());
+		assertEquals(1, readModel.get(1, () -> Optional.of(order(1, 1))).version());
+		assertEquals(1, readModel.get(1, Optional::empty).version());
+	}
+
+	@Test
+	void deletedOrderStaysHiddenFromLateLoads() {
+		readModel.put(order(1, 0));
+		readModel.deleted(1);
+		readModel.put(order(1, 0));
+
+		assertThrows(NoSuchElementException.class, () -> readModel.get(1, () -> Optional.of(order(1, 0))));
+	}
+
+	@Test
+	void missingOrderIsNotFound() {
+		assertThrows(NoSuchElementException.class, () -> readModel.get(1, Optional::empty));
+	}
+
+	@Test
+	void changeOnOtherNodeDropsOlderSnapshotThere() {
+		InvalidationTransport network = new LoopbackTransport();
+		OrderReadModel nodeA = node(network);
+		OrderReadModel nodeB = node(network);
+		nodeA.put(order(1, 0));
+		nodeB.put(order(1, 0));
+
+		nodeA.statusChanged(1, OrderStatus.PREPARING, 1);
+
+		assertEquals(1, nodeA.get(1, Optional::empty).version());
+		assertEquals(0, nodeB.get(1, () -> Optional.of(order(1, 0))).version());
+		assertEquals(1, nodeB.get(1, () -> Optional.of(order(1, 1))).version());
+
+		nodeA.deleted(1);
+		assertThrows(NoSuchElementException.class, () -> nodeB.get(1, Optional::empty));
+	}
+
+	/**
+	 * Writers commit versions to a simulated table and then publish them, while
+	 * readers keep loading from that table. Whatever the interleaving, readers
+	 * must never see a version go backwards and the cache must end on the last
+	 * committed version.
+	 */
+	@Test
+	void concurrentUpdatesAndLoadsConvergeOnLatestVersion() throws Exception {
+		int writers = 4;
+		int readers = 8;
+		int updatesPerWriter = 2_000;
+		AtomicLong committed = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+		List<Future<?>> tasks = new ArrayList<>();
+
+		for (int w = 0; w < writers; w++) {
+			tasks.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < updatesPerWriter; i++) {
+					long version = committed.incrementAndGet();
+					readModel.statusChanged(1, statusOf(version), version);
+				}
+				return null;
+			}));
+		}
+		for (int r = 0; r < readers; r++) {
+			tasks.add(executor.submit(() -> {
+				start.await();
+				long seen = -1;
+				for (int i = 0; i < updatesPerWriter; i++) {
+					OrderDetailsResponse order = readModel.get(1, () -> Optional.of(order(1, committed.get())));
+					assertTrue(order.version() >= seen, "version went back from " + seen + " to " + order.version());
+					assertEquals(statusOf(order.version()), order.status());
+					seen = order.version();
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> task : tasks) {
+			task.get();
+		}
+		executor.shutdown();
+
+		long last = committed.get();
+		OrderDetailsResponse order = readModel.get(1, () -> Optional.of(order(1, last)));
+		assertEquals(last, order.version());
+		assertEquals(statusOf(last), order.status());
+	}
+
+	private static OrderReadModel node(InvalidationTransport transport) {
+		return new OrderReadModel(new CaffeineCacheManager(OrderReadModel.CACHE_NAME),
+				new CacheInvalidationBus(transport));
+	}
+
+	private static final class LoopbackTransport implements InvalidationTransport {
+
+		private final List<Consumer<CacheInvalidation>> receivers = new ArrayList<>();
+
+		@Override
+		public void send(CacheInvalidation invalidation) {
+			receivers.forEach(receiver -> receiver.accept(invalidation));
+		}
+
+		@Override
+		public void receive(Consumer<CacheInvalidation> receiver) {
+			receivers.add(receiver);
+		}
+	}
+
+	private static OrderStatus statusOf(long version) {
+		return version == 0 ? OrderStatus.PLACED : version % 2 == 0 ? OrderStatus.PREPARING : OrderStatus.OUT_FOR_DELIVERY;
+	}
+
+	private static OrderDetailsResponse order(int id, long version) {
+		return new OrderDetailsResponse(id, statusOf(version), version, 100.0, 1, 1, null, List.of());
+	}
+}
@@ -0,0 +1,341 @@
+package foodapp.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import foodapp.cache.CacheInvalidation;
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.cache.InvalidationTransport;
+import foodapp.dto.NearbyRestaurantResponse;
+import foodapp.entity.Restaurant;
+import foodapp.repository.RestaurantRepository;
+
+class RestaurantGeoIndexTests {
+
+	private static final double EARTH_RADIUS_KM = 6371.0088;
+
+	private RestaurantRepository repository;
+	private InvalidationTransport transport;
+	private RestaurantGeoIndex index;
+	private List<RestaurantLocation> locations;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RestaurantRepository.class);
+		transport = mock(InvalidationTransport.class);
+		index = new RestaurantGeoIndex(repository, new CacheInvalidationBus(transport));
+		locations = new ArrayList<>();
+	}
+
+	@Test
+	void withinMatchesBruteForceAroundACity() {
+		Random random = new Random(42);
+		scatter(random, 12.97, 77.59, 0.3, 2_000);
+		load();
+
+		for (int i = 0; i < 200; i++) {
+			double latitude = 12.97 + (random.nextDouble() - 0.5) * 0.6;
+			double longitude = 77.59 + (random.nextDouble() - 0.5) * 0.6;
+			double radiusKm = 0.5 + random.nextDouble() * 15;
+			assertWithin(latitude, longitude, radiusKm, 25);
+		}
+	}
+
+	@Test
+	void nearestMatchesBruteForceAroundACity() {
+		Random random = new Random(7);
+		scatter(random, 19.07, 72.87, 0.5, 1_000);
+		load();
+
+		for (int i = 0; i < 200; i++) {
+			double latitude = 19.07 + (random.nextDouble() - 0.5);
+			double longitude = 72.87 + (random.nextDouble() - 0.5);
+			int limit = 1 + random.nextInt(30);
+			double maxRadiusKm = 1 + random.nextDouble() * 40;
+			assertEquals(bruteForce(latitude, longitude, maxRadiusKm, limit),
+					ids(index.nearest(latitude, longitude, limit, maxRadiusKm)));
+		}
+	}
+
+	@Test
+	void nearestStopsAtTheMaximumRadius() {
+		locations.add(location(1, 12.97, 77.59));
+		locations.add(location(2, 13.07, 77.59)); // about 11 km north
+		load();
+
+		assertEquals(List.of(1), ids(index.nearest(12.97, 77.59, 5, 10)));
+		assertEquals(List.of(1, 2), ids(index.nearest(12.97, 77.59, 5, 12)));
+	}
+
+	@Test
+	void searchesWrapAroundTheAntimeridian() {
+		Random random = new Random(180);
+		scatter(random, 0, 179.9, 0.4, 500);
+		scatter(random, -16.5, -179.9, 0.4, 500);
+		load();
+
+		for (int i = 0; i < 200; i++) {
+			double latitude = i % 2 == 0 ? (random.nextDouble() - 0.5) * 0.5 : -16.5 + (random.nextDouble() - 0.5) * 0.5;
+			double longitude = random.nextBoolean() ? 180 - random.nextDouble() * 0.2 : -180 + random.nextDouble() * 0.2;
+			double radiusKm = 1 + random.nextDouble() * 30;
+			assertWithin(latitude, longitude, radiusKm, 20);
+		}
+	}
+
+	@Test
+	void pointJustAcrossTheAntimeridianIsNearest() {
+		locations.add(location(1, 0, 179.99));
+		locations.add(location(2, 0, -179.99));
+		locations.add(location(3, 0, 179.90));
+		load();
+
+		assertEquals(List.of(2, 1, 3), ids(index.within(0, -179.995, 20, 10)));
+		assertEquals(List.of(1, 2, 3), ids(index.within(0, 179.995, 20, 10)));
+	}
+
+	@Test
+	void searchesNearThePolesCoverEveryLongitude() {
+		Random random = new Random(90);
+		scatter(random, 89.9, 0, 0.2, 300);
+		for (int i = 0; i < 300; i++)
+			locations.add(location(1_000 + i, 89.8 + random.nextDouble() * 0.2, -180 + random.nextDouble() * 360));
+		for (int i = 0; i < 300; i++)
+			locations.add(location(2_000 + i, -89.8 - random.nextDouble() * 0.2, -180 + random.nextDouble() * 360));
+		load();
+
+		for (int i = 0; i < 200; i++) {
+			double latitude = (i % 2 == 0 ? 1 : -1) * (89.7 + random.nextDouble() * 0.3);
+			double longitude = -180 + random.nextDouble() * 360;
+			double radiusKm = 1 + random.nextDouble() * 50;
+			assertWithin(latitude, longitude, radiusKm, 40);
+		}
+	}
+
+	@Test
+	void pointsOnOppositeSidesOfThePoleAreClose() {
+		locations.add(location(1, 89.99, 0));
+		locations.add(location(2, 89.99, 180));
+		locations.add(location(3, 89.0, 90));
+		load();
+
+		assertEquals(List.of(1, 2), ids(index.within(89.99, 0, 5, 10)));
+		assertEquals(List.of(1, 2, 3), ids(index.within(90, 45, 120, 10)));
+	}
+
+	@Test
+	void reportedDistanceIsTheGreatCircleDistance() {
+		locations.add(location(1, 12.9716, 77.5946));
+		load();
+
+		NearbyRestaurantResponse found = index.within(13.0827, 80.2707, 400, 1).get(0);
+		assertEquals(distanceKm(13.0827, 80.2707, 12.9716, 77.5946), found.getDistanceKm(), 1e-9);
+		assertEquals(290, found.getDistanceKm(), 5); // Bengaluru to Chennai
+	}
+
+	@Test
+	void putMovesRestaurantAndEvictRemovesIt() {
+		locations.add(location(1, 12.97, 77.59));
+		locations.add(location(2, 12.98, 77.60));
+		load();
+
+		index.put(restaurant(1, 28.61, 77.21));
+		assertEquals(List.of(2), ids(index.within(12.97, 77.59, 10, 10)));
+		assertEquals(List.of(1), ids(index.within(28.61, 77.21, 10, 10)));
+
+		index.put(restaurant(1, 28.62, 77.22));
+		assertEquals(List.of(1), ids(index.within(28.61, 77.21, 10, 10)));
+
+		index.put(restaurant(1, null, null));
+		assertEquals(List.of(), ids(index.within(28.61, 77.21, 10, 10)));
+
+		index.evict(2);
+		assertEquals(List.of(), ids(index.within(12.97, 77.59, 10, 10)));
+		index.evict(2);
+	}
+
+	@Test
+	void evictKeepsOtherRestaurantsInTheSameCell() {
+		for (int i = 1; i <= 10; i++)
+			locations.add(location(i, 12.97 + i * 0.001, 77.59));
+		load();
+
+		index.evict(1);
+		index.evict(5);
+		index.evict(10);
+		assertEquals(List.of(2, 3, 4, 6, 7, 8, 9), ids(index.within(12.97, 77.59, 5, 20)));
+	}
+
+	@Test
+	void putAndEvictAreBroadcastAndReloadedOnOtherNodes() {
+		index.put(restaurant(1, 12.97, 77.59));
+		index.evict(1);
+		verify(transport, times(2)).send(any());
+
+		LoopbackTransport network = new LoopbackTransport();
+		RestaurantRepository otherRepository = mock(RestaurantRepository.class);
+		RestaurantGeoIndex nodeA = new RestaurantGeoIndex(repository, new CacheInvalidationBus(network));
+		RestaurantGeoIndex nodeB = new RestaurantGeoIndex(otherRepository, new CacheInvalidationBus(network));
+
+		when(otherRepository.findLocationById(1)).thenReturn(Optional.of(location(1, 12.97, 77.59)));
+		nodeA.put(restaurant(1, 12.97, 77.59));
+		assertEquals(List.of(1), ids(nodeB.within(12.97, 77.59, 1, 10)));
+
+		when(otherRepository.findLocationById(1)).thenReturn(Optional.empty());
+		nodeA.evict(1);
+		assertEquals(List.of(), ids(nodeB.within(12.97, 77.59, 1, 10)));
+	}
+
+	@Test
+	void searchesAreNotBlockedWhileAReloadReadsTheDatabase() {
+		LoopbackTransport network = new LoopbackTransport();
+		RestaurantGeoIndex node = new RestaurantGeoIndex(repository, new CacheInvalidationBus(network));
+		RestaurantGeoIndex peer = new RestaurantGeoIndex(mock(RestaurantRepository.class), new CacheInvalidationBus(network));
+		when(repository.findAllLocations()).thenReturn(List.of(location(1, 12.97, 77.59)));
+		node.loadAll();
+
+		when(repository.findLocationById(1)).thenAnswer(invocation -> {
+			List<NearbyRestaurantResponse> during = CompletableFuture
+					.supplyAsync(() -> node.within(12.97, 77.59, 1, 10)).get(5, TimeUnit.SECONDS);
+			assertEquals(List.of(1), ids(during));
+			return Optional.of(location(1, 28.61, 77.21));
+		});
+		peer.put(restaurant(1, 28.61, 77.21));
+
+		assertEquals(List.of(1), ids(node.within(28.61, 77.21, 1, 10)));
+	}
+
+	@Test
+	void staleReloadFinishingLastDoesNotOverwriteNewerPut() {
+		LoopbackTransport network = new LoopbackTransport();
+		RestaurantGeoIndex node = new RestaurantGeoIndex(repository, new CacheInvalidationBus(network));
+		RestaurantGeoIndex peer = new RestaurantGeoIndex(mock(RestaurantRepository.class), new CacheInvalidationBus(network));
+
+		when(repository.findLocationById(1)).thenAnswer(invocation -> {
+			node.put(restaurant(1, 28.62, 77.22)); // saved here while the peer's change is still being read
+			return Optional.of(location(1, 28.61, 77.21));
+		});
+		peer.put(restaurant(1, 28.61, 77.21));
+
+		assertEquals(List.of(1), ids(node.within(28.62, 77.22, 0.1, 10)));
+		assertEquals(List.of(), ids(node.within(28.61, 77.21, 0.1, 10)));
+	}
+
+	@Test
+	void loadAllSkipsRestaurantsChangedMeanwhile() {
+		when(repository.findAllLocations()).thenAnswer(invocation -> {
+			index.put(restaurant(1, 28.61, 77.21));
+			return List.of(location(1, 12.97, 77.59), location(2, 12.98, 77.60));
+		});
+		index.loadAll();
+
+		assertEquals(List.of(2), ids(index.within(12.97, 77.59, 10, 10)));
+		assertEquals(List.of(1), ids(index.within(28.61, 77.21, 10, 10)));
+	}
+
+	@Test
+	void loadAllDoesNotIndexARestaurantPutBeforeItTwice() {
+		index.put(restaurant(1, 12.97, 77.59));
+		locations.add(location(1, 12.97, 77.59));
+		load();
+
+		assertEquals(List.of(1), ids(index.within(12.97, 77.59, 1, 10)));
+		index.evict(1);
+		assertEquals(List.of(), ids(index.within(12.97, 77.59, 1, 10)));
+	}
+
+	private void assertWithin(double latitude, double longitude, double radiusKm, int limit) {
+		List<NearbyRestaurantResponse> found = index.within(latitude, longitude, radiusKm, limit);
+		assertEquals(bruteForce(latitude, longitude, radiusKm, limit), ids(found),
+				() -> "within " + radiusKm + " km of " + latitude + "," + longitude);
+		for (NearbyRestaurantResponse restaurant : found) {
+			assertEquals(distanceKm(latitude, longitude, restaurant.getLatitude(), restaurant.getLongitude()),
+					restaurant.getDistanceKm(), 1e-9);
+		}
+	}
+
+	private List<Integer> bruteForce(double latitude, double longitude, double radiusKm, int limit) {
+		record Candidate(int id, double distanceKm) {
+		}
+		return locations.stream()
+				.map(location -> new Candidate(location.id(),
+						distanceKm(latitude, longitude, location.latitude(), location.longitude())))
+				.filter(candidate -> candidate.distanceKm() <= radiusKm)
+				.sorted(Comparator.comparingDouble(Candidate::distanceKm).thenComparingInt(Candidate::id))
+				.limit(limit)
+				.map(Candidate::id)
+				.toList();
+	}
+
+	private void scatter(Random random, double latitude, double longitude, double spreadDegrees, int count) {
+		int firstId = locations.size() + 1;
+		for (int i = 0; i < count; i++) {
+			double lon = longitude + (random.nextDouble() - 0.5) * 2 * spreadDegrees;
+			lon = lon > 180 ? lon - 360 : lon < -180 ? lon + 360 : lon;
+			double lat = Math.max(-90, Math.min(90, latitude + (random.nextDouble() - 0.5) * 2 * spreadDegrees));
+			locations.add(location(firstId + i, lat, lon));
+		}
+	}
+
+	private void load() {
+		when(repository.findAllLocations()).thenReturn(List.copyOf(locations));
+		index.loadAll();
+	}
+
+	private static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double phi1 = Math.toRadians(latitude1);
+		double phi2 = Math.toRadians(latitude2);
+		double sinHalfPhi = Math.sin((phi2 - phi1) / 2);
+		double sinHalfLambda = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+		double a = sinHalfPhi * sinHalfPhi + Math.cos(phi1) * Math.cos(phi2) * sinHalfLambda * sinHalfLambda;
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private static List<Integer> ids(List<NearbyRestaurantResponse> results) {
+		return results.stream().map(NearbyRestaurantResponse::getId).toList();
+	}
+
+	private static RestaurantLocation location(int id, double latitude, double longitude) {
+		return new RestaurantLocation(id, "Restaurant " + id, "Address " + id, latitude, longitude);
+	}
+
+	private static Restaurant restaurant(int id, Double latitude, Double longitude) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(id);
+		restaurant.setName("Restaurant " + id);
+		restaurant.setAddress("Address " + id);
+		restaurant.setLatitude(latitude);
+		restaurant.setLongitude(longitude);
+		return restaurant;
+	}
+
+	private static final class LoopbackTransport implements InvalidationTransport {
+
+		private final List<Consumer<CacheInvalidation>> receivers = new ArrayList<>();
+
+		@Override
+		public void send(CacheInvalidation invalidation) {
+			receivers.forEach(receiver -> receiver.accept(invalidation));
+		}
+
+		@Override
+		public void receive(Consumer<CacheInvalidation> receiver) {
+			receivers.add(receiver);
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package foodapp.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.cache.InvalidationTransport;
+import foodapp.dto.RestaurantSearchResponse;
+import foodapp.entity.Food;
+import foodapp.entity.Restaurant;
+import foodapp.repository.RestaurantRepository;
+
+class RestaurantSearchIndexTests {
+
+	private RestaurantRepository repository;
+	private RestaurantSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RestaurantRepository.class);
+		index = new RestaurantSearchIndex(repository, new CacheInvalidationBus(mock(InvalidationTransport.class)));
+	}
+
+	@Test
+	void tokenizeFoldsAccentsAndCaseAndSplitsOnPunctuation() {
+		assertEquals(List.of("creme", "brulee", "cafe", "24x7"), RestaurantSearchIndex.tokenize("Crème Brûlée, CAFÉ-24x7!"));
+		assertEquals(List.of(), RestaurantSearchIndex.tokenize("  -- "));
+		assertEquals(List.of(), RestaurantSearchIndex.tokenize(null));
+	}
+
+	@Test
+	void accentedTextMatchesPlainQueryAndBack() {
+		load(restaurant(1, "Café Naïve", "Pondicherry"), restaurant(2, "Cafe Coffee Day", "Mysuru"));
+
+		assertEquals(List.of(1), ids(index.search("naive", 10)));
+		assertEquals(List.of(1, 2), ids(index.search("CAFÉ", 10)).stream().sorted().toList());
+	}
+
+	@Test
+	void exactMatchRanksAbovePrefixMatch() {
+		load(restaurant(1, "Pizzaria Napoli", "Indiranagar"), restaurant(2, "Pizza Hut", "Koramangala"));
+
+		assertEquals(List.of(2, 1), ids(index.search("pizza", 10)));
+	}
+
+	@Test
+	void typoMatchScoresBelowExactMatch() {
+		load(restaurant(1, "Pizza Hut", "Koramangala"), restaurant(2, "Dosa Corner", "Jayanagar"));
+
+		float exact = index.search("pizza", 10).get(0).getScore();
+		List<RestaurantSearchResponse> typo = index.search("pizzq", 10);
+		assertEquals(List.of(1), ids(typo));
+		assertTrue(typo.get(0).getScore() < exact);
+	}
+
+	@Test
+	void typosAreOnlyTriedWhenNothingMatchesExactlyOrAsPrefix() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar"), restaurant(2, "Dose of Coffee", "Whitefield"));
+
+		assertEquals(List.of(1), ids(index.search("dosa", 10)));
+	}
+
+	@Test
+	void fieldWeightsRankNameAboveFoodAboveAddress() {
+		load(restaurant(1, "Spice Garden", "Biryani Street", food(11, "Thali", null)),
+				restaurant(2, "Hyderabad House", "MG Road", food(12, "Biryani", null)),
+				restaurant(3, "Biryani Blues", "Brigade Road"));
+
+		assertEquals(List.of(3, 2, 1), ids(index.search("biryani", 10)));
+	}
+
+	@Test
+	void everyTermMustMatch() {
+		load(restaurant(1, "Pizza Hut", "Koramangala"), restaurant(2, "Pizza Express", "Indiranagar"));
+
+		assertEquals(List.of(2), ids(index.search("pizza indira", 10)));
+		assertEquals(List.of(), index.search("pizza whitefield", 10));
+	}
+
+	@Test
+	void editDistanceCountsEditsAndAdjacentSwaps() {
+		assertEquals(0, RestaurantSearchIndex.editDistance("paneer", "paneer", 2));
+		assertEquals(1, RestaurantSearchIndex.editDistance("paneer", "panner", 2));
+		assertEquals(1, RestaurantSearchIndex.editDistance("paneer", "panere", 2));
+		assertEquals(2, RestaurantSearchIndex.editDistance("margarita", "margherita", 2));
+	}
+
+	@Test
+	void editDistanceGivesUpPastTheCutoff() {
+		assertEquals(2, RestaurantSearchIndex.editDistance("kitten", "sitting", 1));
+		assertEquals(3, RestaurantSearchIndex.editDistance("kitten", "sitting", 3));
+		assertEquals(2, RestaurantSearchIndex.editDistance("chkn", "chicken", 1));
+	}
+
+	@Test
+	void shortTermsAllowOneTypoAndLongTermsTwo() {
+		load(restaurant(1, "Chicken Shack", "Koramangala"), restaurant(2, "Margherita Pizzeria", "Indiranagar"));
+
+		assertEquals(List.of(1), ids(index.search("chiken", 10)));
+		assertEquals(List.of(), index.search("chikn", 10));
+		assertEquals(List.of(2), ids(index.search("margarita", 10)));
+		assertEquals(List.of(), index.search("dos", 10));
+	}
+
+	@Test
+	void limitKeepsTheBestResults() {
+		load(restaurant(1, "Pizza Hut", "Pizza Street"), restaurant(2, "Pizza Express", "MG Road"),
+				restaurant(3, "Pizzeria", "Brigade Road"));
+
+		assertEquals(List.of(1, 2), ids(index.search("pizza", 2)));
+	}
+
+	@Test
+	void reloadReplacesTermsAndFoodsOfTheRestaurant() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar", food(11, "Masala Dosa", null)),
+				restaurant(2, "Idli House", "Basavanagudi", food(12, "Rava Idli", null)));
+
+		when(repository.findAllWithFoodsByIdIn(any()))
+				.thenReturn(List.of(restaurant(1, "Biryani Corner", "Jayanagar", food(13, "Mutton Biryani", null))));
+		index.restaurantChanged(1);
+
+		assertEquals(List.of(), index.search("dosa", 10));
+		assertEquals(List.of(), index.search("masala", 10));
+		assertEquals(List.of(1), ids(index.search("biryani", 10)));
+		assertEquals(List.of(1), ids(index.search("corner", 10)));
+
+		List<Collection<Integer>> reloads = recordReloads();
+		index.foodChanged(11);
+		index.foodChanged(13);
+		assertEquals(List.of(List.of(1)), reloads.stream().map(List::copyOf).toList());
+	}
+
+	@Test
+	void removedRestaurantLeavesNoTermsOrFoodsBehind() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar", food(11, "Masala Dosa", null)),
+				restaurant(2, "Idli House", "Basavanagudi", food(12, "Rava Idli", null)));
+
+		when(repository.findAllWithFoodsByIdIn(any())).thenReturn(List.of());
+		index.restaurantChanged(1);
+
+		assertEquals(List.of(), index.search("dosa", 10));
+		assertEquals(List.of(), index.search("dosz", 10));
+		assertEquals(List.of(), index.search("jayanagar", 10));
+		assertEquals(List.of(2), ids(index.search("idli", 10)));
+
+		List<Collection<Integer>> reloads = recordReloads();
+		index.foodChanged(11);
+		assertEquals(List.of(), reloads);
+	}
+
+	@Test
+	void foodChangeReloadsEveryRestaurantServingIt() {
+		Food dosa = food(11, "Masala Dosa", null);
+		load(restaurant(1, "Dosa Corner", "Jayanagar", dosa), restaurant(2, "Udupi Grand", "MG Road", dosa),
+				restaurant(3, "Idli House", "Basavanagudi", food(12, "Rava Idli", null)));
+
+		Food renamed = food(11, "Ghee Roast", "crisp and buttery");
+		when(repository.findAllWithFoodsByIdIn(any())).thenReturn(List.of(
+				restaurant(1, "Dosa Corner", "Jayanagar", renamed), restaurant(2, "Udupi Grand", "MG Road", renamed)));
+		index.foodChanged(11);
+
+		assertEquals(List.of(1, 2), ids(index.search("ghee", 10)).stream().sorted().toList());
+		assertEquals(List.of(1, 2), ids(index.search("buttery", 10)).stream().sorted().toList());
+		assertEquals(List.of(), index.search("masala", 10));
+	}
+
+	@Test
+	void searchesAreNotBlockedWhileAReloadReadsTheDatabase() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar"));
+
+		when(repository.findAllWithFoodsByIdIn(any())).thenAnswer(invocation -> {
+			List<RestaurantSearchResponse> during = CompletableFuture.supplyAsync(() -> index.search("dosa", 10))
+					.get(5, TimeUnit.SECONDS);
+			assertEquals(List.of(1), ids(during));
+			return List.of(restaurant(1, "Biryani Corner", "Jayanagar"));
+		});
+		index.restaurantChanged(1);
+
+		assertEquals(List.of(1), ids(index.search("biryani", 10)));
+	}
+
+	@Test
+	void staleReloadFinishingLastDoesNotOverwriteNewerOne() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar"));
+
+		AtomicInteger loads = new AtomicInteger();
+		when(repository.findAllWithFoodsByIdIn(any())).thenAnswer(invocation -> {
+			if (loads.incrementAndGet() > 1)
+				return List.of(restaurant(1, "Biryani Corner", "Jayanagar"));
+			index.restaurantChanged(1); // a newer change is read while this load is still running
+			return List.of(restaurant(1, "Dosa Corner", "Jayanagar"));
+		});
+		index.restaurantChanged(1);
+
+		assertEquals(List.of(1), ids(index.search("biryani", 10)));
+		assertEquals(List.of(), index.search("dosa", 10));
+	}
+
+	@Test
+	void loadAllSkipsRestaurantsReloadedMeanwhile() {
+		when(repository.findAllWithFoodsByIdIn(any()))
+				.thenReturn(List.of(restaurant(1, "Biryani Corner", "Jayanagar")));
+		when(repository.findAllWithFoods()).thenAnswer(invocation -> {
+			index.restaurantChanged(1);
+			return List.of(restaurant(1, "Dosa Corner", "Jayanagar"), restaurant(2, "Idli House", "Basavanagudi"));
+		});
+		index.loadAll();
+
+		assertEquals(List.of(1), ids(index.search("corner", 10)));
+		assertEquals(List.of(), index.search("dosa", 10));
+		assertEquals(List.of(2), ids(index.search("idli", 10)));
+	}
+
+	@Test
+	void emptyQueryFindsNothing() {
+		load(restaurant(1, "Dosa Corner", "Jayanagar"));
+
+		assertEquals(List.of(), index.search(" ,. ", 10));
+		verify(repository, never()).findAllWithFoodsByIdIn(any());
+	}
+
+	private void load(Restaurant... restaurants) {
+		when(repository.findAllWithFoods()).thenReturn(List.of(restaurants));
+		index.loadAll();
+	}
+
+	/**
+	 * @return the restaurant IDs of every reload from now on
+	 */
+	private List<Collection<Integer>> recordReloads() {
+		List<Collection<Integer>> reloads = new ArrayList<>();
+		when(repository.findAllWithFoodsByIdIn(any())).thenAnswer(invocation -> {
+			reloads.add(invocation.getArgument(0));
+			return List.of();
+		});
+		return reloads;
+	}
+
+	private static List<Integer> ids(List<RestaurantSearchResponse> results) {
+		return results.stream().map(RestaurantSearchResponse::getId).toList();
+	}
+
+	private static Restaurant restaurant(int id, String name, String address, Food... foods) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(id);
+		restaurant.setName(name);
+		restaurant.setAddress(address);
+		restaurant.setFoods(List.of(foods));
+		return restaurant;
+	}
+
+	private static Food food(int id, String name, String description) {
+		Food food = new Food();
+		food.setId(id);
+		food.setName(name);
+		food.setDescription(description);
+		return food;
+	}
+}
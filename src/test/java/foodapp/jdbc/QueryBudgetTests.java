@@ -0,0 +1,122 @@
+package foodapp.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class QueryBudgetTests {
+
+	@AfterEach
+	void noScopeLeftOpen() {
+		assertNull(QueryScope.current());
+	}
+
+	@Test
+	void countsStatementsAndElapsedTime() {
+		try (QueryScope scope = QueryScope.open()) {
+			scope.record("select 1", 3);
+			scope.record("select 2", 4);
+			assertEquals(2, scope.statements());
+			assertEquals(7, scope.elapsedMillis());
+		}
+	}
+
+	@Test
+	void nestedScopeCountsInEveryOpenScope() {
+		try (QueryScope outer = QueryScope.open()) {
+			outer.record("select 1", 0);
+			try (QueryScope inner = QueryScope.open()) {
+				assertSame(inner, QueryScope.current());
+				QueryScope.current().record("select 2", 0);
+				QueryScope.current().record("select 2", 0);
+				assertEquals(2, inner.statements());
+			}
+			assertSame(outer, QueryScope.current());
+			assertEquals(3, outer.statements());
+			assertEquals(2, outer.repeated(2).get(0).count());
+		}
+	}
+
+	@Test
+	void recordReturnsTheOutermostTally() {
+		try (QueryScope outer = QueryScope.open()) {
+			outer.record("select 1", 0);
+			try (QueryScope inner = QueryScope.open()) {
+				assertEquals(2, inner.record("select 1", 0).count());
+			}
+		}
+	}
+
+	@Test
+	void repeatedListsMostRepeatedFirst() {
+		try (QueryScope scope = QueryScope.open()) {
+			record(scope, "select a", 2);
+			record(scope, "select b", 4);
+			record(scope, "select c", 1);
+
+			List<QueryScope.Repeat> repeated = scope.repeated(2);
+			assertEquals(List.of("select b", "select a"), repeated.stream().map(QueryScope.Repeat::sql).toList());
+			assertEquals(4, repeated.get(0).count());
+		}
+	}
+
+	@Test
+	void budgetWithinLimitPasses() {
+		assertDoesNotThrow(() -> {
+			try (QueryBudget budget = QueryBudget.atMost(2)) {
+				record(QueryScope.current(), "select 1", 2);
+				assertEquals(2, budget.used());
+			}
+		});
+	}
+
+	@Test
+	void budgetExceededListsRepeatedStatements() {
+		AssertionError error = assertThrows(AssertionError.class, () -> {
+			try (QueryBudget budget = QueryBudget.atMost(2)) {
+				record(QueryScope.current(), "select * from food where id=?", 3);
+				record(QueryScope.current(), "select * from restaurant where id=?", 1);
+			}
+		});
+		assertEquals("Expected at most 2 statements but 4 ran; repeated:\n\t3x select * from food where id=?",
+				error.getMessage());
+	}
+
+	@Test
+	void budgetExceededWithoutRepeatsHasNoRepeatList() {
+		AssertionError error = assertThrows(AssertionError.class, () -> {
+			try (QueryBudget budget = QueryBudget.atMost(1)) {
+				QueryScope.current().record("select 1", 0);
+				QueryScope.current().record("select 2", 0);
+			}
+		});
+		assertEquals("Expected at most 1 statements but 2 ran", error.getMessage());
+	}
+
+	@Test
+	void budgetInsideRequestScopeOnlyCountsItsOwnBlock() {
+		try (QueryScope request = QueryScope.open()) {
+			record(request, "select 1", 5);
+			assertDoesNotThrow(() -> {
+				try (QueryBudget budget = QueryBudget.atMost(1)) {
+					QueryScope.current().record("select 1", 0);
+				}
+			});
+			assertSame(request, QueryScope.current());
+			assertEquals(6, request.statements());
+		}
+	}
+
+	private static void record(QueryScope scope, String sql, int times) {
+		for (int i = 0; i < times; i++)
+			scope.record(sql, 0);
+	}
+}
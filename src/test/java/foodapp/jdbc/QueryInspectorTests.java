@@ -0,0 +1,125 @@
+package foodapp.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+class QueryInspectorTests {
+
+	private static final String FOOD_BY_ID = "select * from food where id=?";
+
+	private QueryLog queryLog;
+	private SimpleMeterRegistry meterRegistry;
+	private QueryInspector inspector;
+
+	@BeforeEach
+	void setUp() {
+		queryLog = mock(QueryLog.class);
+		when(queryLog.sampled()).thenReturn(true);
+		meterRegistry = new SimpleMeterRegistry();
+		inspector = new QueryInspector(Duration.ofMillis(100), 3, queryLog, meterRegistry);
+	}
+
+	@Test
+	void statementsOutsideAScopeAreNotCounted() {
+		run(FOOD_BY_ID, 1);
+		try (QueryScope scope = QueryScope.open()) {
+			assertEquals(0, scope.statements());
+		}
+	}
+
+	@Test
+	void repeatAtThresholdIsReportedWithCallSite() {
+		try (QueryScope scope = QueryScope.open()) {
+			for (int i = 0; i < 4; i++)
+				run(FOOD_BY_ID, 1);
+			run("select * from restaurant where id=?", 1);
+			inspector.requestCompleted("GET", "/api/orders/{id}", scope);
+		}
+
+		assertEquals(1, meterRegistry.counter("foodapp.jdbc.repeated").count());
+		assertEquals(5, meterRegistry.summary("foodapp.jdbc.statements", "uri", "/api/orders/{id}").totalAmount());
+		String report = reports().get(0);
+		assertTrue(report.startsWith("Possible N+1 in GET /api/orders/{id}: 5 statements"), report);
+		assertTrue(report.contains("\n\t4x at "), report);
+		assertTrue(report.endsWith(": " + FOOD_BY_ID), report);
+		assertFalse(report.contains("restaurant"), report);
+	}
+
+	@Test
+	void repeatsBelowThresholdAreNotReported() {
+		try (QueryScope scope = QueryScope.open()) {
+			run(FOOD_BY_ID, 1);
+			run(FOOD_BY_ID, 1);
+			inspector.requestCompleted("GET", "/api/foods", scope);
+		}
+
+		assertEquals(0, meterRegistry.counter("foodapp.jdbc.repeated").count());
+		assertEquals(1, meterRegistry.summary("foodapp.jdbc.statements", "uri", "/api/foods").count());
+		verify(queryLog, never()).warn(any());
+	}
+
+	@Test
+	void repeatsAreCountedButNotLoggedWhenNotSampled() {
+		when(queryLog.sampled()).thenReturn(false);
+		try (QueryScope scope = QueryScope.open()) {
+			for (int i = 0; i < 3; i++)
+				run(FOOD_BY_ID, 1);
+			inspector.requestCompleted("GET", "/api/foods", scope);
+		}
+
+		assertEquals(1, meterRegistry.counter("foodapp.jdbc.repeated").count());
+		verify(queryLog, never()).warn(any());
+	}
+
+	@Test
+	void slowStatementIsReportedWithParameters() throws Exception {
+		QueryInfo query = new QueryInfo(FOOD_BY_ID);
+		query.getParametersList().add(List.of(new ParameterSetOperation(
+				PreparedStatement.class.getMethod("setInt", int.class, int.class), new Object[] { 1, 42 })));
+		inspector.afterQuery(execution(150), List.of(query));
+		run(FOOD_BY_ID, 99);
+
+		assertEquals(1, meterRegistry.counter("foodapp.jdbc.slow").count());
+		String report = reports().get(0);
+		assertTrue(report.startsWith("Slow statement, 150 ms at "), report);
+		assertTrue(report.endsWith(": " + FOOD_BY_ID + " [42]"), report);
+	}
+
+	private void run(String sql, long elapsedMillis) {
+		inspector.afterQuery(execution(elapsedMillis), List.of(new QueryInfo(sql)));
+	}
+
+	private static ExecutionInfo execution(long elapsedMillis) {
+		ExecutionInfo execution = new ExecutionInfo();
+		execution.setElapsedTime(elapsedMillis);
+		return execution;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> reports() {
+		ArgumentCaptor<Supplier<String>> captor = ArgumentCaptor.forClass(Supplier.class);
+		verify(queryLog, times(1)).warn(captor.capture());
+		return captor.getAllValues().stream().map(Supplier::get).toList();
+	}
+}
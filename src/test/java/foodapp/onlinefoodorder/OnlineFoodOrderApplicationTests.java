@@ -3,7 +3,8 @@ package foodapp.onlinefoodorder;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The token secret has no default; any 32-byte key does for tests
+@SpringBootTest(properties = "foodapp.auth.token-secret=dGVzdC1vbmx5LXRva2VuLXNlY3JldC0zMi1ieXRlcy1sb25n")
 class OnlineFoodOrderApplicationTests {
 
 	@Test
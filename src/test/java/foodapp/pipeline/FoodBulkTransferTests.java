@@ -0,0 +1,199 @@
+package foodapp.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import foodapp.dto.FoodImportReport;
+import foodapp.dto.FoodImportReport.RowError;
+import foodapp.entity.Restaurant;
+import foodapp.pipeline.FoodBulkTransfer.ImportResult;
+import foodapp.repository.RestaurantRepository;
+
+/**
+ * Imports commit chunk by chunk, so these run outside a test transaction and
+ * clean up after themselves.
+ */
+@DataJpaTest(properties = { "foodapp.imports.batch-size=3", "foodapp.exports.fetch-size=2" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(FoodBulkTransfer.class)
+@ImportAutoConfiguration({ ValidationAutoConfiguration.class, JacksonAutoConfiguration.class })
+class FoodBulkTransferTests {
+
+	@Autowired
+	private FoodBulkTransfer bulkTransfer;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@BeforeEach
+	void setUp() {
+		// stands in for any constraint only the database checks
+		jdbcTemplate.execute("create unique index uk_food_name_test on food (name)");
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("drop index uk_food_name_test");
+		jdbcTemplate.update("delete from restaurant_food");
+		jdbcTemplate.update("delete from food");
+		jdbcTemplate.update("delete from restaurant");
+	}
+
+	@Test
+	void badRowInAChunkIsRejectedByPositionAndTheRestIsWritten() throws IOException {
+		FoodImportReport report = importCsv("""
+				id,name,description,price
+				,Masala Dosa,Crisp rice crepe,120
+				,Idli,,60
+				,Masala Dosa,Same name again,130
+				,Vada,Lentil fritter,50
+				,Pongal,,90
+				""", null).report();
+
+		assertEquals(5, report.getRows());
+		assertEquals(4, report.getInserted());
+		assertEquals(1, report.getFailed());
+		assertEquals(1, report.getErrors().size());
+		assertEquals(3, report.getErrors().get(0).getRow());
+		assertEquals(List.of("Idli", "Masala Dosa", "Pongal", "Vada"), names());
+	}
+
+	@Test
+	void invalidRowsAreRejectedWithTheirMessages() throws IOException {
+		FoodImportReport report = importCsv("""
+				id,name,description,price
+				,Masala Dosa,,120
+				, ,,60
+				,Vada,,0
+				""", null).report();
+
+		assertEquals(1, report.getInserted());
+		assertEquals(List.of(new RowError(2, "Food name cannot be blank"), new RowError(3, "Price must be at least 1")),
+				report.getErrors());
+	}
+
+	@Test
+	void updateOfAnUnknownIdIsRejected() throws IOException {
+		int dosa = importCsv("id,name,description,price\n,Masala Dosa,,120\n", null).insertedIds().iterator().next();
+
+		ImportResult result = importCsv("id,name,description,price\n" + dosa + ",Ghee Roast,,140\n" + (dosa + 1_000)
+				+ ",Ghost,,10\n", null);
+
+		assertEquals(Set.of(dosa), result.updatedIds());
+		assertEquals(1, result.report().getUpdated());
+		assertEquals(List.of(new RowError(2, "No food found with ID :" + (dosa + 1_000))), result.report().getErrors());
+		assertEquals(List.of("Ghee Roast"), names());
+	}
+
+	@Test
+	void foodsAreLinkedToTheRestaurantOnce() throws IOException {
+		Restaurant restaurant = restaurant();
+		int dosa = importCsv("id,name,description,price\n,Masala Dosa,,120\n", restaurant.getId()).insertedIds()
+				.iterator().next();
+
+		FoodImportReport report = importCsv("id,name,description,price\n" + dosa + ",Masala Dosa,,125\n,Vada,,50\n"
+				+ dosa + ",Masala Dosa,,130\n,Pongal,,90\n", restaurant.getId()).report();
+
+		assertEquals(2, report.getLinked());
+		assertEquals(3, jdbcTemplate.queryForObject(
+				"select count(*) from restaurant_food where resto_id = ?", Integer.class, restaurant.getId()));
+		assertEquals(3, jdbcTemplate.queryForObject(
+				"select count(distinct food_id) from restaurant_food where resto_id = ?", Integer.class,
+				restaurant.getId()));
+	}
+
+	@Test
+	void csvExportImportsBackUnchanged() throws IOException {
+		roundTrip(BulkFormat.CSV);
+	}
+
+	@Test
+	void ndjsonExportImportsBackUnchanged() throws IOException {
+		roundTrip(BulkFormat.NDJSON);
+	}
+
+	@Test
+	void malformedNdjsonStopsTheImportAtThatRecord() throws IOException {
+		FoodImportReport report = bulkTransfer.importFoods(utf8("""
+				{"name":"Masala Dosa","price":120}
+				{"name":"Vada" "price":50}
+				{"name":"Pongal","price":90}
+				"""), BulkFormat.NDJSON, null).report();
+
+		assertEquals(1, report.getInserted());
+		assertEquals(1, report.getFailed());
+		assertEquals(2, report.getErrors().get(0).getRow());
+		assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed input, import stopped here"));
+	}
+
+	private void roundTrip(BulkFormat format) throws IOException {
+		Restaurant restaurant = restaurant();
+		importCsv("""
+				id,name,description,price
+				,Masala Dosa,"Crisp, with ""podi""\",120.5
+				,Idli,,60
+				,Crème Brûlée,Caramelised custard,180
+				,Vada,Lentil fritter,50
+				""", restaurant.getId());
+		byte[] exported = export(format, restaurant.getId());
+
+		FoodImportReport report = bulkTransfer.importFoods(new ByteArrayInputStream(exported), format,
+				restaurant.getId()).report();
+
+		assertEquals(new FoodImportReport(4, 0, 4, 0, 0, List.of()), report);
+		assertEquals(new String(exported, StandardCharsets.UTF_8),
+				new String(export(format, restaurant.getId()), StandardCharsets.UTF_8));
+		assertEquals(new String(exported, StandardCharsets.UTF_8),
+				new String(export(format, null), StandardCharsets.UTF_8));
+	}
+
+	private ImportResult importCsv(String csv, Integer restaurantId) throws IOException {
+		return bulkTransfer.importFoods(utf8(csv), BulkFormat.CSV, restaurantId);
+	}
+
+	private byte[] export(BulkFormat format, Integer restaurantId) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		bulkTransfer.exportFoods(format, restaurantId, out);
+		return out.toByteArray();
+	}
+
+	private List<String> names() {
+		return jdbcTemplate.queryForList("select name from food order by name", String.class);
+	}
+
+	private Restaurant restaurant() {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setName("Udupi Palace");
+		restaurant.setAddress("12 MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail("udupi@foodapp.in");
+		return restaurantRepository.save(restaurant);
+	}
+
+	private static ByteArrayInputStream utf8(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,143 @@
+package foodapp.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import foodapp.dto.OrderItemRequest;
+import foodapp.dto.PaymentDto;
+import foodapp.exception.IdempotencyConflictException;
+
+class IdempotentOrdersTests {
+
+	private static final String KEY = "5f0c7a9e-2b1d-4c3e-9a8f-6d5e4c3b2a10";
+
+	private IdempotentOrders idempotentOrders;
+	private AtomicInteger placements;
+
+	@BeforeEach
+	void setUp() {
+		idempotentOrders = new IdempotentOrders(new CaffeineCacheManager(IdempotentOrders.CACHE_NAME));
+		placements = new AtomicInteger();
+	}
+
+	@Test
+	void repeatGetsTheFirstResultWithoutPlacingAgain() throws Exception {
+		CompletableFuture<String> first = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 41"));
+		CompletableFuture<String> repeat = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 42"));
+
+		assertEquals("Order 41", first.get());
+		assertEquals("Order 41", repeat.get());
+		assertEquals(1, placements.get());
+	}
+
+	@Test
+	void repeatWhileTheFirstIsStillCommittingWaitsForIt() throws Exception {
+		CompletableFuture<String> commit = new CompletableFuture<>();
+		CompletableFuture<String> first = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), submitted(commit));
+		CompletableFuture<String> repeat = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 42"));
+		assertFalse(repeat.isDone());
+
+		commit.complete("Order 41");
+
+		assertEquals("Order 41", first.get());
+		assertEquals("Order 41", repeat.get());
+		assertEquals(1, placements.get());
+	}
+
+	@Test
+	void sameKeyForADifferentOrderIsAConflict() {
+		idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 41"));
+
+		IdempotencyConflictException error = assertThrows(IdempotencyConflictException.class,
+				() -> idempotentOrders.placeOnce(KEY, "ravi", payment(1, 3), placed("Order 42")));
+		assertTrue(error.getMessage().contains(KEY), error.getMessage());
+		assertEquals(1, placements.get());
+	}
+
+	@Test
+	void keysOfDifferentUsersNeverMeet() throws Exception {
+		assertEquals("Order 41", idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 41")).get());
+		assertEquals("Order 42", idempotentOrders.placeOnce(KEY, "meera", payment(1, 2), placed("Order 42")).get());
+
+		// would share the key "a:b:c" if user and key were joined with a colon
+		assertEquals("Order 43", idempotentOrders.placeOnce("c", "a:b", payment(1, 2), placed("Order 43")).get());
+		assertEquals("Order 44", idempotentOrders.placeOnce("b:c", "a", payment(1, 2), placed("Order 44")).get());
+		assertEquals(4, placements.get());
+	}
+
+	@Test
+	void keyIsReleasedWhenNothingWasSubmitted() throws Exception {
+		IllegalStateException declined = new IllegalStateException("Payment declined");
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), () -> {
+					placements.incrementAndGet();
+					throw declined;
+				}));
+		assertSame(declined, thrown);
+
+		assertEquals("Order 42", idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 42")).get());
+		assertEquals(2, placements.get());
+	}
+
+	@Test
+	void concurrentRepeatOfAPlacementThatSubmittedNothingSharesItsFailure() {
+		CompletableFuture<CompletableFuture<String>> repeat = new CompletableFuture<>();
+		assertThrows(IllegalStateException.class, () -> idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), () -> {
+			repeat.complete(idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 42")));
+			throw new IllegalStateException("Order queue is full");
+		}));
+
+		ExecutionException error = assertThrows(ExecutionException.class, () -> repeat.join().get());
+		assertEquals("Order queue is full", error.getCause().getMessage());
+		assertEquals(0, placements.get());
+	}
+
+	@Test
+	void keyIsKeptOnceTheOrderWasSubmittedEvenIfTheCommitFails() {
+		CompletableFuture<String> commit = new CompletableFuture<>();
+		CompletableFuture<String> first = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), submitted(commit));
+		commit.completeExceptionally(new IllegalStateException("Deadlock found"));
+
+		CompletableFuture<String> repeat = idempotentOrders.placeOnce(KEY, "ravi", payment(1, 2), placed("Order 42"));
+
+		assertTrue(first.isCompletedExceptionally());
+		assertTrue(repeat.isCompletedExceptionally());
+		assertEquals(1, placements.get());
+	}
+
+	private Supplier<CompletableFuture<String>> placed(String result) {
+		return submitted(CompletableFuture.completedFuture(result));
+	}
+
+	private Supplier<CompletableFuture<String>> submitted(CompletableFuture<String> commit) {
+		return () -> {
+			placements.incrementAndGet();
+			return commit;
+		};
+	}
+
+	private static PaymentDto payment(int foodId, int quantity) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setFoodId(foodId);
+		item.setQuantity(quantity);
+		PaymentDto payment = new PaymentDto();
+		payment.setRestaurantId(7);
+		payment.setUserId(3);
+		payment.setPaymentSuccessful(true);
+		payment.setOrderItems(List.of(item));
+		return payment;
+	}
+}
@@ -0,0 +1,148 @@
+package foodapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import foodapp.config.DataSourceProxyConfig;
+import foodapp.entity.Food;
+import foodapp.entity.Restaurant;
+import foodapp.jdbc.QueryBudget;
+import foodapp.jdbc.QueryInspector;
+import foodapp.jdbc.QueryLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Menu changes written straight to the join table. Runs outside a test
+ * transaction, so the modifying queries only work if the default methods
+ * open one themselves.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ DataSourceProxyConfig.class, QueryInspector.class, QueryLog.class, SimpleMeterRegistry.class })
+class MenuLinkRepositoryTests {
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private FoodRepository foodRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Restaurant restaurant;
+	private Restaurant other;
+	private List<Integer> foodIds;
+
+	@BeforeEach
+	void setUp() {
+		List<Food> foods = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			Food food = new Food();
+			food.setName("Dish " + i);
+			food.setPrice(10f * i);
+			foods.add(foodRepository.save(food));
+		}
+		foodIds = foods.stream().map(Food::getId).toList();
+		restaurant = restaurantRepository.save(restaurant("Udupi Palace"));
+		other = restaurantRepository.save(restaurant("Vidyarthi Bhavan"));
+		link(restaurant, foodIds.get(0));
+		link(restaurant, foodIds.get(1));
+		link(other, foodIds.get(0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("delete from restaurant_food");
+		jdbcTemplate.update("delete from food");
+		jdbcTemplate.update("delete from restaurant");
+	}
+
+	@Test
+	void changeMenuRemovesAndAddsWithOneStatementEach() {
+		int[] changed;
+		try (QueryBudget budget = QueryBudget.atMost(2)) {
+			changed = restaurantRepository.changeMenu(restaurant.getId(), foodIds.subList(2, 4), foodIds.subList(0, 1));
+		}
+
+		assertArrayEquals(new int[] { 1, 2 }, changed);
+		assertEquals(Set.of(foodIds.get(1), foodIds.get(2), foodIds.get(3)), links(restaurant));
+		assertEquals(Set.of(foodIds.get(0)), links(other));
+	}
+
+	@Test
+	void changeMenuSkipsFoodsAlreadyOnTheMenuAndUnknownIds() {
+		int[] changed;
+		try (QueryBudget budget = QueryBudget.atMost(1)) {
+			changed = restaurantRepository.changeMenu(restaurant.getId(), List.of(foodIds.get(1), foodIds.get(2), -1),
+					List.of());
+		}
+
+		assertArrayEquals(new int[] { 0, 1 }, changed);
+		assertEquals(Set.of(foodIds.get(0), foodIds.get(1), foodIds.get(2)), links(restaurant));
+		assertEquals(3, jdbcTemplate.queryForObject("select count(*) from restaurant_food where resto_id = ?",
+				Integer.class, restaurant.getId()));
+	}
+
+	@Test
+	void emptyChangeRunsNoStatement() {
+		try (QueryBudget budget = QueryBudget.atMost(0)) {
+			assertArrayEquals(new int[] { 0, 0 }, restaurantRepository.changeMenu(restaurant.getId(), List.of(), List.of()));
+		}
+	}
+
+	@Test
+	void changeMenuTouchesOnlyTheRowsOfThatRestaurant() {
+		assertArrayEquals(new int[] { 0, 2 }, restaurantRepository.changeMenu(other.getId(), foodIds.subList(0, 3),
+				List.of()));
+		assertArrayEquals(new int[] { 1, 0 }, restaurantRepository.changeMenu(restaurant.getId(), List.of(),
+				foodIds.subList(1, 4)));
+
+		assertEquals(Set.of(foodIds.get(0)), links(restaurant));
+		assertEquals(Set.copyOf(foodIds.subList(0, 3)), links(other));
+	}
+
+	@Test
+	void deleteWithLinksRemovesTheFoodFromEveryMenu() {
+		try (QueryBudget budget = QueryBudget.atMost(2)) {
+			foodRepository.deleteWithLinks(foodIds.get(0));
+		}
+
+		assertFalse(foodRepository.existsById(foodIds.get(0)));
+		assertEquals(Set.of(foodIds.get(1)), links(restaurant));
+		assertEquals(Set.of(), links(other));
+	}
+
+	private void link(Restaurant restaurant, Integer foodId) {
+		jdbcTemplate.update("insert into restaurant_food (resto_id, food_id) values (?, ?)", restaurant.getId(), foodId);
+	}
+
+	private Set<Integer> links(Restaurant restaurant) {
+		return Set.copyOf(jdbcTemplate.queryForList("select food_id from restaurant_food where resto_id = ?",
+				Integer.class, restaurant.getId()));
+	}
+
+	private static Restaurant restaurant(String name) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setName(name);
+		restaurant.setAddress("12 MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail(name.toLowerCase().replace(' ', '.') + "@foodapp.in");
+		return restaurant;
+	}
+}
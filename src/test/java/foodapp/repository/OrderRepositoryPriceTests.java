@@ -0,0 +1,103 @@
+package foodapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import foodapp.dto.OrderDetailsResponse;
+import foodapp.dto.OrderItemResponse;
+import foodapp.dto.OrderLineResponse;
+import foodapp.entity.Food;
+import foodapp.entity.Order;
+import foodapp.entity.OrderItem;
+import foodapp.entity.OrderStatus;
+import foodapp.entity.Restaurant;
+import foodapp.entity.User;
+
+/**
+ * Orders keep the price they were placed at after the menu price changes.
+ */
+@DataJpaTest
+class OrderRepositoryPriceTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private Restaurant restaurant;
+
+	@BeforeEach
+	void setUp() {
+		Food dosa = food("Masala Dosa", 120f);
+		Food vada = food("Vada", 50f);
+
+		restaurant = new Restaurant();
+		restaurant.setName("Udupi Palace");
+		restaurant.setAddress("12 MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail("udupi@foodapp.in");
+		entityManager.persist(restaurant);
+
+		User user = new User();
+		user.setUsername("ravi");
+		user.setEmail("ravi@foodapp.in");
+		user.setPassword("{noop}secret");
+		user.setRole("ROLE_USER");
+		entityManager.persist(user);
+
+		Order order = new Order();
+		order.setRestaurant(restaurant);
+		order.setUser(user);
+		order.setStatus(OrderStatus.PLACED);
+		order.setTotalPrice(290.0);
+		// the vada line was written before unit prices were recorded
+		order.setOrderItems(List.of(item(order, dosa, 2, 120f), item(order, vada, 1, null)));
+		entityManager.persist(order);
+
+		dosa.setPrice(150f);
+		vada.setPrice(60f);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void linesShowThePriceChargedNotTheCurrentOne() {
+		List<OrderLineResponse> lines = orderRepository.findLinesByRestaurantId(restaurant.getId());
+
+		assertEquals(List.of("Masala Dosa", "Vada"), lines.stream().map(OrderLineResponse::getFoodName).toList());
+		assertEquals(List.of(120f, 60f), lines.stream().map(OrderLineResponse::getPrice).toList());
+	}
+
+	@Test
+	void detailsShowThePriceChargedNotTheCurrentOne() {
+		Order order = orderRepository.findWithItemsByRestaurantId(restaurant.getId()).get(0);
+
+		List<OrderItemResponse> items = OrderDetailsResponse.of(order).items();
+
+		assertEquals(List.of(120f, 60f), items.stream().map(OrderItemResponse::unitPrice).toList());
+	}
+
+	private Food food(String name, float price) {
+		Food food = new Food();
+		food.setName(name);
+		food.setPrice(price);
+		return entityManager.persist(food);
+	}
+
+	private static OrderItem item(Order order, Food food, int quantity, Float unitPrice) {
+		OrderItem item = new OrderItem();
+		item.setOrder(order);
+		item.setFood(food);
+		item.setQuantity(quantity);
+		item.setUnitPrice(unitPrice);
+		return item;
+	}
+}
@@ -0,0 +1,153 @@
+package foodapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import foodapp.config.DataSourceProxyConfig;
+import foodapp.dto.OrderSummaryResponse;
+import foodapp.entity.Food;
+import foodapp.entity.Order;
+import foodapp.entity.OrderItem;
+import foodapp.entity.OrderStatus;
+import foodapp.entity.Restaurant;
+import foodapp.jdbc.QueryBudget;
+import foodapp.jdbc.QueryInspector;
+import foodapp.jdbc.QueryLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+/**
+ * Statement budgets for the read paths that used to run one statement per
+ * order or per item. Runs on an in-memory database behind the same statement
+ * proxy as production.
+ */
+@DataJpaTest(properties = "foodapp.exports.fetch-size=2")
+@Import({ DataSourceProxyConfig.class, QueryInspector.class, QueryLog.class, SimpleMeterRegistry.class })
+class OrderRepositoryQueryBudgetTests {
+
+	private static final int ORDERS = 3;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private FoodRepository foodRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private Restaurant restaurant;
+	private List<Integer> foodIds;
+
+	@BeforeEach
+	void setUp() {
+		List<Food> foods = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			Food food = new Food();
+			food.setName("Dish " + i);
+			food.setPrice(10f * i);
+			foods.add(entityManager.persist(food));
+		}
+		restaurant = new Restaurant();
+		restaurant.setName("Udupi Palace");
+		restaurant.setAddress("12 MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail("udupi@foodapp.in");
+		restaurant.setFoods(foods);
+		entityManager.persist(restaurant);
+
+		for (int i = 0; i < ORDERS; i++) {
+			Order order = new Order();
+			order.setRestaurant(restaurant);
+			order.setStatus(OrderStatus.PLACED);
+			order.setTotalPrice(30.0);
+			order.setOrderItems(List.of(item(order, foods.get(i)), item(order, foods.get(i + 1))));
+			entityManager.persist(order);
+		}
+		foodIds = foods.stream().map(Food::getId).toList();
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void dataSourceIsProxied() {
+		assertInstanceOf(ProxyDataSource.class, dataSource);
+	}
+
+	@Test
+	void ordersWithItemsAndFoodsLoadInOneStatement() {
+		try (QueryBudget budget = QueryBudget.atMost(1)) {
+			List<Order> orders = orderRepository.findWithItemsByRestaurantId(restaurant.getId());
+			assertEquals(ORDERS, orders.size());
+			orders.forEach(order -> order.getOrderItems().forEach(item -> item.getFood().getName()));
+		}
+	}
+
+	@Test
+	void lazyOrderItemsRunOneStatementPerOrder() {
+		AssertionError error = assertThrows(AssertionError.class, () -> {
+			try (QueryBudget budget = QueryBudget.atMost(2)) {
+				orderRepository.findAll().forEach(order -> order.getOrderItems().size());
+			}
+		});
+		assertTrue(error.getMessage().contains("repeated:\n\t" + ORDERS + "x "), error.getMessage());
+	}
+
+	@Test
+	void foodsOfAnOrderLoadInOneStatement() {
+		try (QueryBudget budget = QueryBudget.atMost(1)) {
+			assertEquals(foodIds.size(), foodRepository.findAllById(foodIds).size());
+		}
+	}
+
+	@Test
+	void foodLookupPerItemRunsOneStatementPerFood() {
+		AssertionError error = assertThrows(AssertionError.class, () -> {
+			try (QueryBudget budget = QueryBudget.atMost(1)) {
+				foodIds.forEach(foodRepository::findById);
+			}
+		});
+		assertTrue(error.getMessage().contains("repeated:\n\t" + foodIds.size() + "x "), error.getMessage());
+	}
+
+	@Test
+	void exportStreamsFilteredOrdersInOneStatement() {
+		try (QueryBudget budget = QueryBudget.atMost(1);
+				Stream<OrderSummaryResponse> orders = orderRepository.streamAll(OrderStatus.PLACED,
+						restaurant.getId(), null, null, null)) {
+			List<Integer> ids = orders.map(OrderSummaryResponse::getId).toList();
+			assertEquals(ORDERS, ids.size());
+			assertEquals(ids.stream().sorted().toList(), ids);
+		}
+		try (Stream<OrderSummaryResponse> orders = orderRepository.streamAll(OrderStatus.CANCELLED, null, null, null,
+				null)) {
+			assertEquals(0, orders.count());
+		}
+	}
+
+	private static OrderItem item(Order order, Food food) {
+		OrderItem item = new OrderItem();
+		item.setOrder(order);
+		item.setFood(food);
+		item.setQuantity(1);
+		return item;
+	}
+}
@@ -0,0 +1,108 @@
+package foodapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import foodapp.dto.OrderStatusResponse;
+import foodapp.entity.Order;
+import foodapp.entity.OrderStatus;
+import foodapp.entity.Restaurant;
+import foodapp.entity.User;
+
+/**
+ * The conditional status update runs as one statement on the database, so it
+ * is tested against a real one rather than a mock.
+ */
+@DataJpaTest
+class OrderRepositoryStatusTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private Integer orderId;
+
+	@BeforeEach
+	void setUp() {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setName("Udupi Palace");
+		restaurant.setAddress("12 MG Road, Bengaluru");
+		restaurant.setContactNumber("9876543210");
+		restaurant.setEmail("udupi@foodapp.in");
+		entityManager.persist(restaurant);
+
+		User user = new User();
+		user.setUsername("ravi");
+		user.setEmail("ravi@foodapp.in");
+		user.setPassword("{noop}secret");
+		user.setRole("ROLE_USER");
+		entityManager.persist(user);
+
+		Order order = new Order();
+		order.setRestaurant(restaurant);
+		order.setUser(user);
+		order.setStatus(OrderStatus.PLACED);
+		order.setTotalPrice(240.0);
+		orderId = entityManager.persist(order).getId();
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void updateAppliesWhenStatusAndVersionAreUnchanged() {
+		OrderStatusResponse read = status();
+
+		assertEquals(1, orderRepository.updateStatus(orderId, OrderStatus.PLACED, read.getVersion(), OrderStatus.PREPARING));
+
+		OrderStatusResponse updated = status();
+		assertEquals(OrderStatus.PREPARING, updated.getStatus());
+		assertEquals(read.getVersion() + 1, updated.getVersion());
+	}
+
+	@Test
+	void updateFromAStaleVersionChangesNothing() {
+		long version = status().getVersion();
+		orderRepository.updateStatus(orderId, OrderStatus.PLACED, version, OrderStatus.PREPARING);
+
+		// a second writer that read the order at the same time loses
+		assertEquals(0, orderRepository.updateStatus(orderId, OrderStatus.PLACED, version, OrderStatus.CANCELLED));
+		assertEquals(OrderStatus.PREPARING, status().getStatus());
+		assertEquals(version + 1, status().getVersion());
+	}
+
+	@Test
+	void updateFromAStaleStatusChangesNothing() {
+		long version = status().getVersion();
+
+		assertEquals(0, orderRepository.updateStatus(orderId, OrderStatus.PREPARING, version, OrderStatus.OUT_FOR_DELIVERY));
+		assertEquals(OrderStatus.PLACED, status().getStatus());
+		assertEquals(version, status().getVersion());
+	}
+
+	@Test
+	void updateOfAnUnknownOrderChangesNothing() {
+		assertEquals(0, orderRepository.updateStatus(orderId + 1_000, OrderStatus.PLACED, 0, OrderStatus.CANCELLED));
+	}
+
+	@Test
+	void statusIsReadWithTheOwnersOfTheOrder() {
+		OrderStatusResponse read = status();
+
+		assertEquals(orderId, read.getId());
+		assertEquals(OrderStatus.PLACED, read.getStatus());
+		assertNotNull(read.getRestaurantId());
+		assertNotNull(read.getUserId());
+	}
+
+	private OrderStatusResponse status() {
+		return orderRepository.findStatusById(orderId).orElseThrow();
+	}
+}
@@ -0,0 +1,117 @@
+package foodapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.cache.InvalidationTransport;
+import foodapp.entity.User;
+
+class CachingAuthenticationProviderTests {
+
+	private static final Instant CREATED = Instant.parse("2024-01-01T00:00:00Z");
+	private static final Instant CHANGED = Instant.parse("2024-06-01T00:00:00Z");
+
+	private AuthenticationProvider delegate;
+	private TokenRevocationList revocationList;
+	private CredentialCache credentialCache;
+	private CachingAuthenticationProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(AuthenticationProvider.class);
+		revocationList = new TokenRevocationList(new CacheInvalidationBus(mock(InvalidationTransport.class)),
+				Duration.ofMinutes(15));
+		credentialCache = new CredentialCache(new ConcurrentMapCacheManager(CredentialCache.CACHE_NAME), revocationList);
+		provider = new CachingAuthenticationProvider(delegate, credentialCache);
+	}
+
+	@Test
+	void repeatLoginIsServedFromTheCache() {
+		Authentication verified = verified("ravi", CREATED);
+		when(delegate.authenticate(any())).thenReturn(verified);
+
+		assertSame(verified, provider.authenticate(login("ravi", "old-secret")));
+		assertSame(verified, provider.authenticate(login("ravi", "old-secret")));
+		verify(delegate, times(1)).authenticate(any());
+	}
+
+	@Test
+	void otherPasswordIsVerifiedAgain() {
+		when(delegate.authenticate(any())).thenReturn(verified("ravi", CREATED))
+				.thenThrow(new BadCredentialsException("Bad credentials"));
+		provider.authenticate(login("ravi", "old-secret"));
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("ravi", "guess")));
+	}
+
+	@Test
+	void loginVerifiedBeforeAPasswordChangeIsNotCachedPastIt() {
+		AtomicInteger calls = new AtomicInteger();
+		when(delegate.authenticate(any())).thenAnswer(invocation -> {
+			if (calls.incrementAndGet() > 1)
+				throw new BadCredentialsException("Bad credentials");
+			// the password changes after the old one was checked but before the put
+			revocationList.credentialsChanged("ravi", CHANGED.toEpochMilli());
+			credentialCache.evict("ravi");
+			return verified("ravi", CREATED);
+		});
+
+		provider.authenticate(login("ravi", "old-secret"));
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("ravi", "old-secret")));
+		verify(delegate, times(2)).authenticate(any());
+	}
+
+	@Test
+	void loginVerifiedAfterAPasswordChangeIsCached() {
+		revocationList.credentialsChanged("ravi", CHANGED.toEpochMilli());
+		Authentication verified = verified("ravi", CHANGED);
+		when(delegate.authenticate(any())).thenReturn(verified);
+
+		provider.authenticate(login("ravi", "new-secret"));
+
+		assertSame(verified, provider.authenticate(login("ravi", "new-secret")));
+		verify(delegate, times(1)).authenticate(any());
+	}
+
+	@Test
+	void deletedUserIsNotServedFromTheCache() {
+		when(delegate.authenticate(any())).thenReturn(verified("ravi", CREATED))
+				.thenThrow(new BadCredentialsException("Bad credentials"));
+		provider.authenticate(login("ravi", "old-secret"));
+
+		revocationList.userRemoved("ravi");
+
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("ravi", "old-secret")));
+	}
+
+	private static Authentication login(String username, String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+	}
+
+	private static Authentication verified(String username, Instant credentialsChangedAt) {
+		User user = new User();
+		user.setUsername(username);
+		user.setRole("ROLE_USER");
+		user.setCredentialsChangedAt(credentialsChangedAt);
+		return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+	}
+}
@@ -0,0 +1,119 @@
+package foodapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import foodapp.cache.CacheInvalidationBus;
+import foodapp.cache.InProcessInvalidationTransport;
+import foodapp.exception.InvalidTokenException;
+
+/**
+ * Two nodes sharing an in-process transport, as two application instances
+ * would share the multicast group.
+ */
+class TokenRevocationListTests {
+
+	private static final String SECRET = "dGVzdC1vbmx5LXRva2VuLXNlY3JldC0zMi1ieXRlcy1sb25n";
+	private static final Duration ACCESS_TTL = Duration.ofMinutes(15);
+
+	private InProcessInvalidationTransport transportA;
+	private InProcessInvalidationTransport transportB;
+	private TokenRevocationList revocationsA;
+	private TokenRevocationList revocationsB;
+	private TokenService nodeA;
+	private TokenService nodeB;
+
+	@BeforeEach
+	void setUp() {
+		transportA = new InProcessInvalidationTransport();
+		transportB = new InProcessInvalidationTransport();
+		revocationsA = new TokenRevocationList(new CacheInvalidationBus(transportA), ACCESS_TTL);
+		revocationsB = new TokenRevocationList(new CacheInvalidationBus(transportB), ACCESS_TTL);
+		nodeA = new TokenService(SECRET, ACCESS_TTL, Duration.ofDays(7), revocationsA);
+		nodeB = new TokenService(SECRET, ACCESS_TTL, Duration.ofDays(7), revocationsB);
+	}
+
+	@AfterEach
+	void tearDown() {
+		transportA.destroy();
+		transportB.destroy();
+	}
+
+	@Test
+	void loggedOutAccessTokenIsRefusedOnEveryNode() {
+		String token = nodeA.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 0);
+		nodeB.verify(token, TokenType.ACCESS);
+
+		revocationsA.revoke(nodeA.verify(token, TokenType.ACCESS));
+
+		assertRevoked(nodeA, token, TokenType.ACCESS);
+		assertRevoked(nodeB, token, TokenType.ACCESS);
+	}
+
+	@Test
+	void rotatedRefreshTokenCannotBeReplayedOnAnotherNode() {
+		String refresh = nodeB.issue(TokenType.REFRESH, "ravi", List.of("ROLE_USER"), 0);
+
+		revocationsA.revoke(nodeA.verify(refresh, TokenType.REFRESH));
+
+		assertRevoked(nodeB, refresh, TokenType.REFRESH);
+	}
+
+	@Test
+	void otherTokensOfTheUserStayValid() {
+		String revoked = nodeA.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 0);
+		String other = nodeA.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 0);
+
+		revocationsA.revoke(nodeA.verify(revoked, TokenType.ACCESS));
+
+		assertEquals("ravi", nodeB.verify(other, TokenType.ACCESS).username());
+	}
+
+	@Test
+	void receivedRevocationIsPurgedAfterTheTokenExpires() {
+		Instant expired = Instant.now().minusSeconds(1);
+		Instant valid = Instant.now().plus(ACCESS_TTL);
+		revocationsA.revoke(new TokenClaims(TokenType.ACCESS, "ravi", List.of(), expired, "expired-id", 0));
+		revocationsA.revoke(new TokenClaims(TokenType.ACCESS, "ravi", List.of(), valid, "valid-id", 0));
+		assertTrue(revocationsB.isRevoked("expired-id"));
+
+		revocationsB.purgeExpired();
+
+		assertFalse(revocationsB.isRevoked("expired-id"));
+		assertTrue(revocationsB.isRevoked("valid-id"));
+	}
+
+	@Test
+	void changedCredentialsMakeTokensStaleOnEveryNode() {
+		String token = nodeA.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 100);
+
+		revocationsA.credentialsChanged("ravi", 200);
+
+		assertThrows(InvalidTokenException.class, () -> nodeB.verify(token, TokenType.ACCESS));
+		nodeB.verify(nodeB.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 200), TokenType.ACCESS);
+	}
+
+	@Test
+	void removedUserHasNoValidTokensOnAnyNode() {
+		String token = nodeA.issue(TokenType.ACCESS, "ravi", List.of("ROLE_USER"), 100);
+
+		revocationsB.userRemoved("ravi");
+
+		assertThrows(InvalidTokenException.class, () -> nodeA.verify(token, TokenType.ACCESS));
+	}
+
+	private static void assertRevoked(TokenService node, String token, TokenType type) {
+		InvalidTokenException error = assertThrows(InvalidTokenException.class, () -> node.verify(token, type));
+		assertEquals("Token has been revoked", error.getMessage());
+	}
+}
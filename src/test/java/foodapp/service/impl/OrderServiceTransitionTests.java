@@ -0,0 +1,134 @@
+package foodapp.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import foodapp.dto.OrderStatusResponse;
+import foodapp.entity.OrderStatus;
+import foodapp.events.OrderEventBus;
+import foodapp.exception.InvalidOrderStateException;
+import foodapp.index.MenuIndex;
+import foodapp.index.OrderReadModel;
+import foodapp.pipeline.OrderWriter;
+import foodapp.repository.OrderRepository;
+import foodapp.repository.UserRepository;
+import foodapp.service.FoodService;
+import foodapp.stats.SalesStats;
+
+class OrderServiceTransitionTests {
+
+	private static final int ORDER_ID = 41;
+	private static final int RESTAURANT_ID = 7;
+	private static final int USER_ID = 3;
+
+	private OrderRepository orderRepository;
+	private OrderReadModel orderReadModel;
+	private OrderEventBus orderEventBus;
+	private SalesStats salesStats;
+	private OrderServiceImpl orderService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		orderReadModel = mock(OrderReadModel.class);
+		orderEventBus = mock(OrderEventBus.class);
+		salesStats = mock(SalesStats.class);
+		orderService = new OrderServiceImpl(mock(FoodService.class), mock(UserRepository.class), orderRepository,
+				mock(MenuIndex.class), orderReadModel, mock(OrderWriter.class), orderEventBus, salesStats,
+				new ObjectMapper(), Duration.ofSeconds(2));
+	}
+
+	@Test
+	void allowedMoveIsAppliedAndAnnounced() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(status(OrderStatus.PLACED, 0));
+		when(orderRepository.updateStatus(ORDER_ID, OrderStatus.PLACED, 0, OrderStatus.PREPARING)).thenReturn(1);
+
+		OrderStatusResponse moved = orderService.updateOrderStatusByAdmin(ORDER_ID, OrderStatus.PREPARING);
+
+		assertEquals(OrderStatus.PREPARING, moved.getStatus());
+		assertEquals(1, moved.getVersion());
+		verify(orderReadModel).statusChanged(ORDER_ID, OrderStatus.PREPARING, 1);
+		verify(orderEventBus).publish(ORDER_ID, RESTAURANT_ID, USER_ID, OrderStatus.PREPARING);
+		verify(salesStats, never()).orderCancelled(anyInt());
+	}
+
+	@Test
+	void lostRaceIsRetriedFromTheNewState() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(status(OrderStatus.PLACED, 0),
+				status(OrderStatus.PREPARING, 1));
+		when(orderRepository.updateStatus(ORDER_ID, OrderStatus.PLACED, 0, OrderStatus.CANCELLED)).thenReturn(0);
+		when(orderRepository.updateStatus(ORDER_ID, OrderStatus.PREPARING, 1, OrderStatus.CANCELLED)).thenReturn(1);
+
+		assertEquals("Order has been cancelled", orderService.cancelOrder(ORDER_ID));
+
+		verify(orderRepository, times(2)).updateStatus(any(), any(), anyLong(), any());
+		verify(orderReadModel).statusChanged(ORDER_ID, OrderStatus.CANCELLED, 2);
+		verify(orderEventBus, times(1)).publish(ORDER_ID, RESTAURANT_ID, USER_ID, OrderStatus.CANCELLED);
+		verify(salesStats, times(1)).orderCancelled(RESTAURANT_ID);
+	}
+
+	@Test
+	void lostRaceToAMoveThatForbidsTheChangeIsRejected() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(status(OrderStatus.PREPARING, 1),
+				status(OrderStatus.OUT_FOR_DELIVERY, 2));
+		when(orderRepository.updateStatus(ORDER_ID, OrderStatus.PREPARING, 1, OrderStatus.CANCELLED)).thenReturn(0);
+
+		InvalidOrderStateException error = assertThrows(InvalidOrderStateException.class,
+				() -> orderService.cancelOrder(ORDER_ID));
+
+		assertEquals("Order 41 cannot move from OUT_FOR_DELIVERY to CANCELLED", error.getMessage());
+		verify(orderRepository, times(1)).updateStatus(any(), any(), anyLong(), any());
+		verify(orderEventBus, never()).publish(any(), any(), any(), any());
+		verify(salesStats, never()).orderCancelled(anyInt());
+	}
+
+	@Test
+	void deliveredOrderCannotBeCancelled() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(status(OrderStatus.DELIVERED, 3));
+
+		assertThrows(InvalidOrderStateException.class, () -> orderService.cancelOrder(ORDER_ID));
+		verify(orderRepository, never()).updateStatus(any(), any(), anyLong(), any());
+	}
+
+	@Test
+	void givesUpAfterLosingEveryAttempt() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(status(OrderStatus.PLACED, 0));
+		when(orderRepository.updateStatus(any(), any(), anyLong(), any())).thenReturn(0);
+
+		InvalidOrderStateException error = assertThrows(InvalidOrderStateException.class,
+				() -> orderService.updateOrderStatusByAdmin(ORDER_ID, OrderStatus.PREPARING));
+
+		assertTrue(error.getMessage().contains("concurrently"), error.getMessage());
+		verify(orderRepository, times(3)).updateStatus(any(), any(), anyLong(), any());
+		verify(orderReadModel, never()).statusChanged(any(), any(), anyLong());
+	}
+
+	@Test
+	void unknownOrderIsNotFound() {
+		when(orderRepository.findStatusById(ORDER_ID)).thenReturn(Optional.empty());
+
+		assertThrows(NoSuchElementException.class, () -> orderService.cancelOrder(ORDER_ID));
+	}
+
+	private static Optional<OrderStatusResponse> status(OrderStatus status, long version) {
+		return Optional.of(new OrderStatusResponse(ORDER_ID, status, version, RESTAURANT_ID, USER_ID));
+	}
+}
@@ -0,0 +1,77 @@
+package foodapp.stats;
+
+import static foodapp.stats.SalesCounters.CANCELLATIONS;
+import static foodapp.stats.SalesCounters.ORDERS;
+import static foodapp.stats.SalesCounters.QUANTITY;
+import static foodapp.stats.SalesCounters.REVENUE_CENTS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SalesCountersTests {
+
+	@Test
+	void takePendingReturnsTheAmountsAddedSinceTheLastTake() {
+		SalesCounters sales = new SalesCounters();
+		sales.add(ORDERS, 1);
+		sales.add(QUANTITY, 3);
+		sales.add(REVENUE_CENTS, 45_000);
+		sales.add(ORDERS, 1);
+
+		assertArrayEquals(new long[] { 2, 3, 45_000, 0 }, sales.takePending());
+		assertNull(sales.takePending());
+
+		sales.add(CANCELLATIONS, 1);
+		assertArrayEquals(new long[] { 0, 0, 0, 1 }, sales.takePending());
+	}
+
+	@Test
+	void takenAmountsStayVisibleToReaders() {
+		SalesCounters sales = new SalesCounters();
+		sales.add(ORDERS, 2);
+		assertEquals(2, sales.get(ORDERS));
+
+		sales.takePending();
+		assertEquals(2, sales.get(ORDERS));
+		assertFalse(sales.hasPending());
+	}
+
+	@Test
+	void restoredAmountsAreTakenAgainWithTheNewOnes() {
+		SalesCounters sales = new SalesCounters();
+		sales.add(ORDERS, 2);
+		sales.add(QUANTITY, 5);
+		long[] failed = sales.takePending();
+		sales.add(ORDERS, 1);
+
+		sales.restorePending(failed);
+
+		assertEquals(3, sales.get(ORDERS));
+		assertEquals(5, sales.get(QUANTITY));
+		assertTrue(sales.hasPending());
+		assertArrayEquals(new long[] { 3, 5, 0, 0 }, sales.takePending());
+		assertEquals(3, sales.get(ORDERS));
+	}
+
+	@Test
+	void syncAdoptsTheStoredRowAndKeepsPendingAmounts() {
+		SalesCounters sales = new SalesCounters();
+		sales.add(ORDERS, 1);
+		sales.takePending();
+		sales.add(ORDERS, 1);
+
+		// the row as stored also has the orders another node flushed
+		sales.sync(10, 20, 30_000, 2);
+
+		assertEquals(11, sales.get(ORDERS));
+		assertEquals(20, sales.get(QUANTITY));
+		assertEquals(30_000, sales.get(REVENUE_CENTS));
+		assertEquals(2, sales.get(CANCELLATIONS));
+		assertArrayEquals(new long[] { 1, 0, 0, 0 }, sales.takePending());
+		assertEquals(11, sales.get(ORDERS));
+	}
+}
@@ -0,0 +1,190 @@
+package foodapp.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import foodapp.dto.SalesFiguresResponse;
+import foodapp.entity.Food;
+import foodapp.entity.Order;
+import foodapp.entity.OrderItem;
+import foodapp.entity.Restaurant;
+import foodapp.entity.RollupGranularity;
+import foodapp.entity.SalesRollup;
+import foodapp.entity.SalesRollupId;
+import foodapp.index.MenuIndex;
+import foodapp.repository.SalesRollupRepository;
+
+class SalesStatsTests {
+
+	private static final int RESTAURANT_ID = 7;
+
+	private SalesRollupRepository rollupRepository;
+	private JdbcTemplate jdbcTemplate;
+	private SalesStats stats;
+
+	/** Rows of every batch written, as the values bound to the statement. */
+	private List<List<List<Object>>> batches;
+
+	@BeforeEach
+	void setUp() {
+		rollupRepository = mock(SalesRollupRepository.class);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		stats = new SalesStats(rollupRepository, jdbcTemplate, mock(PlatformTransactionManager.class),
+				mock(MenuIndex.class));
+		batches = new ArrayList<>();
+	}
+
+	@Test
+	void flushWritesEachRowOnceAsAnIncrement() {
+		recordBatches();
+		stats.orderPlaced(order(1, 2, 150f));
+		stats.orderPlaced(order(1, 1, 150f));
+
+		stats.flush();
+		stats.flush();
+
+		assertEquals(1, batches.size());
+		assertEquals(5, batches.get(0).size()); // hour, day and all-time for the restaurant; day and all-time for the food
+		assertEquals(List.of(RESTAURANT_ID, 0, "ALL", 2L, 3L, 45_000L, 0L), row(batches.get(0), 0, "ALL"));
+		assertEquals(List.of(RESTAURANT_ID, 1, "DAY", 2L, 3L, 45_000L, 0L), row(batches.get(0), 1, "DAY"));
+	}
+
+	@Test
+	void nothingIsWrittenWithoutPendingAmounts() {
+		stats.flush();
+
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+		verify(rollupRepository).findByUpdatedAtGreaterThanEqual(any());
+	}
+
+	@Test
+	void failedFlushKeepsTheFiguresAndRetriesTheSameAmounts() {
+		when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+				.thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"))
+				.thenAnswer(invocation -> record(invocation.getArgument(1)));
+		stats.orderPlaced(order(1, 2, 150f));
+
+		stats.flush();
+		assertEquals(1, stats.totals(RESTAURANT_ID).getOrders());
+		verify(rollupRepository, never()).findByUpdatedAtGreaterThanEqual(any());
+
+		stats.orderPlaced(order(1, 1, 150f));
+		stats.flush();
+		stats.flush();
+
+		assertEquals(1, batches.size());
+		assertEquals(List.of(RESTAURANT_ID, 0, "ALL", 2L, 3L, 45_000L, 0L), row(batches.get(0), 0, "ALL"));
+		assertEquals(2, stats.totals(RESTAURANT_ID).getOrders());
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+	}
+
+	@Test
+	void flushReadsBackRowsOtherNodesChanged() {
+		recordBatches();
+		stats.orderPlaced(order(1, 2, 150f));
+		when(rollupRepository.findByUpdatedAtGreaterThanEqual(any()))
+				.thenReturn(List.of(rollup(RollupGranularity.ALL, RollupGranularity.ALL_TIME, 5, 9, 130_000, 1)));
+
+		stats.flush();
+		stats.orderCancelled(RESTAURANT_ID);
+
+		assertEquals(5, stats.totals(RESTAURANT_ID).getOrders());
+		assertEquals(9, stats.totals(RESTAURANT_ID).getQuantity());
+		assertEquals(1_300, stats.totals(RESTAURANT_ID).getRevenue());
+		assertEquals(2, stats.totals(RESTAURANT_ID).getCancellations());
+	}
+
+	@Test
+	void loadSkipsExpiredBuckets() {
+		LocalDateTime longAgo = RollupGranularity.HOUR.bucketOf(LocalDateTime.now()).minusHours(SalesStats.HOURS_KEPT + 1);
+		LocalDateTime lastHour = RollupGranularity.HOUR.bucketOf(LocalDateTime.now()).minusHours(1);
+		when(rollupRepository.findAllTimeOrSince(any(), any())).thenReturn(List.of(
+				rollup(RollupGranularity.HOUR, longAgo, 4, 4, 400, 0),
+				rollup(RollupGranularity.HOUR, lastHour, 3, 3, 300, 0)));
+
+		stats.load();
+
+		List<Long> orders = stats.buckets(RESTAURANT_ID, RollupGranularity.HOUR, SalesStats.HOURS_KEPT + 2).stream()
+				.map(SalesFiguresResponse::getOrders).toList();
+		assertEquals(SalesStats.HOURS_KEPT, orders.size());
+		assertEquals(3, orders.get(orders.size() - 2));
+		assertEquals(3, orders.stream().mapToLong(Long::longValue).sum());
+	}
+
+	private void recordBatches() {
+		when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+				.thenAnswer(invocation -> record(invocation.getArgument(1)));
+	}
+
+	private int[] record(BatchPreparedStatementSetter setter) throws Exception {
+		List<List<Object>> rows = new ArrayList<>();
+		for (int i = 0; i < setter.getBatchSize(); i++) {
+			List<Object> values = new ArrayList<>();
+			setter.setValues(mock(PreparedStatement.class, invocation -> {
+				values.add(invocation.getArgument(1));
+				return null;
+			}), i);
+			rows.add(values);
+		}
+		batches.add(rows);
+		return new int[rows.size()];
+	}
+
+	/**
+	 * @return the bound values of the row, without the bucket start
+	 */
+	private static List<Object> row(List<List<Object>> rows, int foodId, String granularity) {
+		List<Object> row = rows.stream().filter(values -> values.get(1).equals(foodId) && values.get(2).equals(granularity))
+				.findFirst().orElseThrow();
+		List<Object> withoutBucket = new ArrayList<>(row);
+		withoutBucket.remove(3);
+		return withoutBucket;
+	}
+
+	private static Order order(int foodId, int quantity, float price) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(RESTAURANT_ID);
+		Food food = new Food();
+		food.setId(foodId);
+		food.setPrice(price);
+		Order order = new Order();
+		order.setRestaurant(restaurant);
+		OrderItem item = new OrderItem();
+		item.setOrder(order);
+		item.setFood(food);
+		item.setQuantity(quantity);
+		order.setOrderItems(List.of(item));
+		order.setTotalPrice((double) price * quantity);
+		return order;
+	}
+
+	private static SalesRollup rollup(RollupGranularity granularity, LocalDateTime bucketStart, long orders,
+			long quantity, long revenueCents, long cancellations) {
+		SalesRollup rollup = new SalesRollup();
+		rollup.setId(new SalesRollupId(RESTAURANT_ID, 0, granularity, bucketStart));
+		rollup.setOrders(orders);
+		rollup.setQuantity(quantity);
+		rollup.setRevenueCents(revenueCents);
+		rollup.setCancellations(cancellations);
+		rollup.setUpdatedAt(LocalDateTime.now());
+		return rollup;
+	}
+}
@@ -0,0 +1,92 @@
+package foodapp.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class LegacyImageMigrationTests {
+
+	private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H' };
+	private static final byte[] TEXT = "not an image at all".getBytes();
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private ImageStore imageStore;
+	private LegacyImageMigration migration;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("create table users (id int primary key, image blob, image_key varchar(64), "
+				+ "image_content_type varchar(64), image_updated_at timestamp)");
+		imageStore = mock(ImageStore.class);
+		when(imageStore.store(any())).thenAnswer(invocation -> {
+			assertArrayEquals(PNG, invocation.<InputStream>getArgument(0).readAllBytes());
+			return "3f2a";
+		});
+		migration = new LegacyImageMigration(jdbcTemplate, imageStore, new ConcurrentMapCacheManager("user_cache"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void imageIsCopiedIntoTheStore() {
+		user(1, PNG);
+
+		migration.run(new DefaultApplicationArguments());
+
+		Map<String, Object> user = jdbcTemplate.queryForMap("select * from users where id = 1");
+		assertEquals("3f2a", user.get("image_key"));
+		assertEquals("image/png", user.get("image_content_type"));
+	}
+
+	@Test
+	void unusableBlobIsClearedSoItIsNotSelectedAgain() throws IOException {
+		user(1, TEXT);
+		user(2, PNG);
+
+		migration.run(new DefaultApplicationArguments());
+		migration.run(new DefaultApplicationArguments());
+
+		Map<String, Object> unusable = jdbcTemplate.queryForMap("select * from users where id = 1");
+		assertNull(unusable.get("image"));
+		assertNull(unusable.get("image_key"));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from users where image is not null and image_key is null", Integer.class));
+		verify(imageStore, times(1)).store(any());
+	}
+
+	@Test
+	void databaseWithoutTheLegacyColumnIsLeftAlone() {
+		jdbcTemplate.execute("alter table users drop column image");
+
+		migration.run(new DefaultApplicationArguments());
+	}
+
+	private void user(int id, byte[] image) {
+		jdbcTemplate.update("insert into users (id, image) values (?, ?)", id, image);
+	}
+}